@@ -1,5 +1,6 @@
 plugins {
     alias(libs.plugins.android.application)
+    alias(libs.plugins.baselineprofile)
 }
 
 android {
@@ -18,7 +19,8 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
@@ -31,6 +33,9 @@ android {
     }
 }
 
+// The startup profile is regenerated on demand with ./gradlew :app:generateBaselineProfile,
+// which needs the :macrobenchmark managed device. Commit what it writes under src/release/generated;
+// release builds ship that and never start the emulator themselves
 dependencies {
     implementation("com.google.android.material:material:1.4.0")
     implementation("com.github.PhilJay:MPAndroidChart:v3.1.0")
@@ -38,6 +43,11 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.work.runtime)
+    implementation(libs.recyclerview)
+    implementation(libs.tracing)
+    implementation(libs.profileinstaller)
+    baselineProfile(project(":macrobenchmark"))
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
@@ -14,8 +14,13 @@
 
 # Uncomment this to preserve the line number information for
 # debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
+-keepattributes SourceFile,LineNumberTable
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+-renamesourcefileattribute SourceFile
+
+# MPAndroidChart animates through ObjectAnimator, which finds setPhaseX/setPhaseY by name
+-keepclassmembers class com.github.mikephil.charting.animation.ChartAnimator {
+    public void setPhase*(float);
+}
\ No newline at end of file
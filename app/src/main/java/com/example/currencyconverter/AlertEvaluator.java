@@ -0,0 +1,124 @@
+package com.example.currencyconverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a set of {@link RateAlert}s against a rate table, touching only the alerts whose
+ * currencies moved. Alerts are indexed under both of their currencies; each evaluation
+ * compares every indexed currency's rate with the one it saw last time, which is a table
+ * lookup per currency rather than per alert, and only walks the alert lists of those that
+ * differ. An alert on two changed currencies is still checked once. The rates seen last
+ * can be handed to a new evaluator, so a fresh process carries on incrementally.
+ */
+public class AlertEvaluator {
+
+    /** An alert that fired and the pair rate that fired it. */
+    public static final class Trigger {
+        public final RateAlert alert;
+        public final double rate;
+
+        Trigger(RateAlert alert, double rate) {
+            this.alert = alert;
+            this.rate = rate;
+        }
+    }
+
+    private final short[] codes;
+    private final double[] lastRates;
+    private final RateAlert[][] alertsByCurrency;
+    private int stamp;
+    private int evaluated;
+
+    public AlertEvaluator(List<RateAlert> alerts) {
+        this(alerts, null);
+    }
+
+    /**
+     * Indexes {@code alerts}, starting from the rates in {@code seen}, by currency code, as
+     * left by {@link #seenRates}. Currencies missing from it count as changed.
+     */
+    public AlertEvaluator(List<RateAlert> alerts, Map<String, Double> seen) {
+        Map<Short, List<RateAlert>> index = new HashMap<>();
+        for (RateAlert alert : alerts) {
+            addTo(index, alert.fromCode, alert);
+            if (alert.toCode != alert.fromCode) {
+                addTo(index, alert.toCode, alert);
+            }
+        }
+
+        codes = new short[index.size()];
+        lastRates = new double[index.size()];
+        alertsByCurrency = new RateAlert[index.size()][];
+        int slot = 0;
+        for (Map.Entry<Short, List<RateAlert>> currency : index.entrySet()) {
+            codes[slot] = currency.getKey();
+            Double rate = seen != null ? seen.get(RateTable.unpack(codes[slot])) : null;
+            lastRates[slot] = rate != null ? rate : Double.NaN;
+            alertsByCurrency[slot] = currency.getValue().toArray(new RateAlert[0]);
+            slot++;
+        }
+    }
+
+    private static void addTo(Map<Short, List<RateAlert>> index, short code, RateAlert alert) {
+        List<RateAlert> list = index.get(code);
+        if (list == null) {
+            list = new ArrayList<>();
+            index.put(code, list);
+        }
+        list.add(alert);
+    }
+
+    /**
+     * Checks the alerts affected by what changed since the last call and returns those that
+     * fired. The first call checks every alert. Rates are compared against the table's own
+     * base, so a table with a different base simply looks like every currency changed.
+     */
+    public List<Trigger> evaluate(RateTable table, long now) {
+        List<Trigger> fired = new ArrayList<>();
+        evaluated = 0;
+        stamp++;
+        for (int slot = 0; slot < codes.length; slot++) {
+            int index = table.indexOf(codes[slot]);
+            double rate = index == RateTable.NOT_FOUND ? Double.NaN : table.rateAt(index);
+            if (Double.compare(rate, lastRates[slot]) == 0) {
+                continue;
+            }
+            lastRates[slot] = rate;
+
+            for (RateAlert alert : alertsByCurrency[slot]) {
+                if (alert.stamp == stamp) {
+                    continue;
+                }
+                alert.stamp = stamp;
+                evaluated++;
+                int fromIndex = table.indexOf(alert.fromCode);
+                int toIndex = table.indexOf(alert.toCode);
+                if (fromIndex == RateTable.NOT_FOUND || toIndex == RateTable.NOT_FOUND) {
+                    continue;
+                }
+                double pairRate = table.convert(fromIndex, toIndex, 1);
+                if (alert.check(pairRate, now)) {
+                    fired.add(new Trigger(alert, pairRate));
+                }
+            }
+        }
+        return fired;
+    }
+
+    /** Puts the rate last seen for each indexed currency into {@code out}, by code. */
+    public void seenRates(Map<String, Double> out) {
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (!Double.isNaN(lastRates[slot])) {
+                out.put(RateTable.unpack(codes[slot]), lastRates[slot]);
+            }
+        }
+    }
+
+    /** Alerts checked by the last {@link #evaluate} call. */
+    public int lastEvaluatedCount() {
+        return evaluated;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.currencyconverter;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import java.util.List;
+
+/** Posts a notification per fired {@link RateAlert}; tapping one opens the app. */
+public final class AlertNotifier {
+
+    private static final String CHANNEL_ID = "rate_alerts";
+
+    private AlertNotifier() {
+    }
+
+    public static void notify(Context context, List<AlertEvaluator.Trigger> fired) {
+        if (fired.isEmpty()) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= 33 && ContextCompat.checkSelfPermission(context,
+                Manifest.permission.POST_NOTIFICATIONS) != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= 26) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Rate alerts",
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        Intent open = new Intent(context, MainActivity.class);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, open, PendingIntent.FLAG_IMMUTABLE);
+        NotificationManagerCompat manager = NotificationManagerCompat.from(context);
+        char[] buffer = new char[AmountFormat.MAX_LENGTH];
+        for (AlertEvaluator.Trigger trigger : fired) {
+            RateAlert alert = trigger.alert;
+            String rate = new String(buffer, 0,
+                    AmountFormat.format(trigger.rate, ChartLabels.decimalsFor(trigger.rate), buffer, 0));
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                    .setSmallIcon(R.drawable.ic_exchange)
+                    .setContentTitle(alert.describe())
+                    .setContentText("1 " + alert.from + " = " + rate + " " + alert.to)
+                    .setContentIntent(contentIntent)
+                    .setAutoCancel(true);
+            // One notification per alert; a later trigger replaces the earlier one
+            manager.notify((int) alert.id, builder.build());
+        }
+    }
+}
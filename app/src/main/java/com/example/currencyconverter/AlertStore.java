@@ -0,0 +1,145 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The user's rate alerts and their evaluation state, in a small properties file that is
+ * written whole after every change or evaluation. The {@link AlertEvaluator} index is rebuilt
+ * only when alerts are added or removed. The rates it last saw per currency are kept in the
+ * same file, so a background sync in a cold process checks only what moved since the last.
+ */
+public class AlertStore {
+
+    private static final String FILE_NAME = "alerts.properties";
+    private static final String PREFIX = "alert.";
+    private static final String SEEN_PREFIX = "seen.";
+
+    private static AlertStore instance;
+
+    private final File file;
+    private final List<RateAlert> alerts = new ArrayList<>();
+    private final Map<String, Double> seen = new HashMap<>();
+    private long nextId = 1;
+    private AlertEvaluator evaluator;
+
+    public static synchronized AlertStore get(File filesDir) {
+        if (instance == null) {
+            instance = new AlertStore(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    AlertStore(File file) {
+        this.file = file;
+        if (!file.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) {
+                RateAlert alert = decode(key.substring(PREFIX.length()), properties.getProperty(key));
+                if (alert != null) {
+                    alerts.add(alert);
+                    nextId = Math.max(nextId, alert.id + 1);
+                }
+            } else if (key.startsWith(SEEN_PREFIX)) {
+                try {
+                    seen.put(key.substring(SEEN_PREFIX.length()), Double.parseDouble(properties.getProperty(key)));
+                } catch (NumberFormatException e) {
+                    // Unknown rate: the currency's alerts are checked next time
+                }
+            }
+        }
+        alerts.sort((a, b) -> Long.compare(a.id, b.id));
+    }
+
+    public synchronized List<RateAlert> alerts() {
+        return new ArrayList<>(alerts);
+    }
+
+    public synchronized RateAlert add(String from, String to, RateAlert.Kind kind, double threshold) {
+        RateAlert alert = new RateAlert(nextId++, from, to, kind, threshold);
+        alerts.add(alert);
+        // Forget these rates so the new alert is checked on the next evaluation
+        seen.remove(from);
+        seen.remove(to);
+        evaluator = null;
+        save();
+        return alert;
+    }
+
+    public synchronized void remove(long id) {
+        if (alerts.removeIf(alert -> alert.id == id)) {
+            evaluator = null;
+            save();
+        }
+    }
+
+    /** Evaluates every alert affected by changes in {@code table} and saves their new state. */
+    public synchronized List<AlertEvaluator.Trigger> evaluate(RateTable table, long now) {
+        if (evaluator == null) {
+            evaluator = new AlertEvaluator(alerts, seen);
+        }
+        List<AlertEvaluator.Trigger> fired = evaluator.evaluate(table, now);
+        // Alerts are checked exactly when some rate moved, i.e. when the seen rates changed
+        if (evaluator.lastEvaluatedCount() > 0) {
+            seen.clear();
+            evaluator.seenRates(seen);
+            save();
+        }
+        return fired;
+    }
+
+    /** Alerts checked by the last {@link #evaluate} call. */
+    synchronized int lastEvaluatedCount() {
+        return evaluator != null ? evaluator.lastEvaluatedCount() : 0;
+    }
+
+    // FROM:TO:KIND:threshold:lastRate:referenceRate:referenceAt
+    private static RateAlert decode(String id, String value) {
+        String[] fields = value.split(":");
+        if (fields.length != 7) {
+            return null;
+        }
+        try {
+            RateAlert alert = new RateAlert(Long.parseLong(id), fields[0], fields[1],
+                    RateAlert.Kind.valueOf(fields[2]), Double.parseDouble(fields[3]));
+            alert.lastRate = Double.parseDouble(fields[4]);
+            alert.referenceRate = Double.parseDouble(fields[5]);
+            alert.referenceAt = Long.parseLong(fields[6]);
+            return alert;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        for (RateAlert alert : alerts) {
+            properties.setProperty(PREFIX + alert.id, alert.from + ":" + alert.to + ":" + alert.kind + ":"
+                    + alert.threshold + ":" + alert.lastRate + ":" + alert.referenceRate + ":" + alert.referenceAt);
+        }
+        for (Map.Entry<String, Double> rate : seen.entrySet()) {
+            properties.setProperty(SEEN_PREFIX + rate.getKey(), Double.toString(rate.getValue()));
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            // The state is still in memory; a lost write at worst repeats or misses one notification
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.currencyconverter;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.Button;
+import android.widget.ListView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+
+import java.math.RoundingMode;
+
+/**
+ * One amount shown in every currency of the current rate snapshot. The whole column is
+ * converted in one pass by {@link BatchConverter}, exactly and with the main screen's
+ * rounding mode; rows only format what is on screen.
+ */
+public class AllCurrenciesActivity extends AppCompatActivity {
+
+    private String fromCode;
+    private final ExactConverter.Money amount = new ExactConverter.Money();
+    private RoundingMode roundingMode;
+    private ListView list;
+    private TaskRunner.Slot ratesSlot;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_all_currencies);
+
+        TextView title = findViewById(R.id.all_title);
+        list = findViewById(R.id.all_list);
+        Button backButton = findViewById(R.id.all_back_button);
+
+        fromCode = getIntent().getStringExtra("from_currency");
+        String amountText = getIntent().getStringExtra("amount");
+        if (amountText == null || !amount.parse(amountText)) {
+            amount.parse("1");
+        }
+        roundingMode = readRoundingMode(getIntent().getStringExtra("rounding_mode"));
+        char[] buffer = new char[amount.formattedLength()];
+        title.setText(new String(buffer, 0, amount.format(buffer, 0)) + " " + fromCode);
+
+        ratesSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+
+        // MainActivity has normally left the snapshot in memory; fall back to disk if not
+        RateCache rateCache = RateCache.get(getFilesDir());
+        RateCache.Snapshot cached = rateCache.peek();
+        if (cached != null) {
+            showAll(cached.table);
+        } else {
+            ratesSlot.submit("rates:disk", rateCache::load, new TaskRunner.Callback<RateCache.Snapshot>() {
+                @Override
+                public void onResult(RateCache.Snapshot snapshot) {
+                    if (snapshot != null) {
+                        showAll(snapshot.table);
+                    } else {
+                        Toast.makeText(AllCurrenciesActivity.this, "Exchange rates not loaded", Toast.LENGTH_SHORT).show();
+                    }
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    Log.e("Store Error", "Failed to load exchange rates", error);
+                    Toast.makeText(AllCurrenciesActivity.this, "Exchange rates not loaded", Toast.LENGTH_SHORT).show();
+                }
+            });
+        }
+
+        backButton.setOnClickListener(v -> finish());
+    }
+
+    @Override
+    protected void onDestroy() {
+        ratesSlot.cancel();
+        super.onDestroy();
+    }
+
+    private void showAll(RateTable table) {
+        int fromIndex = table.indexOf(fromCode);
+        if (fromIndex == RateTable.NOT_FOUND) {
+            Toast.makeText(this, "Invalid currency selection", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        // ~160 multiplies and rounded divisions: cheaper on the main thread than a hop to a worker
+        ExactConverter.Money[] converted = new BatchConverter(table, roundingMode, 1).convertToAll(fromIndex, amount);
+        list.setAdapter(new AmountsAdapter(table, converted));
+    }
+
+    private static RoundingMode readRoundingMode(String name) {
+        try {
+            return name != null ? RoundingMode.valueOf(name) : RoundingMode.HALF_UP;
+        } catch (IllegalArgumentException e) {
+            return RoundingMode.HALF_UP;
+        }
+    }
+
+    private static class AmountsAdapter extends BaseAdapter {
+        private final RateTable table;
+        private final ExactConverter.Money[] amounts;
+
+        AmountsAdapter(RateTable table, ExactConverter.Money[] amounts) {
+            this.table = table;
+            this.amounts = amounts;
+        }
+
+        @Override
+        public int getCount() {
+            return amounts.length;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return table.codeAt(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return table.packedCodeAt(position);
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            View row = convertView;
+            if (row == null) {
+                row = LayoutInflater.from(parent.getContext()).inflate(android.R.layout.simple_list_item_2, parent, false);
+                // TextView keeps a reference to the chars it is given, so each row owns its buffer
+                row.setTag(new char[AmountFormat.MAX_LENGTH]);
+            }
+            TextView code = row.findViewById(android.R.id.text1);
+            TextView value = row.findViewById(android.R.id.text2);
+            code.setText(table.codeAt(position));
+            char[] buffer = (char[]) row.getTag();
+            ExactConverter.Money amount = amounts[position];
+            if (buffer.length < amount.formattedLength()) {
+                buffer = new char[amount.formattedLength()];
+                row.setTag(buffer);
+            }
+            int length = amount.format(buffer, 0);
+            value.setText(buffer, 0, length);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.currencyconverter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Reads and writes plain decimal amounts ({@code -1234.56}) straight from and into char
+ * arrays, for loops that handle far too many values to go through String.format or
+ * Double.parseDouble one String at a time.
+ */
+public final class AmountFormat {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    // Below this a scaled value and its rounding are exact in a double
+    private static final double MAX_EXACT = 1L << 52;
+
+    /** Longest output of {@link #format}, for sizing buffers. */
+    public static final int MAX_LENGTH = 48;
+
+    private AmountFormat() {
+    }
+
+    /**
+     * Parses {@code [start, end)} as a decimal amount, ignoring surrounding spaces and quotes.
+     * Returns NaN when the text is not a number.
+     */
+    public static double parse(char[] chars, int start, int end) {
+        while (start < end && (chars[start] == ' ' || chars[start] == '"')) {
+            start++;
+        }
+        while (end > start && (chars[end - 1] == ' ' || chars[end - 1] == '"')) {
+            end--;
+        }
+        if (start == end) {
+            return Double.NaN;
+        }
+
+        int i = start;
+        boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > 15) {
+                    return parseSlow(chars, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return parseSlow(chars, start, end);
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        // Both operands are exact, so the single division rounds correctly
+        double value = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(char[] chars, int start, int end) {
+        try {
+            return Double.parseDouble(new String(chars, start, end - start));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Writes {@code value} rounded half-up to {@code decimals} places into {@code out} at
+     * {@code offset} and returns the number of chars written (at most {@link #MAX_LENGTH}).
+     */
+    public static int format(double value, int decimals, char[] out, int offset) {
+        double magnitude = Math.abs(value) * POW10[decimals];
+        if (!(magnitude < MAX_EXACT)) {
+            return formatSlow(value, decimals, out, offset);
+        }
+        long scaled = (long) Math.floor(magnitude + 0.5);
+        return formatScaled(value < 0 ? -scaled : scaled, decimals, out, offset);
+    }
+
+    /**
+     * Writes the fixed-point value {@code unscaled / 10^scale} into {@code out} at
+     * {@code offset} and returns the number of chars written.
+     */
+    public static int formatScaled(long unscaled, int scale, char[] out, int offset) {
+        int position = offset;
+        if (unscaled < 0) {
+            out[position++] = '-';
+        }
+
+        // Digits are produced right to left into the tail of the field; working on the
+        // negative side keeps Long.MIN_VALUE representable
+        long remaining = unscaled < 0 ? unscaled : -unscaled;
+        int length = Math.max(digitCount(remaining), scale + 1) + (scale > 0 ? 1 : 0);
+        int cursor = position + length;
+        for (int i = 0; i < scale; i++) {
+            out[--cursor] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        if (scale > 0) {
+            out[--cursor] = '.';
+        }
+        do {
+            out[--cursor] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (cursor > position);
+        return position + length - offset;
+    }
+
+    private static int formatSlow(double value, int decimals, char[] out, int offset) {
+        String text = Double.isFinite(value)
+                ? new BigDecimal(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString()
+                : Double.toString(value);
+        if (text.length() > MAX_LENGTH) {
+            // Absurdly large values fall back to scientific notation rather than being cut
+            text = Double.toString(value);
+        }
+        text.getChars(0, text.length(), out, offset);
+        return text.length();
+    }
+
+    // Digits in a value that is zero or negative
+    private static int digitCount(long negative) {
+        int count = 1;
+        while (negative <= -10) {
+            negative /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Converts many amounts against one {@link RateTable} snapshot, exactly as the main screen
+ * does: through {@link ExactConverter}, rounded to each target currency's ISO 4217 minor
+ * units with the chosen rounding mode.
+ *
+ * CSV input is read in blocks of whole lines; each block is parsed, converted and formatted
+ * on its own worker and the results are written back in input order, so a file of any size
+ * streams through with a bounded number of blocks in memory. Every row gets one extra column
+ * holding its converted amount; rows without a usable amount or currency get an empty cell.
+ */
+public final class BatchConverter {
+
+    /** Column argument meaning the column is not present. */
+    public static final int NONE = -1;
+
+    private static final int BLOCK_CHARS = 256 * 1024;
+
+    private final RateTable table;
+    private final ExactConverter exact;
+    private final RoundingMode mode;
+    private final int threads;
+
+    /** Rounds half up. */
+    public BatchConverter(RateTable table, int threads) {
+        this(table, RoundingMode.HALF_UP, threads);
+    }
+
+    public BatchConverter(RateTable table, RoundingMode mode, int threads) {
+        this.table = table;
+        this.exact = new ExactConverter(table);
+        this.mode = mode;
+        this.threads = Math.max(1, threads);
+    }
+
+    public RateTable table() {
+        return table;
+    }
+
+    /**
+     * {@code amount} of the currency at {@code fromIndex} in every currency of the table, each
+     * rounded to that currency's minor units.
+     */
+    public ExactConverter.Money[] convertToAll(int fromIndex, ExactConverter.Money amount) {
+        ExactConverter.Money[] out = new ExactConverter.Money[table.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = new ExactConverter.Money();
+            exact.convert(fromIndex, i, amount, mode, out[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Converts a CSV whose layout is taken from its first line: columns named
+     * {@code amount} and {@code currency} (any case) are used if present, otherwise the
+     * first column is the amount and there is no header. Rows without a currency column
+     * are read as {@code fromIndex}. Returns the number of rows converted.
+     */
+    public long convertCsv(Reader in, Writer out, int fromIndex, int toIndex) throws IOException {
+        return convertCsv(in, out, NONE, NONE, fromIndex, toIndex);
+    }
+
+    /**
+     * Converts a CSV with known columns; {@code amountColumn} of {@link #NONE} detects the
+     * layout as in {@link #convertCsv(Reader, Writer, int, int)}. A first line whose amount
+     * does not parse is treated as the header and labelled with the target currency.
+     */
+    public long convertCsv(Reader in, Writer out, int amountColumn, int currencyColumn,
+                           int fromIndex, int toIndex) throws IOException {
+        LineReader lines = new LineReader(in);
+        char[] block = lines.nextBlock();
+        if (block == null) {
+            return 0;
+        }
+
+        // The header decides the layout, so it is handled here before any block is dispatched
+        int headerEnd = lineEnd(block, 0);
+        if (amountColumn == NONE) {
+            amountColumn = findColumn(block, 0, headerEnd, "amount");
+            currencyColumn = findColumn(block, 0, headerEnd, "currency");
+            if (amountColumn == NONE) {
+                amountColumn = 0;
+            }
+        }
+        Block header = new Block(exact, mode, block, 0, nextLine(block, headerEnd), amountColumn, currencyColumn,
+                fromIndex, toIndex);
+        header.labelIfHeader(table.codeAt(toIndex));
+
+        long converted = 0;
+        if (threads == 1) {
+            converted += header.call().write(out);
+            int start = header.end;
+            while (block != null) {
+                converted += new Block(exact, mode, block, start, block.length, amountColumn, currencyColumn,
+                        fromIndex, toIndex).call().write(out);
+                block = lines.nextBlock();
+                start = 0;
+            }
+            out.flush();
+            return converted;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+        try {
+            converted += header.call().write(out);
+            int start = header.end;
+            while (block != null) {
+                pending.add(pool.submit(new Block(exact, mode, block, start, block.length, amountColumn, currencyColumn,
+                        fromIndex, toIndex)));
+                // Enough blocks in flight to keep every worker busy while the oldest is written
+                while (pending.size() >= threads * 2) {
+                    converted += await(pending.poll()).write(out);
+                }
+                block = lines.nextBlock();
+                start = 0;
+            }
+            while (!pending.isEmpty()) {
+                converted += await(pending.poll()).write(out);
+            }
+            out.flush();
+            return converted;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Block await(Future<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Conversion interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Conversion failed", e.getCause());
+        }
+    }
+
+    private static int lineEnd(char[] chars, int from) {
+        int i = from;
+        while (i < chars.length && chars[i] != '\n') {
+            i++;
+        }
+        return i > from && chars[i - 1] == '\r' ? i - 1 : i;
+    }
+
+    private static int nextLine(char[] chars, int lineEnd) {
+        int i = lineEnd;
+        while (i < chars.length && chars[i] != '\n') {
+            i++;
+        }
+        return Math.min(i + 1, chars.length);
+    }
+
+    // Index of the field in [start, end) whose unquoted, trimmed text equals name ignoring case
+    private static int findColumn(char[] chars, int start, int end, String name) {
+        int column = 0;
+        int fieldStart = start;
+        boolean quoted = false;
+        for (int i = start; i <= end; i++) {
+            if (i < end && chars[i] == '"') {
+                quoted = !quoted;
+            } else if (i == end || (chars[i] == ',' && !quoted)) {
+                if (fieldEquals(chars, fieldStart, i, name)) {
+                    return column;
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+        }
+        return NONE;
+    }
+
+    private static boolean fieldEquals(char[] chars, int start, int end, String name) {
+        while (start < end && (chars[start] == ' ' || chars[start] == '"')) {
+            start++;
+        }
+        while (end > start && (chars[end - 1] == ' ' || chars[end - 1] == '"')) {
+            end--;
+        }
+        return end - start == name.length() && name.equalsIgnoreCase(new String(chars, start, end - start));
+    }
+
+    /** A run of whole lines, converted on a worker into its own output buffer. */
+    private static final class Block implements Callable<Block> {
+        private final ExactConverter exact;
+        private final RoundingMode mode;
+        private final char[] in;
+        // The same chars as in, for Money.parse
+        private final CharSequence text;
+        private final ExactConverter.Money money = new ExactConverter.Money();
+        private final int start;
+        private final int end;
+        private final int amountColumn;
+        private final int currencyColumn;
+        private final int fromIndex;
+        private final int toIndex;
+        private String headerLabel;
+
+        private char[] out;
+        private int length;
+        private long converted;
+
+        Block(ExactConverter exact, RoundingMode mode, char[] in, int start, int end, int amountColumn,
+              int currencyColumn, int fromIndex, int toIndex) {
+            this.exact = exact;
+            this.mode = mode;
+            this.in = in;
+            this.text = CharBuffer.wrap(in);
+            this.start = start;
+            this.end = end;
+            this.amountColumn = amountColumn;
+            this.currencyColumn = currencyColumn;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        void labelIfHeader(String label) {
+            headerLabel = label;
+        }
+
+        @Override
+        public Block call() {
+            // Input plus the widest possible extra cell per line
+            out = new char[(end - start) + (countLines() + 1) * (AmountFormat.MAX_LENGTH + 2)];
+            int lineStart = start;
+            while (lineStart < end) {
+                int contentEnd = lineEnd(in, lineStart);
+                int next = nextLine(in, contentEnd);
+                if (contentEnd > lineStart) {
+                    convertLine(lineStart, contentEnd);
+                } else {
+                    // Blank lines pass through untouched
+                    out[length++] = '\n';
+                }
+                lineStart = next;
+            }
+            return this;
+        }
+
+        private int countLines() {
+            int lines = 0;
+            for (int i = start; i < end; i++) {
+                if (in[i] == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+
+        private void convertLine(int lineStart, int lineEnd) {
+            int amountStart = -1;
+            int amountEnd = -1;
+            int currencyStart = -1;
+            int currencyEnd = -1;
+            int column = 0;
+            int fieldStart = lineStart;
+            boolean quoted = false;
+            for (int i = lineStart; i <= lineEnd; i++) {
+                if (i < lineEnd && in[i] == '"') {
+                    quoted = !quoted;
+                } else if (i == lineEnd || (in[i] == ',' && !quoted)) {
+                    if (column == amountColumn) {
+                        amountStart = fieldStart;
+                        amountEnd = i;
+                    } else if (column == currencyColumn) {
+                        currencyStart = fieldStart;
+                        currencyEnd = i;
+                    }
+                    column++;
+                    fieldStart = i + 1;
+                }
+            }
+
+            System.arraycopy(in, lineStart, out, length, lineEnd - lineStart);
+            length += lineEnd - lineStart;
+            out[length++] = ',';
+
+            boolean parsed = amountStart >= 0 && parseAmount(amountStart, amountEnd);
+            int from = currencyStart >= 0 ? currencyIndex(currencyStart, currencyEnd) : fromIndex;
+            if (parsed && from != RateTable.NOT_FOUND) {
+                exact.convert(from, toIndex, money, mode, money);
+                // Only an amount too large for a long can outgrow the space set aside per line
+                ensureCapacity(money.formattedLength() + 1);
+                length += money.format(out, length);
+                converted++;
+            } else if (headerLabel != null && lineStart == start) {
+                headerLabel.getChars(0, headerLabel.length(), out, length);
+                length += headerLabel.length();
+            }
+            out[length++] = '\n';
+        }
+
+        // Reads [start, end) into money, ignoring surrounding spaces and quotes
+        private boolean parseAmount(int start, int end) {
+            while (start < end && (in[start] == ' ' || in[start] == '"')) {
+                start++;
+            }
+            while (end > start && (in[end - 1] == ' ' || in[end - 1] == '"')) {
+                end--;
+            }
+            return money.parse(text, start, end);
+        }
+
+        private void ensureCapacity(int needed) {
+            if (length + needed > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, length + needed));
+            }
+        }
+
+        private int currencyIndex(int start, int end) {
+            while (start < end && (in[start] == ' ' || in[start] == '"')) {
+                start++;
+            }
+            while (end > start && (in[end - 1] == ' ' || in[end - 1] == '"')) {
+                end--;
+            }
+            short code = RateTable.pack(in, start, end - start);
+            return code < 0 ? RateTable.NOT_FOUND : exact.table().indexOf(code);
+        }
+
+        long write(Writer writer) throws IOException {
+            writer.write(out, 0, length);
+            return converted;
+        }
+    }
+
+    /** Hands out blocks of whole lines; a line longer than a block grows the block. */
+    private static final class LineReader {
+        private final Reader in;
+        private char[] carry = new char[0];
+        private boolean eof;
+
+        LineReader(Reader in) {
+            this.in = in;
+        }
+
+        char[] nextBlock() throws IOException {
+            if (eof && carry.length == 0) {
+                return null;
+            }
+            char[] buffer = Arrays.copyOf(carry, Math.max(BLOCK_CHARS, carry.length * 2));
+            int filled = carry.length;
+            while (!eof && filled < buffer.length) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    filled += read;
+                }
+            }
+
+            int cut = filled;
+            if (!eof) {
+                while (cut > 0 && buffer[cut - 1] != '\n') {
+                    cut--;
+                }
+                if (cut == 0) {
+                    // No line break in a whole block: keep reading into a bigger one
+                    carry = Arrays.copyOf(buffer, filled);
+                    return nextBlock();
+                }
+            }
+            carry = Arrays.copyOfRange(buffer, cut, filled);
+            return cut == buffer.length ? buffer : Arrays.copyOf(buffer, cut);
+        }
+    }
+}
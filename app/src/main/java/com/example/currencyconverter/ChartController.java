@@ -0,0 +1,298 @@
+package com.example.currencyconverter;
+
+import android.graphics.Color;
+import android.view.MotionEvent;
+import android.widget.TextView;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.components.AxisBase;
+import com.github.mikephil.charting.components.Description;
+import com.github.mikephil.charting.components.Legend;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.interfaces.datasets.ILineDataSet;
+import com.github.mikephil.charting.listener.ChartTouchListener;
+import com.github.mikephil.charting.listener.OnChartGestureListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Owns the history chart for {@link ResultActivity}. The chart is styled once, and the data
+ * set, axis formatter and marker live as long as the chart does; switching the time range
+ * only swaps the series underneath them and redraws, so it allocates no views and causes no
+ * layout pass. Statistics for the visible range come from a {@link RangeStats} built once
+ * per series, so they can follow every pinch and drag frame.
+ */
+public class ChartController implements OnChartGestureListener {
+
+    // Fewer points than this and short ranges would be thinned for no gain
+    private static final int MIN_CHART_POINTS = 100;
+    private static final int TRANSITION_MILLIS = 300;
+    /** Points averaged by the SMA and EMA overlays. */
+    public static final int OVERLAY_PERIOD = 20;
+
+    private final LineChart chart;
+    private final SampledEntries sampledEntries = new SampledEntries();
+    private final ChartLabels labels = new ChartLabels(Locale.getDefault());
+    private final LineDataSet dataSet;
+    private final LineData lineData;
+    private final OverlayEntries smaEntries = new OverlayEntries(sampledEntries);
+    private final OverlayEntries emaEntries = new OverlayEntries(sampledEntries);
+    private final LineDataSet smaSet;
+    private final LineDataSet emaSet;
+    private final RangeStats.Window visibleStats = new RangeStats.Window();
+    private final char[] statsChars = new char[ChartLabels.STATS_LENGTH];
+    private RateHistory history;
+    private RangeStats stats;
+    private TextView statsView;
+    private boolean animateTransitions;
+
+    public ChartController(LineChart chart, String label) {
+        this.chart = chart;
+
+        dataSet = new LineDataSet(sampledEntries, label);
+        dataSet.setColor(Color.parseColor("#FF6D72"));
+        dataSet.setLineWidth(2f);
+        dataSet.setDrawCircles(false);
+        dataSet.setDrawValues(false);
+        dataSet.setMode(LineDataSet.Mode.CUBIC_BEZIER);
+        dataSet.setDrawFilled(true);
+        dataSet.setFillColor(Color.parseColor("#FF6D72"));
+        lineData = new LineData(dataSet);
+        smaSet = overlaySet(smaEntries, "SMA " + OVERLAY_PERIOD, "#FFD54F");
+        emaSet = overlaySet(emaEntries, "EMA " + OVERLAY_PERIOD, "#4FC3F7");
+
+        // Chart styling
+        Description description = new Description();
+        description.setText("Exchange Rate Trend");
+        description.setTextColor(Color.WHITE);
+        chart.setDescription(description);
+        chart.setDrawGridBackground(false);
+        chart.setTouchEnabled(true);
+        chart.setPinchZoom(true);
+        chart.setScaleEnabled(true);
+        chart.setBackgroundColor(Color.BLACK);
+        chart.setOnChartGestureListener(this);
+
+        // X-Axis (date labels)
+        XAxis xAxis = chart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setTextColor(Color.WHITE);
+        xAxis.setDrawGridLines(false);
+        xAxis.setGranularity(1f);
+
+        // Show fewer labels, avoid clutter
+        xAxis.setLabelCount(5, true);
+        xAxis.setLabelRotationAngle(-45);
+
+        xAxis.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getAxisLabel(float value, AxisBase axis) {
+                // Only the ticks actually drawn are ever formatted, each label String is built once
+                int index = (int) value;
+                if (history == null || index < 0 || index >= history.size()) {
+                    return "";
+                }
+                return labels.dateLabel(history.dayAt(index), ChartLabels.unitFor(visibleSpanDays(axis)));
+            }
+        });
+
+        // Legend styling
+        Legend legend = chart.getLegend();
+        legend.setTextColor(Color.WHITE);
+        legend.setTextSize(14f);
+        legend.setForm(Legend.LegendForm.LINE);
+        legend.setFormSize(14f);
+        legend.setXEntrySpace(10f);
+        legend.setYEntrySpace(5f);
+        legend.setWordWrapEnabled(true);
+    }
+
+    private static LineDataSet overlaySet(OverlayEntries entries, String label, String color) {
+        LineDataSet set = new LineDataSet(entries, label);
+        set.setColor(Color.parseColor(color));
+        set.setLineWidth(1.5f);
+        set.setDrawCircles(false);
+        set.setDrawValues(false);
+        set.setHighlightEnabled(false);
+        return set;
+    }
+
+    // Forced label count puts the first and last tick at the edges of the visible range
+    private int visibleSpanDays(AxisBase axis) {
+        if (axis.mEntryCount < 2) {
+            return 0;
+        }
+        int first = Math.max(0, (int) axis.mEntries[0]);
+        int last = Math.min(history.size() - 1, (int) axis.mEntries[axis.mEntryCount - 1]);
+        return last > first ? history.dayAt(last) - history.dayAt(first) : 0;
+    }
+
+    /** Whether a range change draws the new series in from the left instead of just redrawing. */
+    public void setAnimateTransitions(boolean animate) {
+        animateTransitions = animate;
+    }
+
+    /** Where the visible range's high, low, average, change and volatility are shown, or null. */
+    public void setStatsView(TextView statsView) {
+        this.statsView = statsView;
+        showVisibleStats();
+    }
+
+    /** Adds or removes the moving average overlays; they are computed only while shown. */
+    public void setOverlays(boolean sma, boolean ema) {
+        boolean changed = setOverlay(smaSet, sma) | setOverlay(emaSet, ema);
+        if (changed && history != null) {
+            seriesChanged();
+            chart.invalidate();
+        }
+    }
+
+    private boolean setOverlay(LineDataSet set, boolean shown) {
+        if (lineData.contains(set) == shown) {
+            return false;
+        }
+        if (shown) {
+            if (history != null) {
+                computeOverlay(set);
+            }
+            lineData.addDataSet(set);
+        } else {
+            lineData.removeDataSet(set);
+        }
+        return true;
+    }
+
+    // One pass over the history into the overlay's reused buffer
+    private void computeOverlay(LineDataSet set) {
+        if (set == smaSet) {
+            RangeStats.sma(history, OVERLAY_PERIOD, smaEntries.values(history.size()));
+        } else {
+            RangeStats.ema(history, OVERLAY_PERIOD, emaEntries.values(history.size()));
+        }
+    }
+
+    /** Shows {@code history} in place of the current series. */
+    public void show(RateHistory history) {
+        long start = Metrics.CHART_SHOW.start();
+        this.history = history;
+        labels.reset(history.dayAt(0), history.dayAt(history.size() - 1));
+        stats = new RangeStats(history);
+        if (lineData.contains(smaSet)) {
+            computeOverlay(smaSet);
+        }
+        if (lineData.contains(emaSet)) {
+            computeOverlay(emaSet);
+        }
+
+        // Draw about one point per pixel; the full series stays behind it for zooming in
+        sampledEntries.setSource(new HistoryEntries(history));
+        sampledEntries.resample(0, history.size(), chartPoints());
+        if (chart.getData() == null) {
+            chart.setData(lineData);
+        } else {
+            seriesChanged();
+        }
+
+        if (animateTransitions) {
+            chart.animateX(TRANSITION_MILLIS);
+        } else {
+            chart.invalidate();
+        }
+        showVisibleStats();
+        Metrics.CHART_SHOW.stop(start);
+    }
+
+    // Constant time per call, so it runs on every scale and translate event of a gesture
+    private void showVisibleStats() {
+        if (statsView == null || stats == null) {
+            return;
+        }
+        int from = 0;
+        int to = stats.size();
+        if (chart.getViewPortHandler().contentWidth() > 0) {
+            from = (int) Math.ceil(chart.getLowestVisibleX());
+            to = (int) Math.floor(chart.getHighestVisibleX()) + 1;
+        }
+        if (!stats.compute(from, to, visibleStats)) {
+            return;
+        }
+        // The view keeps reading this buffer; it is only rewritten here, on the main thread
+        statsView.setText(statsChars, 0, labels.formatStats(visibleStats, statsChars));
+    }
+
+    // Re-picks points so the visible window gets full detail after a pinch or drag
+    private void refineVisibleRange() {
+        if (history == null) {
+            return;
+        }
+        int from = (int) Math.floor(chart.getLowestVisibleX());
+        int to = (int) Math.ceil(chart.getHighestVisibleX()) + 1;
+        sampledEntries.resample(from, to, chartPoints());
+        seriesChanged();
+        chart.invalidate();
+    }
+
+    // Same list object, new contents: recompute bounds down the chain without replacing anything
+    private void seriesChanged() {
+        List<ILineDataSet> sets = lineData.getDataSets();
+        for (int i = 0; i < sets.size(); i++) {
+            sets.get(i).notifyDataSetChanged();
+        }
+        lineData.notifyDataChanged();
+        chart.notifyDataSetChanged();
+    }
+
+    private int chartPoints() {
+        float width = chart.getViewPortHandler().contentWidth();
+        if (width <= 0) {
+            // Not laid out yet
+            width = chart.getResources().getDisplayMetrics().widthPixels;
+        }
+        return Math.max(MIN_CHART_POINTS, (int) width);
+    }
+
+    @Override
+    public void onChartGestureStart(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+        // The marker only shows for a highlighted value, which needs a touch first
+        if (chart.getMarker() == null) {
+            CustomMarkerView markerView = new CustomMarkerView(chart.getContext(), R.layout.marker_view, labels);
+            markerView.setChartView(chart);
+            chart.setMarker(markerView);
+        }
+    }
+
+    @Override
+    public void onChartGestureEnd(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+        refineVisibleRange();
+    }
+
+    @Override
+    public void onChartLongPressed(MotionEvent me) {
+    }
+
+    @Override
+    public void onChartDoubleTapped(MotionEvent me) {
+    }
+
+    @Override
+    public void onChartSingleTapped(MotionEvent me) {
+    }
+
+    @Override
+    public void onChartFling(MotionEvent me1, MotionEvent me2, float velocityX, float velocityY) {
+    }
+
+    @Override
+    public void onChartScale(MotionEvent me, float scaleX, float scaleY) {
+        showVisibleStats();
+    }
+
+    @Override
+    public void onChartTranslate(MotionEvent me, float dX, float dY) {
+        showVisibleStats();
+    }
+}
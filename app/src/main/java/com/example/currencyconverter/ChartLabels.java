@@ -0,0 +1,172 @@
+package com.example.currencyconverter;
+
+import java.text.DateFormat;
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+/**
+ * Text for the history chart's axis and marker without allocating while the user drags.
+ * Rates are written into a caller's char[]; date labels have to be Strings for the chart
+ * library, so each distinct label is built once and cached. Labels get coarser as the
+ * visible range grows: days for a month or less, months up to about a year and a half,
+ * years beyond that. Locale data is read once, when the labels are created.
+ */
+public class ChartLabels {
+
+    public static final int DAYS = 0;
+    public static final int MONTHS = 1;
+    public static final int YEARS = 2;
+
+    /** Room for {@link #formatStats}: three rates, two percentages and the labels. */
+    public static final int STATS_LENGTH = 5 * AmountFormat.MAX_LENGTH + 32;
+
+    static final int MAX_DAY_SPAN = 45;
+    static final int MAX_MONTH_SPAN = 550;
+
+    private final char decimalSeparator;
+    private final String[] shortMonths;
+    private final boolean dayFirst;
+
+    // Cached labels, indexed from the first day, month and year of the current history
+    private int firstDay;
+    private int firstMonth;
+    private int firstYear;
+    private String[] dayLabels = new String[0];
+    private String[] monthLabels = new String[0];
+    private String[] yearLabels = new String[0];
+
+    public ChartLabels(Locale locale) {
+        decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        shortMonths = DateFormatSymbols.getInstance(locale).getShortMonths();
+        DateFormat format = DateFormat.getDateInstance(DateFormat.SHORT, locale);
+        String pattern = format instanceof SimpleDateFormat ? ((SimpleDateFormat) format).toPattern() : "d/M";
+        dayFirst = pattern.indexOf('d') < pattern.indexOf('M');
+    }
+
+    /** Label unit for a visible range of {@code spanDays} days. */
+    public static int unitFor(int spanDays) {
+        if (spanDays <= MAX_DAY_SPAN) {
+            return DAYS;
+        }
+        return spanDays <= MAX_MONTH_SPAN ? MONTHS : YEARS;
+    }
+
+    /** Prepares the label caches for dates in {@code [firstDay, lastDay]}, dropping the old ones. */
+    public void reset(int firstDay, int lastDay) {
+        this.firstDay = firstDay;
+        this.firstMonth = monthKey(firstDay);
+        this.firstYear = EpochDays.year(firstDay);
+        dayLabels = new String[Math.max(0, lastDay - firstDay + 1)];
+        monthLabels = new String[Math.max(0, monthKey(lastDay) - firstMonth + 1)];
+        yearLabels = new String[Math.max(0, EpochDays.year(lastDay) - firstYear + 1)];
+    }
+
+    /** The label for {@code epochDay} in {@code unit}; the same String every time it is asked for. */
+    public String dateLabel(int epochDay, int unit) {
+        String[] cache;
+        int slot;
+        if (unit == DAYS) {
+            cache = dayLabels;
+            slot = epochDay - firstDay;
+        } else if (unit == MONTHS) {
+            cache = monthLabels;
+            slot = monthKey(epochDay) - firstMonth;
+        } else {
+            cache = yearLabels;
+            slot = EpochDays.year(epochDay) - firstYear;
+        }
+        if (slot < 0 || slot >= cache.length) {
+            // Outside the history reset() was given: still correct, just not cached
+            return buildLabel(epochDay, unit);
+        }
+        String label = cache[slot];
+        if (label == null) {
+            label = buildLabel(epochDay, unit);
+            cache[slot] = label;
+        }
+        return label;
+    }
+
+    private String buildLabel(int epochDay, int unit) {
+        String month = shortMonths[EpochDays.month(epochDay) - 1];
+        int year = EpochDays.year(epochDay);
+        switch (unit) {
+            case DAYS:
+                int day = EpochDays.dayOfMonth(epochDay);
+                return dayFirst ? day + " " + month : month + " " + day;
+            case MONTHS:
+                return month + " '" + (char) ('0' + year / 10 % 10) + (char) ('0' + year % 10);
+            default:
+                return Integer.toString(year);
+        }
+    }
+
+    private static int monthKey(int epochDay) {
+        return EpochDays.year(epochDay) * 12 + EpochDays.month(epochDay) - 1;
+    }
+
+    /**
+     * Writes {@code rate} with enough decimals to tell neighbouring points apart and the
+     * locale's decimal separator; returns the number of chars written.
+     */
+    public int formatRate(double rate, char[] out, int offset) {
+        int length = AmountFormat.format(rate, decimalsFor(rate), out, offset);
+        localizeSeparator(out, offset, length);
+        return length;
+    }
+
+    /**
+     * Writes a one-line summary of {@code stats}, e.g. "High 83.9100  Low 82.1000  Avg 83.0200
+     * +1.23%  Vol 0.31%", into {@code out}, which must hold {@link #STATS_LENGTH} chars;
+     * returns the number of chars written.
+     */
+    public int formatStats(RangeStats.Window stats, char[] out) {
+        int position = append("High ", out, 0);
+        position += formatRate(stats.high, out, position);
+        position = append("  Low ", out, position);
+        position += formatRate(stats.low, out, position);
+        position = append("  Avg ", out, position);
+        position += formatRate(stats.mean, out, position);
+        position = append("  ", out, position);
+        if (stats.changePercent >= 0) {
+            out[position++] = '+';
+        }
+        position += formatPercent(stats.changePercent, out, position);
+        position = append("  Vol ", out, position);
+        position += formatPercent(stats.volatility, out, position);
+        return position;
+    }
+
+    private int formatPercent(double percent, char[] out, int offset) {
+        int length = AmountFormat.format(percent, 2, out, offset);
+        localizeSeparator(out, offset, length);
+        out[offset + length] = '%';
+        return length + 1;
+    }
+
+    private static int append(String text, char[] out, int offset) {
+        text.getChars(0, text.length(), out, offset);
+        return offset + text.length();
+    }
+
+    private void localizeSeparator(char[] out, int offset, int length) {
+        if (decimalSeparator != '.') {
+            for (int i = offset; i < offset + length; i++) {
+                if (out[i] == '.') {
+                    out[i] = decimalSeparator;
+                    break;
+                }
+            }
+        }
+    }
+
+    static int decimalsFor(double rate) {
+        double magnitude = Math.abs(rate);
+        if (magnitude >= 100) {
+            return 2;
+        }
+        return magnitude >= 1 ? 4 : 6;
+    }
+}
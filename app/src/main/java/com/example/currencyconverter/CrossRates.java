@@ -0,0 +1,212 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives the history of any currency pair from per-currency series against one base.
+ *
+ * The store keeps {@code BASE_XXX} series for every currency the provider publishes, so a
+ * pair is two local reads and a division. A range is downloaded once, for all currencies,
+ * the first time any pair needs it; viewing further pairs over that range costs nothing.
+ * Rates are divided in double and only rounded to the stored float once per point.
+ */
+public class CrossRates {
+
+    /** frankfurter publishes against EUR when no {@code from} is given. */
+    public static final String BASE = "EUR";
+
+    /** Downloads every currency's rates against {@link #BASE} over a range of days. */
+    public interface Fetcher {
+        /**
+         * Returns one series per currency for {@code [startDay, endDay]}. With
+         * {@code tailCheck} set the request may be conditional; no series then means
+         * nothing changed. The answer is committed once it is in the store.
+         */
+        RateProvider.History fetchAll(int startDay, int endDay, boolean tailCheck) throws IOException;
+    }
+
+    private final HistoryStore store;
+    private final Fetcher fetcher;
+
+    public CrossRates(HistoryStore store, Fetcher fetcher) {
+        this.store = store;
+        this.fetcher = fetcher;
+    }
+
+    /** A pair's history and how current it is. */
+    public static final class Loaded {
+        public final RateHistory history;
+        /** False when a fetch failed and the history is only what the store already had. */
+        public final boolean complete;
+        /** When the older leg's latest days were last fetched; 0 if never. */
+        public final long updatedAt;
+
+        Loaded(RateHistory history, boolean complete, long updatedAt) {
+            this.history = history;
+            this.complete = complete;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * History of {@code to} per one {@code from} over {@code [start, end]}, fetching only
+     * the days neither leg has seen yet. Failed fetches are left as gaps for the next call.
+     */
+    public RateHistory history(String from, String to, int start, int end, int today, long now) throws IOException {
+        return load(from, to, start, end, today, now).history;
+    }
+
+    /** {@link #history}, also saying whether every fetch succeeded and how old the data is. */
+    public Loaded load(String from, String to, int start, int end, int today, long now) throws IOException {
+        HistoryStore.Pair fromLeg = leg(from);
+        HistoryStore.Pair toLeg = leg(to);
+        boolean complete = fill(new String[] {from, to}, new HistoryStore.Pair[] {fromLeg, toLeg}, start, end, today, now);
+        long updatedAt;
+        if (fromLeg == null || toLeg == null) {
+            updatedAt = fromLeg != null ? fromLeg.tailCheckedAt() : toLeg != null ? toLeg.tailCheckedAt() : now;
+        } else {
+            updatedAt = Math.min(fromLeg.tailCheckedAt(), toLeg.tailCheckedAt());
+        }
+        return new Loaded(read(fromLeg, toLeg, start, end), complete, updatedAt);
+    }
+
+    /**
+     * Brings every currency in {@code codes} up to date over {@code [start, end]} with one
+     * request per hole across all of them, however many there are. Pairs among those
+     * currencies can then be read with {@link #stored} without touching the network.
+     * Returns false if some hole could not be fetched.
+     */
+    public boolean prefetch(Collection<String> codes, int start, int end, int today, long now) throws IOException {
+        String[] legCodes = codes.toArray(new String[0]);
+        HistoryStore.Pair[] legs = new HistoryStore.Pair[legCodes.length];
+        for (int i = 0; i < legs.length; i++) {
+            legs[i] = leg(legCodes[i]);
+        }
+        return fill(legCodes, legs, start, end, today, now);
+    }
+
+    /** What the store already has for the pair over {@code [start, end]}; never fetches. */
+    public RateHistory stored(String from, String to, int start, int end) throws IOException {
+        return read(leg(from), leg(to), start, end);
+    }
+
+    private HistoryStore.Pair leg(String code) throws IOException {
+        return BASE.equals(code) ? null : store.open(BASE, code);
+    }
+
+    // False if any hole could not be fetched
+    private boolean fill(String[] codes, HistoryStore.Pair[] legs, int start, int end, int today, long now) throws IOException {
+        // One request per hole in any leg, never one per leg
+        RangeSet gaps = new RangeSet();
+        for (HistoryStore.Pair leg : legs) {
+            addGaps(gaps, leg, start, end, today, now);
+        }
+        (gaps.size() == 0 ? Metrics.HISTORY_STORE_HITS : Metrics.HISTORY_STORE_MISSES).increment();
+
+        boolean complete = true;
+
+        for (int i = 0; i < gaps.size(); i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                complete = false;
+                break;
+            }
+            int gapStart = gaps.startAt(i);
+            int gapEnd = gaps.endAt(i);
+            RateProvider.History answer;
+            try {
+                answer = fetcher.fetchAll(gapStart, gapEnd, gapStart >= today - 1);
+            } catch (IOException e) {
+                // Show what the store already has; the hole is retried next time
+                complete = false;
+                continue;
+            }
+            Map<String, RateSeries> fetched = answer.rates;
+            for (Map.Entry<String, RateSeries> currency : fetched.entrySet()) {
+                store.open(BASE, currency.getKey()).merge(currency.getValue(), gapStart, gapEnd, today, now);
+            }
+            // Legs the provider had nothing for are still settled for this range
+            for (int leg = 0; leg < legs.length; leg++) {
+                settle(legs[leg], codes[leg], fetched, gapStart, gapEnd, today, now);
+            }
+            answer.commit();
+        }
+        return complete;
+    }
+
+    private static RateHistory read(HistoryStore.Pair fromLeg, HistoryStore.Pair toLeg, int start, int end) {
+        if (fromLeg == null && toLeg != null) {
+            // Already quoted per EUR, read straight from the mapped columns
+            return toLeg.slice(start, end);
+        }
+        return derive(fromLeg != null ? fromLeg.slice(start, end) : null,
+                toLeg != null ? toLeg.slice(start, end) : null);
+    }
+
+    private static void addGaps(RangeSet gaps, HistoryStore.Pair leg, int start, int end, int today, long now) {
+        if (leg == null) {
+            return;
+        }
+        List<int[]> missing = leg.missing(start, end, today, now);
+        for (int[] gap : missing) {
+            gaps.add(gap[0], gap[1]);
+        }
+    }
+
+    private static void settle(HistoryStore.Pair leg, String code, Map<String, RateSeries> fetched,
+                               int start, int end, int today, long now) throws IOException {
+        if (leg != null && !fetched.containsKey(code)) {
+            leg.merge(new RateSeries(0), start, end, today, now);
+        }
+    }
+
+    /**
+     * Joins two base-relative series on day and divides them: {@code to / from} units of
+     * {@code to} per {@code from}. A null leg is the base itself, worth 1 on every day.
+     * Days missing from either leg are dropped rather than interpolated.
+     */
+    public static RateSeries derive(RateHistory from, RateHistory to) {
+        if (from == null && to == null) {
+            return new RateSeries(0);
+        }
+        int capacity = Math.min(from != null ? from.size() : Integer.MAX_VALUE,
+                to != null ? to.size() : Integer.MAX_VALUE);
+        int[] days = new int[capacity];
+        float[] rates = new float[capacity];
+        int size = 0;
+
+        if (from == null || to == null) {
+            RateHistory leg = from != null ? from : to;
+            boolean invert = from != null;
+            for (int i = 0; i < capacity; i++) {
+                double rate = leg.rateAt(i);
+                days[i] = leg.dayAt(i);
+                rates[i] = (float) (invert ? 1.0 / rate : rate);
+            }
+            return new RateSeries(days, rates, capacity);
+        }
+
+        int i = 0;
+        int j = 0;
+        int fromSize = from.size();
+        int toSize = to.size();
+        while (i < fromSize && j < toSize) {
+            int fromDay = from.dayAt(i);
+            int toDay = to.dayAt(j);
+            if (fromDay < toDay) {
+                i++;
+            } else if (fromDay > toDay) {
+                j++;
+            } else {
+                days[size] = fromDay;
+                rates[size] = (float) ((double) to.rateAt(j) / from.rateAt(i));
+                size++;
+                i++;
+                j++;
+            }
+        }
+        return new RateSeries(days, rates, size);
+    }
+}
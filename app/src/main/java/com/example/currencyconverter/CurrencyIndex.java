@@ -0,0 +1,255 @@
+package com.example.currencyconverter;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Prefix search over currency codes, currency names and the countries that use them, e.g.
+ * "inr", "rupee" and "india" all find INR. Every searchable word is normalised (lower case,
+ * accents stripped) into one sorted array built once; a query is a binary search for its
+ * range of keys. Typing one more character only narrows the previous range, so each
+ * keystroke searches a shrinking slice rather than the whole index.
+ */
+public final class CurrencyIndex {
+
+    static final byte CODE = 0;
+    static final byte NAME = 1;
+    static final byte COUNTRY = 2;
+
+    private final String[] codes;
+    private final String[] names;
+    private final String[] keys;
+    private final int[] keyCurrency;
+    private final byte[] keyKind;
+
+    private CurrencyIndex(String[] codes, String[] names, String[] keys, int[] keyCurrency, byte[] keyKind) {
+        this.codes = codes;
+        this.names = names;
+        this.keys = keys;
+        this.keyCurrency = keyCurrency;
+        this.keyKind = keyKind;
+    }
+
+    /**
+     * Indexes every currency the platform knows plus {@code extraCodes}, with names and
+     * countries in {@code locale}. Takes a few milliseconds; build it once, off the main thread.
+     */
+    public static CurrencyIndex build(Collection<String> extraCodes, Locale locale) {
+        TreeSet<String> allCodes = new TreeSet<>(extraCodes);
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            allCodes.add(currency.getCurrencyCode());
+        }
+        String[] codes = allCodes.toArray(new String[0]);
+
+        String[] names = new String[codes.length];
+        List<Term> terms = new ArrayList<>();
+        for (int id = 0; id < codes.length; id++) {
+            names[id] = displayName(codes[id], locale);
+            terms.add(new Term(normalize(codes[id]), id, CODE));
+            addWords(terms, names[id], id, NAME);
+        }
+
+        // Countries come from the locales whose currency they are
+        for (Locale available : Locale.getAvailableLocales()) {
+            if (available.getCountry().length() != 2) {
+                continue;
+            }
+            Currency currency;
+            try {
+                currency = Currency.getInstance(available);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            int id = currency == null ? -1 : Arrays.binarySearch(codes, currency.getCurrencyCode());
+            if (id >= 0) {
+                addWords(terms, available.getDisplayCountry(locale), id, COUNTRY);
+            }
+        }
+
+        terms.sort((a, b) -> {
+            int order = a.key.compareTo(b.key);
+            return order != 0 ? order : Integer.compare(a.id, b.id);
+        });
+        // Drop repeats of the same word for the same currency, e.g. one country per language
+        List<Term> unique = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            Term last = unique.isEmpty() ? null : unique.get(unique.size() - 1);
+            if (last != null && last.key.equals(term.key) && last.id == term.id) {
+                if (term.kind < last.kind) {
+                    unique.set(unique.size() - 1, term);
+                }
+                continue;
+            }
+            unique.add(term);
+        }
+
+        String[] keys = new String[unique.size()];
+        int[] keyCurrency = new int[unique.size()];
+        byte[] keyKind = new byte[unique.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Term term = unique.get(i);
+            keys[i] = term.key;
+            keyCurrency[i] = term.id;
+            keyKind[i] = term.kind;
+        }
+        return new CurrencyIndex(codes, names, keys, keyCurrency, keyKind);
+    }
+
+    private static final class Term {
+        final String key;
+        final int id;
+        final byte kind;
+
+        Term(String key, int id, byte kind) {
+            this.key = key;
+            this.id = id;
+            this.kind = kind;
+        }
+    }
+
+    // The whole phrase and each word of it, so "states" and "united states" both match
+    private static void addWords(List<Term> terms, String phrase, int id, byte kind) {
+        String normalized = normalize(phrase);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        terms.add(new Term(normalized, id, kind));
+        int start = 0;
+        for (int i = 0; i <= normalized.length(); i++) {
+            if (i == normalized.length() || !Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (i > start && start > 0) {
+                    terms.add(new Term(normalized.substring(start), id, kind));
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    private static String displayName(String code, Locale locale) {
+        try {
+            return Currency.getInstance(code).getDisplayName(locale);
+        } catch (IllegalArgumentException e) {
+            // Codes the platform does not know (e.g. some territory currencies) go by code alone
+            return code;
+        }
+    }
+
+    static String normalize(CharSequence text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString().trim();
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String codeAt(int id) {
+        return codes[id];
+    }
+
+    public String nameAt(int id) {
+        return names[id];
+    }
+
+    /** Id of {@code code}, or -1. */
+    public int indexOf(String code) {
+        int id = Arrays.binarySearch(codes, code);
+        return id >= 0 ? id : -1;
+    }
+
+    /** Search state for one text field; reuse it across keystrokes so ranges narrow. */
+    public Search newSearch() {
+        return new Search();
+    }
+
+    public final class Search {
+
+        private String query = "";
+        private int from;
+        private int to = keys.length;
+        private final byte[] bestKind = new byte[codes.length];
+        private final int[] seen = new int[codes.length];
+        private int stamp;
+
+        /**
+         * Writes the ids of currencies matching {@code text} into {@code out} and returns how
+         * many there are. {@code pinned} ids come first, in their order; the rest are code
+         * matches, then currency-name matches, then country matches, each in code order. With
+         * {@code available} set, currencies it has no rate for are left out.
+         */
+        public int run(CharSequence text, RateTable available, int[] pinned, int[] out) {
+            String next = normalize(text);
+            if (!next.startsWith(query)) {
+                // Deleted or replaced text: start again from the whole index
+                from = 0;
+                to = keys.length;
+            }
+            if (!next.equals(query)) {
+                int lo = lowerBound(next, from, to);
+                int hi = lowerBound(next + Character.MAX_VALUE, lo, to);
+                from = lo;
+                to = hi;
+                query = next;
+            }
+
+            stamp++;
+            for (int i = from; i < to; i++) {
+                int id = keyCurrency[i];
+                if (seen[id] != stamp) {
+                    seen[id] = stamp;
+                    bestKind[id] = keyKind[i];
+                } else if (keyKind[i] < bestKind[id]) {
+                    bestKind[id] = keyKind[i];
+                }
+            }
+
+            int count = 0;
+            for (int id : pinned) {
+                if (id >= 0 && seen[id] == stamp && isAvailable(id, available)) {
+                    out[count++] = id;
+                    // Not listed again, below or as a second pin
+                    seen[id] = 0;
+                }
+            }
+            for (byte kind = CODE; kind <= COUNTRY; kind++) {
+                for (int id = 0; id < codes.length; id++) {
+                    if (seen[id] == stamp && bestKind[id] == kind && isAvailable(id, available)) {
+                        out[count++] = id;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private boolean isAvailable(int id, RateTable available) {
+            return available == null || available.indexOf(codes[id]) != RateTable.NOT_FOUND;
+        }
+    }
+
+    private int lowerBound(String key, int from, int to) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.currencyconverter;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.EditText;
+import android.widget.ListView;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AlertDialog;
+
+/**
+ * Searchable currency chooser over a {@link CurrencyIndex}, with favourites and recent picks
+ * first. The dialog, its list and adapter are created once and reused for both currency
+ * fields and across rate refreshes; each keystroke only re-runs the search into the same
+ * result array.
+ */
+public class CurrencyPicker {
+
+    public interface OnPicked {
+        void onPicked(String code);
+    }
+
+    private final CurrencyIndex index;
+    private final CurrencyIndex.Search search;
+    private final CurrencyPins pins;
+    private final int[] results;
+    private int count;
+    private RateTable available;
+    private OnPicked onPicked;
+
+    private AlertDialog dialog;
+    private final EditText searchField;
+    private final ResultAdapter adapter = new ResultAdapter();
+
+    public CurrencyPicker(Context context, CurrencyIndex index, CurrencyPins pins) {
+        this.index = index;
+        this.search = index.newSearch();
+        this.pins = pins;
+        this.results = new int[index.size()];
+
+        View view = LayoutInflater.from(context).inflate(R.layout.dialog_currency_picker, null);
+        searchField = view.findViewById(R.id.picker_search);
+        ListView list = view.findViewById(R.id.picker_list);
+        list.setAdapter(adapter);
+        list.setOnItemClickListener((parent, row, position, id) -> {
+            String code = index.codeAt(results[position]);
+            pins.recordUse(code);
+            dialog.dismiss();
+            if (onPicked != null) {
+                onPicked.onPicked(code);
+            }
+        });
+        list.setOnItemLongClickListener((parent, row, position, id) -> {
+            pins.toggleFavourite(index.codeAt(results[position]));
+            refresh();
+            return true;
+        });
+        searchField.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                refresh();
+            }
+        });
+
+        dialog = new AlertDialog.Builder(context)
+                .setView(view)
+                .setNegativeButton("Cancel", null)
+                .create();
+    }
+
+    /** Limits the list to currencies {@code table} has rates for. */
+    public void setAvailable(RateTable table) {
+        available = table;
+    }
+
+    public void show(String title, OnPicked onPicked) {
+        this.onPicked = onPicked;
+        dialog.setTitle(title);
+        if (searchField.length() > 0) {
+            // Clearing the text runs the search through the watcher
+            searchField.setText(null);
+        } else {
+            refresh();
+        }
+        dialog.show();
+    }
+
+    private void refresh() {
+        count = search.run(searchField.getText(), available, pins.pinnedIds(index), results);
+        adapter.notifyDataSetChanged();
+    }
+
+    private class ResultAdapter extends BaseAdapter {
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return index.codeAt(results[position]);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return results[position];
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            View row = convertView != null ? convertView
+                    : LayoutInflater.from(parent.getContext()).inflate(android.R.layout.simple_list_item_2, parent, false);
+            int id = results[position];
+            String code = index.codeAt(id);
+            ((TextView) row.findViewById(android.R.id.text1)).setText(pins.isFavourite(code) ? "★ " + code : code);
+            ((TextView) row.findViewById(android.R.id.text2)).setText(index.nameAt(id));
+            return row;
+        }
+    }
+}
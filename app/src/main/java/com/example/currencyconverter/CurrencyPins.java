@@ -0,0 +1,107 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Currencies listed first in the picker: the user's favourites, then the ones picked most
+ * recently. A small properties file, written whole on every change.
+ */
+public class CurrencyPins {
+
+    private static final String FILE_NAME = "currency_pins.properties";
+    static final int MAX_RECENTS = 5;
+
+    private static CurrencyPins instance;
+
+    private final File file;
+    private final List<String> favourites = new ArrayList<>();
+    private final List<String> recents = new ArrayList<>();
+
+    public static synchronized CurrencyPins get(File filesDir) {
+        if (instance == null) {
+            instance = new CurrencyPins(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    CurrencyPins(File file) {
+        this.file = file;
+        if (!file.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return;
+        }
+        read(properties.getProperty("favourites", ""), favourites);
+        read(properties.getProperty("recents", ""), recents);
+    }
+
+    private static void read(String value, List<String> into) {
+        for (String code : value.split(",")) {
+            if (code.length() == 3) {
+                into.add(code);
+            }
+        }
+    }
+
+    public synchronized boolean isFavourite(String code) {
+        return favourites.contains(code);
+    }
+
+    /** Adds or removes {@code code} from the favourites; returns whether it is one now. */
+    public synchronized boolean toggleFavourite(String code) {
+        boolean favourite = !favourites.remove(code);
+        if (favourite) {
+            favourites.add(code);
+        }
+        save();
+        return favourite;
+    }
+
+    /** Moves {@code code} to the front of the recently picked currencies. */
+    public synchronized void recordUse(String code) {
+        recents.remove(code);
+        recents.add(0, code);
+        while (recents.size() > MAX_RECENTS) {
+            recents.remove(recents.size() - 1);
+        }
+        save();
+    }
+
+    /** Favourites, then recents that are not favourites, as ids in {@code index}. */
+    public synchronized int[] pinnedIds(CurrencyIndex index) {
+        int[] ids = new int[favourites.size() + recents.size()];
+        int count = 0;
+        for (String code : favourites) {
+            ids[count++] = index.indexOf(code);
+        }
+        for (String code : recents) {
+            if (!favourites.contains(code)) {
+                ids[count++] = index.indexOf(code);
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        properties.setProperty("favourites", String.join(",", favourites));
+        properties.setProperty("recents", String.join(",", recents));
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            // Pins are a convenience; they are still right for this session
+        }
+    }
+}
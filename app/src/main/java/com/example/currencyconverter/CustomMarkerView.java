@@ -9,15 +9,21 @@ import com.example.currencyconverter.R;
 
 public class CustomMarkerView extends MarkerView {
     private final TextView tvContent;
+    private final ChartLabels labels;
+    private final char[] buffer = new char[AmountFormat.MAX_LENGTH];
 
-    public CustomMarkerView(Context context, int layoutResource) {
+    public CustomMarkerView(Context context, int layoutResource, ChartLabels labels) {
         super(context, layoutResource);
         tvContent = findViewById(R.id.tvContent);
+        this.labels = labels;
     }
 
     @Override
     public void refreshContent(Entry e, Highlight highlight) {
-        tvContent.setText(String.format("%.2f", e.getY()));
+        // Called for every highlight move while dragging, so nothing here allocates.
+        // TextView wraps the array rather than copying it; it is only rewritten right before the next setText
+        int length = labels.formatRate(e.getY(), buffer, 0);
+        tvContent.setText(buffer, 0, length);
         super.refreshContent(e, highlight);
     }
 }
@@ -0,0 +1,26 @@
+package com.example.currencyconverter;
+
+/** Short human descriptions of how old local data is, for the "updated ... ago" labels. */
+public final class DataAge {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    private DataAge() {
+    }
+
+    public static String describe(long now, long updatedAt) {
+        long age = Math.max(0, now - updatedAt);
+        if (age < MINUTE) {
+            return "just now";
+        }
+        if (age < HOUR) {
+            return (age / MINUTE) + " min ago";
+        }
+        if (age < DAY) {
+            return (age / HOUR) + " h ago";
+        }
+        return (age / DAY) + " d ago";
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.currencyconverter;
+
+import java.util.TimeZone;
+
+/**
+ * Calendar dates as days since 1970-01-01, the unit the history code stores and indexes by.
+ * java.time needs API 26 and this app supports 24, so the civil-date arithmetic lives here.
+ */
+public final class EpochDays {
+
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private EpochDays() {
+    }
+
+    /** Today's date in the device's time zone. */
+    public static int today() {
+        long now = System.currentTimeMillis();
+        return (int) Math.floorDiv(now + TimeZone.getDefault().getOffset(now), MILLIS_PER_DAY);
+    }
+
+    // Howard Hinnant's days_from_civil
+    public static int of(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    public static int year(int epochDay) {
+        return (int) (civil(epochDay) >> 16);
+    }
+
+    public static int month(int epochDay) {
+        return (int) ((civil(epochDay) >> 8) & 0xFF);
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        return (int) (civil(epochDay) & 0xFF);
+    }
+
+    /** 1 = Monday ... 7 = Sunday. 1970-01-01 was a Thursday. */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    // Howard Hinnant's civil_from_days, packed as year << 16 | month << 8 | day
+    private static long civil(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = (long) yoe + (long) era * 400 + (month <= 2 ? 1 : 0);
+        return (year << 16) | ((long) month << 8) | day;
+    }
+
+    /** Parses {@code yyyy-MM-dd} without allocating; returns {@link #INVALID} on malformed input. */
+    public static int parse(char[] chars, int offset, int length) {
+        if (length != 10 || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            return INVALID;
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        return of(year, month, day);
+    }
+
+    public static int parse(String date) {
+        return date == null ? INVALID : parse(date.toCharArray(), 0, date.length());
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = chars[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Writes {@code yyyy-MM-dd} into {@code out} at {@code offset}; returns the length written (10). */
+    public static int format(int epochDay, char[] out, int offset) {
+        long civil = civil(epochDay);
+        int year = (int) (civil >> 16);
+        int month = (int) ((civil >> 8) & 0xFF);
+        int day = (int) (civil & 0xFF);
+        out[offset] = (char) ('0' + year / 1000 % 10);
+        out[offset + 1] = (char) ('0' + year / 100 % 10);
+        out[offset + 2] = (char) ('0' + year / 10 % 10);
+        out[offset + 3] = (char) ('0' + year % 10);
+        out[offset + 4] = '-';
+        out[offset + 5] = (char) ('0' + month / 10);
+        out[offset + 6] = (char) ('0' + month % 10);
+        out[offset + 7] = '-';
+        out[offset + 8] = (char) ('0' + day / 10);
+        out[offset + 9] = (char) ('0' + day % 10);
+        return 10;
+    }
+
+    public static String format(int epochDay) {
+        char[] out = new char[10];
+        format(epochDay, out, 0);
+        return new String(out);
+    }
+}
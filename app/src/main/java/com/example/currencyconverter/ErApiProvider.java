@@ -0,0 +1,51 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** open.er-api.com: about 160 currencies against USD, updated daily, no history. */
+public class ErApiProvider implements RateProvider {
+
+    static final String LATEST_URL = "https://open.er-api.com/v6/latest/USD";
+
+    private final HttpClient http;
+    private final String latestUrl;
+
+    public ErApiProvider(HttpClient http, String latestUrl) {
+        this.http = http;
+        this.latestUrl = latestUrl;
+    }
+
+    @Override
+    public String name() {
+        return "er-api";
+    }
+
+    @Override
+    public Latest latest(boolean conditional, AtomicLong received) throws IOException {
+        try (HttpClient.Response response = http.get(latestUrl, conditional, received)) {
+            if (response.notModified) {
+                return new Latest(name(), null, true, 0, response.header("Cache-Control"), null);
+            }
+            // Parse straight off the socket; the body is never held as a string
+            RatesParser.LatestRates latest = RatesParser.parseLatest(response.body());
+            return new Latest(name(), latest.table, false, latest.nextUpdateUnix, response.header("Cache-Control"), response);
+        }
+    }
+
+    @Override
+    public boolean hasCompleteLatest() {
+        return true;
+    }
+
+    @Override
+    public boolean hasHistory() {
+        return false;
+    }
+
+    @Override
+    public History history(int startDay, int endDay, boolean tailCheck, AtomicLong received) throws IOException {
+        // Never ranked for history; should it be asked anyway, the next provider is tried
+        throw new IOException("er-api has no history");
+    }
+}
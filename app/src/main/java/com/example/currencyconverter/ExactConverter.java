@@ -0,0 +1,287 @@
+package com.example.currencyconverter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact decimal conversion over a {@link RateTable}.
+ *
+ * Amounts and rates are scaled longs: each rate is taken back to the shortest decimal that
+ * reads as the parsed double (what the API sent), once per table. A conversion is then one
+ * multiply and one rounded integer division into the target currency's minor units, so large
+ * amounts at high rates still land on the right penny. Only when the intermediate product
+ * would overflow a long does the arithmetic move to BigDecimal.
+ */
+public final class ExactConverter {
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    // Most fraction digits kept from typed input; beyond this the input is rounded
+    private static final int MAX_INPUT_SCALE = 9;
+
+    // ISO 4217 currencies without the usual two decimals
+    private static final String[] NO_MINOR_UNITS = {
+            "BIF", "CLP", "DJF", "GNF", "ISK", "JPY", "KMF", "KRW", "PYG", "RWF", "UGX", "UYI",
+            "VND", "VUV", "XAF", "XOF", "XPF"
+    };
+    private static final String[] THREE_MINOR_UNITS = {
+            "BHD", "IQD", "JOD", "KWD", "LYD", "OMR", "TND"
+    };
+    private static final String[] FOUR_MINOR_UNITS = {
+            "CLF", "UYW"
+    };
+
+    private final RateTable table;
+    private final long[] rateUnscaled;
+    private final int[] rateScale;
+    private final int[] minorUnits;
+
+    public ExactConverter(RateTable table) {
+        this.table = table;
+        int size = table.size();
+        rateUnscaled = new long[size];
+        rateScale = new int[size];
+        minorUnits = new int[size];
+        for (int i = 0; i < size; i++) {
+            BigDecimal rate = BigDecimal.valueOf(table.rateAt(i)).stripTrailingZeros();
+            if (rate.scale() < 0) {
+                rate = rate.setScale(0);
+            }
+            rateUnscaled[i] = rate.unscaledValue().longValueExact();
+            rateScale[i] = rate.scale();
+            minorUnits[i] = minorUnits(table.codeAt(i));
+        }
+    }
+
+    public RateTable table() {
+        return table;
+    }
+
+    /** Decimal places used for amounts in {@code code}: JPY 0, USD 2, KWD 3. */
+    public static int minorUnits(String code) {
+        for (String zero : NO_MINOR_UNITS) {
+            if (zero.equals(code)) {
+                return 0;
+            }
+        }
+        for (String three : THREE_MINOR_UNITS) {
+            if (three.equals(code)) {
+                return 3;
+            }
+        }
+        for (String four : FOUR_MINOR_UNITS) {
+            if (four.equals(code)) {
+                return 4;
+            }
+        }
+        return 2;
+    }
+
+    public int minorUnitsAt(int index) {
+        return minorUnits[index];
+    }
+
+    /**
+     * Converts {@code amount} into {@code into}, rounded to the target's minor units with
+     * {@code mode}. {@code into} may be {@code amount}. Throws ArithmeticException only for
+     * {@link RoundingMode#UNNECESSARY} when rounding is needed.
+     */
+    public void convert(int fromIndex, int toIndex, Money amount, RoundingMode mode, Money into) {
+        int scale = minorUnits[toIndex];
+        if (amount.big == null) {
+            // result = amount * to / from, with every power of ten folded into one side
+            int exponent = rateScale[fromIndex] + scale - amount.scale - rateScale[toIndex];
+            long numerator;
+            long denominator = rateUnscaled[fromIndex];
+            boolean fits = true;
+            try {
+                numerator = Math.multiplyExact(amount.unscaled, rateUnscaled[toIndex]);
+                if (exponent >= 0) {
+                    numerator = Math.multiplyExact(numerator, pow10(exponent));
+                } else {
+                    denominator = Math.multiplyExact(denominator, pow10(-exponent));
+                }
+            } catch (ArithmeticException overflow) {
+                numerator = 0;
+                fits = false;
+            }
+            if (fits) {
+                into.set(divide(numerator, denominator, mode), scale);
+                return;
+            }
+        }
+        // Too big for a long
+        BigDecimal result = amount.toBigDecimal()
+                .multiply(BigDecimal.valueOf(rateUnscaled[toIndex], rateScale[toIndex]))
+                .divide(BigDecimal.valueOf(rateUnscaled[fromIndex], rateScale[fromIndex]), scale, mode);
+        into.set(result);
+    }
+
+    private static long pow10(int exponent) {
+        if (exponent >= POW10.length) {
+            throw new ArithmeticException("Overflow");
+        }
+        return POW10[exponent];
+    }
+
+    // numerator / denominator rounded with mode; denominator is positive
+    static long divide(long numerator, long denominator, RoundingMode mode) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = numerator < 0 ? -1 : 1;
+        boolean away;
+        switch (mode) {
+            case UP:
+                away = true;
+                break;
+            case DOWN:
+                away = false;
+                break;
+            case CEILING:
+                away = sign > 0;
+                break;
+            case FLOOR:
+                away = sign < 0;
+                break;
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            default:
+                // Compare the remainder against half the divisor without doubling it
+                long magnitude = Math.abs(remainder);
+                int half = Long.compare(magnitude, denominator - magnitude);
+                if (half != 0) {
+                    away = half > 0;
+                } else if (mode == RoundingMode.HALF_UP) {
+                    away = true;
+                } else if (mode == RoundingMode.HALF_DOWN) {
+                    away = false;
+                } else {
+                    away = (quotient & 1) != 0;
+                }
+                break;
+        }
+        return away ? quotient + sign : quotient;
+    }
+
+    /**
+     * A decimal amount, {@code unscaled / 10^scale}, held in a long and reused between
+     * calls; {@link #big} is only set when the value outgrew the long.
+     */
+    public static final class Money {
+        long unscaled;
+        int scale;
+        BigDecimal big;
+
+        public Money() {
+        }
+
+        void set(long unscaled, int scale) {
+            this.unscaled = unscaled;
+            this.scale = scale;
+            this.big = null;
+        }
+
+        void set(BigDecimal value) {
+            if (value.unscaledValue().bitLength() < 64) {
+                set(value.unscaledValue().longValue(), value.scale());
+            } else {
+                big = value;
+            }
+        }
+
+        public int scale() {
+            return big != null ? big.scale() : scale;
+        }
+
+        public BigDecimal toBigDecimal() {
+            return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+        }
+
+        /**
+         * Reads a plain decimal such as {@code 1234.5} or {@code -0.07}; digits past nine
+         * decimal places are rounded half-even. Returns false if {@code text} is not a number.
+         */
+        public boolean parse(CharSequence text) {
+            return parse(text, 0, text.length());
+        }
+
+        /** {@link #parse(CharSequence)} over {@code [start, end)} of {@code text}. */
+        public boolean parse(CharSequence text, int start, int end) {
+            while (start < end && text.charAt(start) == ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) == ' ') {
+                end--;
+            }
+            if (start == end) {
+                return false;
+            }
+
+            int i = start;
+            boolean negative = text.charAt(i) == '-';
+            if (negative || text.charAt(i) == '+') {
+                i++;
+            }
+            long value = 0;
+            int fraction = -1;
+            boolean digits = false;
+            boolean overflow = false;
+            for (; i < end; i++) {
+                char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digits = true;
+                    if (fraction >= MAX_INPUT_SCALE) {
+                        // Too precise for the long path
+                        overflow = true;
+                        continue;
+                    }
+                    if (value > (Long.MAX_VALUE - 9) / 10) {
+                        overflow = true;
+                        continue;
+                    }
+                    value = value * 10 + (c - '0');
+                    if (fraction >= 0) {
+                        fraction++;
+                    }
+                } else if (c == '.' && fraction < 0) {
+                    fraction = 0;
+                } else {
+                    return false;
+                }
+            }
+            if (!digits) {
+                return false;
+            }
+            if (overflow) {
+                BigDecimal exact = new BigDecimal(text.subSequence(start, end).toString());
+                set(exact.scale() > MAX_INPUT_SCALE ? exact.setScale(MAX_INPUT_SCALE, RoundingMode.HALF_EVEN) : exact);
+                return true;
+            }
+            set(negative ? -value : value, Math.max(fraction, 0));
+            return true;
+        }
+
+        /** Writes the amount as plain decimal digits into {@code out}; returns the length. */
+        public int format(char[] out, int offset) {
+            if (big == null) {
+                return AmountFormat.formatScaled(unscaled, scale, out, offset);
+            }
+            String text = big.toPlainString();
+            text.getChars(0, text.length(), out, offset);
+            return text.length();
+        }
+
+        /** Chars {@link #format} may write. */
+        public int formattedLength() {
+            return big == null ? 21 + scale : big.toPlainString().length();
+        }
+    }
+}
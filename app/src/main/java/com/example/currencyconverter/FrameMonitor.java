@@ -0,0 +1,64 @@
+package com.example.currencyconverter;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+/**
+ * Records how long each frame of one window took and how many vsyncs it missed, into
+ * {@link Metrics}. Uses the platform's per-frame metrics, so only frames that were actually
+ * drawn are counted and an idle screen costs nothing.
+ */
+public class FrameMonitor implements Window.OnFrameMetricsAvailableListener {
+
+    private static Handler handler;
+
+    private final Window window;
+    private final long frameIntervalNanos;
+    private boolean running;
+
+    @SuppressWarnings("deprecation")
+    public FrameMonitor(Activity activity) {
+        this.window = activity.getWindow();
+        float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        this.frameIntervalNanos = (long) (1_000_000_000L / (refreshRate > 0 ? refreshRate : 60));
+    }
+
+    // Reports arrive on one shared background thread, off the thread being measured
+    private static synchronized Handler handler() {
+        if (handler == null) {
+            HandlerThread thread = new HandlerThread("frame-metrics");
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+
+    public void start() {
+        if (!running) {
+            running = true;
+            window.addOnFrameMetricsAvailableListener(this, handler());
+        }
+    }
+
+    public void stop() {
+        if (running) {
+            running = false;
+            window.removeOnFrameMetricsAvailableListener(this);
+        }
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        long total = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+        Metrics.FRAME_TIME.record(total / 1000);
+        Metrics.FRAMES.increment();
+        // A frame longer than one interval kept the previous one on screen for every extra vsync
+        long missed = (total - 1) / frameIntervalNanos;
+        if (missed > 0) {
+            Metrics.FRAMES_DROPPED.add(missed);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * api.frankfurter.app: ECB reference rates for about 30 currencies against EUR, with
+ * history back to 1999. Fewer currencies than er-api, so its latest table is the fallback.
+ */
+public class FrankfurterProvider implements RateProvider {
+
+    static final String BASE_URL = "https://api.frankfurter.app/";
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    /** {@code baseUrl} ends with a slash; {@code latest} and {@code start..end} are appended. */
+    public FrankfurterProvider(HttpClient http, String baseUrl) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String name() {
+        return "frankfurter";
+    }
+
+    @Override
+    public Latest latest(boolean conditional, AtomicLong received) throws IOException {
+        try (HttpClient.Response response = http.get(baseUrl + "latest", conditional, received)) {
+            if (response.notModified) {
+                return new Latest(name(), null, true, 0, response.header("Cache-Control"), null);
+            }
+            RatesParser.LatestRates latest = RatesParser.parseLatest(response.body());
+            return new Latest(name(), latest.table, false, 0, response.header("Cache-Control"), response);
+        }
+    }
+
+    @Override
+    public boolean hasCompleteLatest() {
+        // About 30 ECB currencies
+        return false;
+    }
+
+    @Override
+    public boolean hasHistory() {
+        return true;
+    }
+
+    @Override
+    public History history(int startDay, int endDay, boolean tailCheck, AtomicLong received) throws IOException {
+        // Every currency against EUR so any later pair over this range is free
+        String url = baseUrl + EpochDays.format(startDay) + ".." + EpochDays.format(endDay);
+
+        // Re-checking today's tail is conditional: a 304 means the store already has it
+        try (HttpClient.Response response = http.get(url, tailCheck, received)) {
+            if (response.notModified) {
+                return History.unchanged();
+            }
+            return new History(RatesParser.parseHistoryAll(response.body()), response);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts amounts at the rate of a past date, e.g. 1,250 EUR in INR on 2023-03-14, in bulk.
+ * A batch first brings the history of every currency it mentions up to date over the span
+ * of its dates, which is one frankfurter range request per hole in the store rather than
+ * one per date. Each conversion is then a binary search on the pair's day column. Dates
+ * without a published rate (weekends, holidays) use the closest earlier business day.
+ */
+public class HistoricalConverter {
+
+    /** How far back a date may fall to find a published rate, enough for any holiday run. */
+    public static final int MAX_FALLBACK_DAYS = 7;
+
+    /** Rate day of a conversion that had no rate within {@link #MAX_FALLBACK_DAYS}. */
+    public static final int NO_RATE = EpochDays.INVALID;
+
+    private final RatesApi api;
+
+    public HistoricalConverter(RatesApi api) {
+        this.api = api;
+    }
+
+    /** Dated conversions to run together; add them all, then hand the batch to {@link #convert}. */
+    public static final class Batch {
+        String[] from = new String[16];
+        String[] to = new String[16];
+        int[] days = new int[16];
+        double[] amounts = new double[16];
+        int size;
+
+        /** Adds "{@code amount} {@code from} in {@code to} on {@code epochDay}"; returns its position. */
+        public int add(String from, String to, int epochDay, double amount) {
+            if (size == days.length) {
+                int capacity = size * 2;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+                days = Arrays.copyOf(days, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            this.from[size] = from;
+            this.to[size] = to;
+            days[size] = epochDay;
+            amounts[size] = amount;
+            return size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Results by position in the batch. */
+    public static final class Result {
+        /** Converted amounts; NaN where there was no rate. */
+        public final double[] amounts;
+        /** The day whose rate was used, earlier than asked on weekends and holidays, or {@link #NO_RATE}. */
+        public final int[] rateDays;
+
+        Result(int size) {
+            amounts = new double[size];
+            rateDays = new int[size];
+        }
+    }
+
+    /**
+     * Converts every entry of {@code batch}. Dates after {@code today} have no rate. Network
+     * failures leave conversions to whatever the store already holds; only a failing local
+     * store throws.
+     */
+    public Result convert(Batch batch, int today, long now) throws IOException {
+        Result result = new Result(batch.size);
+        Set<String> codes = new LinkedHashSet<>();
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int i = 0; i < batch.size; i++) {
+            if (batch.days[i] > today) {
+                continue;
+            }
+            codes.add(batch.from[i]);
+            codes.add(batch.to[i]);
+            first = Math.min(first, batch.days[i]);
+            last = Math.max(last, batch.days[i]);
+        }
+        if (first <= last) {
+            first -= MAX_FALLBACK_DAYS;
+            api.prefetch(codes, first, last, today, now);
+        }
+
+        // Read each pair once, keyed without building a String per lookup
+        Map<String, Map<String, RateHistory>> histories = new HashMap<>();
+        for (int i = 0; i < batch.size; i++) {
+            String from = batch.from[i];
+            String to = batch.to[i];
+            int day = batch.days[i];
+            if (day > today) {
+                miss(result, i);
+                continue;
+            }
+            if (from.equals(to)) {
+                result.amounts[i] = batch.amounts[i];
+                result.rateDays[i] = day;
+                continue;
+            }
+            Map<String, RateHistory> byTarget = histories.get(from);
+            if (byTarget == null) {
+                byTarget = new HashMap<>();
+                histories.put(from, byTarget);
+            }
+            RateHistory history = byTarget.get(to);
+            if (history == null) {
+                history = api.stored(from, to, first, last);
+                byTarget.put(to, history);
+            }
+
+            int index = floorIndex(history, day);
+            if (index < 0 || day - history.dayAt(index) > MAX_FALLBACK_DAYS) {
+                miss(result, i);
+                continue;
+            }
+            result.amounts[i] = batch.amounts[i] * history.rateAt(index);
+            result.rateDays[i] = history.dayAt(index);
+        }
+        return result;
+    }
+
+    /** One conversion at a past date; NaN when there is no rate for it. */
+    public double convert(String from, String to, int epochDay, double amount, int today, long now) throws IOException {
+        Batch batch = new Batch();
+        batch.add(from, to, epochDay, amount);
+        return convert(batch, today, now).amounts[0];
+    }
+
+    private static void miss(Result result, int position) {
+        result.amounts[position] = Double.NaN;
+        result.rateDays[position] = NO_RATE;
+    }
+
+    /** Index of the last point on or before {@code epochDay}, or -1 if every point is later. */
+    static int floorIndex(RateHistory history, int epochDay) {
+        int lo = 0;
+        int hi = history.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (history.dayAt(mid) <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.currencyconverter;
+
+import com.github.mikephil.charting.data.Entry;
+
+import java.util.AbstractList;
+
+/**
+ * Presents a {@link RateHistory} to MPAndroidChart as a {@code List<Entry>} without copying
+ * it into an ArrayList up front. An Entry is created the first time the chart asks for an
+ * index and reused on every later frame; x is the point's index in the history.
+ */
+public class HistoryEntries extends AbstractList<Entry> {
+
+    private final RateHistory history;
+    private final Entry[] entries;
+
+    public HistoryEntries(RateHistory history) {
+        this.history = history;
+        this.entries = new Entry[history.size()];
+    }
+
+    public RateHistory history() {
+        return history;
+    }
+
+    @Override
+    public Entry get(int index) {
+        Entry entry = entries[index];
+        if (entry == null) {
+            entry = new Entry(index, history.rateAt(index));
+            entries[index] = entry;
+        }
+        return entry;
+    }
+
+    @Override
+    public int size() {
+        return entries.length;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent per-pair store of daily historical rates.
+ *
+ * Each pair is one columnar file that is memory-mapped while the pair is open:
+ * <pre>
+ *   header   magic, version, count, capacity, range count, range capacity, tail checked at
+ *   ranges   (start, end) epoch-day pairs already fetched, so weekends read as empty, not missing
+ *   days     int[capacity] epoch days, ascending
+ *   rates    float[capacity]
+ * </pre>
+ * The columns are allocated with slack so new days append in place; anything else rewrites
+ * the file. Readers get {@link MappedSeries} windows straight onto the mapped columns.
+ */
+public class HistoryStore {
+
+    private static final String DIR_NAME = "history";
+
+    private static final int MAGIC = 0x46584831; // "FXH1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MIN_RANGE_CAPACITY = 8;
+
+    // Today's rate may not be published yet, so the tail is re-checked at most this often
+    static final long TAIL_TTL_MILLIS = 60 * 60 * 1000L;
+
+    private static HistoryStore instance;
+
+    private final File dir;
+    private final Map<String, Pair> pairs = new HashMap<>();
+
+    public static synchronized HistoryStore get(File filesDir) {
+        if (instance == null) {
+            instance = new HistoryStore(new File(filesDir, DIR_NAME));
+        }
+        return instance;
+    }
+
+    HistoryStore(File dir) {
+        this.dir = dir;
+    }
+
+    public synchronized Pair open(String from, String to) throws IOException {
+        String key = from + "_" + to;
+        Pair pair = pairs.get(key);
+        if (pair == null) {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            // Superseded append-log format; its contents are simply fetched again
+            new File(dir, key + ".log").delete();
+            pair = new Pair(new File(dir, key + ".bin"));
+            pair.load();
+            pairs.put(key, pair);
+        }
+        return pair;
+    }
+
+    /** History for one currency pair, backed by a memory-mapped columnar file. */
+    public static class Pair {
+        private final File file;
+        private final RangeSet covered = new RangeSet();
+        private MappedByteBuffer buffer;
+        private IntBuffer days;
+        private FloatBuffer rates;
+        private int count;
+        private int capacity;
+        private int rangeCapacity;
+        private long tailCheckedAt;
+
+        Pair(File file) {
+            this.file = file;
+        }
+
+        /** Day ranges in {@code [start, end]} that need fetching, as {start, end} pairs. */
+        public synchronized List<int[]> missing(int start, int end, int today, long now) {
+            List<int[]> gaps = covered.missing(start, Math.min(end, today - 1));
+            if (end >= today && now - tailCheckedAt >= TAIL_TTL_MILLIS) {
+                // Extend a gap that already runs into yesterday rather than adding a second request
+                if (!gaps.isEmpty() && gaps.get(gaps.size() - 1)[1] == today - 1) {
+                    gaps.get(gaps.size() - 1)[1] = end;
+                } else {
+                    gaps.add(new int[]{Math.max(start, today), end});
+                }
+            }
+            return gaps;
+        }
+
+        /** When today's tail was last fetched, i.e. how current the pair is; 0 if never. */
+        public synchronized long tailCheckedAt() {
+            return tailCheckedAt;
+        }
+
+        /** Zero-copy window of the points whose day falls in {@code [start, end]}. */
+        public synchronized MappedSeries slice(int start, int end) {
+            if (count == 0) {
+                return new MappedSeries(IntBuffer.allocate(0), FloatBuffer.allocate(0), 0, 0);
+            }
+            int from = lowerBound(start);
+            int to = lowerBound(end + 1);
+            return new MappedSeries(days, rates, from, Math.max(0, to - from));
+        }
+
+        /** Records the points fetched for {@code [start, end]} and marks that range as held. */
+        public synchronized void merge(RateHistory fetched, int start, int end, int today, long now) throws IOException {
+            int coveredEnd = Math.min(end, today - 1);
+            if (coveredEnd >= start) {
+                covered.add(start, coveredEnd);
+            }
+            if (end >= today) {
+                tailCheckedAt = now;
+            }
+
+            if (canMergeInPlace(fetched)) {
+                for (int i = 0; i < fetched.size(); i++) {
+                    int day = fetched.dayAt(i);
+                    int index = count > 0 && day <= days.get(count - 1) ? lowerBound(day) : count++;
+                    days.put(index, day);
+                    rates.put(index, fetched.rateAt(i));
+                }
+                writeHeaderAndRanges();
+            } else {
+                rewrite(fetched);
+            }
+        }
+
+        // In place works when every fetched day either already exists or lands after the last one
+        private boolean canMergeInPlace(RateHistory fetched) {
+            if (buffer == null || covered.size() > rangeCapacity) {
+                return false;
+            }
+            int appended = 0;
+            int last = count > 0 ? days.get(count - 1) : Integer.MIN_VALUE;
+            for (int i = 0; i < fetched.size(); i++) {
+                int day = fetched.dayAt(i);
+                if (day > last) {
+                    last = day;
+                    appended++;
+                } else {
+                    int index = lowerBound(day);
+                    if (index >= count || days.get(index) != day) {
+                        return false;
+                    }
+                }
+            }
+            return count + appended <= capacity;
+        }
+
+        private int lowerBound(int day) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days.get(mid) < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void load() throws IOException {
+            if (!file.exists()) {
+                return;
+            }
+            try {
+                map(file.length());
+                ByteBuffer header = buffer.duplicate();
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("Unknown history format");
+                }
+                count = header.getInt(8);
+                capacity = header.getInt(12);
+                int rangeCount = header.getInt(16);
+                rangeCapacity = header.getInt(20);
+                tailCheckedAt = header.getLong(24);
+                if (file.length() != fileLength(capacity, rangeCapacity) || count > capacity || rangeCount > rangeCapacity) {
+                    throw new IOException("Truncated history file");
+                }
+                for (int i = 0; i < rangeCount; i++) {
+                    int offset = HEADER_BYTES + i * 8;
+                    covered.add(header.getInt(offset), header.getInt(offset + 4));
+                }
+                sliceColumns();
+            } catch (IOException | RuntimeException e) {
+                // A damaged file is only a cache miss; start over
+                buffer = null;
+                count = 0;
+                tailCheckedAt = 0;
+                file.delete();
+            }
+        }
+
+        private void rewrite(RateHistory fetched) throws IOException {
+            // Merge the existing column with the fetched points; both are sorted by day
+            int total = count + fetched.size();
+            int[] mergedDays = new int[total];
+            float[] mergedRates = new float[total];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < count || j < fetched.size()) {
+                int existing = i < count ? days.get(i) : Integer.MAX_VALUE;
+                int incoming = j < fetched.size() ? fetched.dayAt(j) : Integer.MAX_VALUE;
+                if (incoming <= existing) {
+                    mergedDays[n] = incoming;
+                    mergedRates[n] = fetched.rateAt(j++);
+                    if (incoming == existing) {
+                        i++;
+                    }
+                } else {
+                    mergedDays[n] = existing;
+                    mergedRates[n] = rates.get(i++);
+                }
+                n++;
+            }
+
+            capacity = Math.max(MIN_CAPACITY, n + n / 2);
+            rangeCapacity = Math.max(MIN_RANGE_CAPACITY, covered.size() * 2);
+            count = n;
+
+            File tmp = new File(file.getPath() + ".tmp");
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                raf.setLength(fileLength(capacity, rangeCapacity));
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                throw new IOException("Cannot replace " + file);
+            }
+            map(fileLength(capacity, rangeCapacity));
+            sliceColumns();
+            days.put(mergedDays, 0, n);
+            rates.put(mergedRates, 0, n);
+            days.clear();
+            rates.clear();
+            writeHeaderAndRanges();
+        }
+
+        private void writeHeaderAndRanges() {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, count);
+            buffer.putInt(12, capacity);
+            buffer.putInt(16, covered.size());
+            buffer.putInt(20, rangeCapacity);
+            buffer.putLong(24, tailCheckedAt);
+            for (int i = 0; i < covered.size(); i++) {
+                int offset = HEADER_BYTES + i * 8;
+                buffer.putInt(offset, covered.startAt(i));
+                buffer.putInt(offset + 4, covered.endAt(i));
+            }
+        }
+
+        private void map(long length) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                // The mapping stays valid after the channel is closed
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            }
+        }
+
+        private void sliceColumns() {
+            ByteBuffer view = buffer.duplicate();
+            view.position(HEADER_BYTES + rangeCapacity * 8);
+            view.limit(view.position() + capacity * 4);
+            days = view.slice().asIntBuffer();
+            view.limit(view.limit() + capacity * 4);
+            view.position(HEADER_BYTES + rangeCapacity * 8 + capacity * 4);
+            rates = view.slice().asFloatBuffer();
+        }
+
+        private static long fileLength(int capacity, int rangeCapacity) {
+            return HEADER_BYTES + rangeCapacity * 8L + capacity * 8L;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.currencyconverter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one HTTP client both activities use.
+ *
+ * Every request has connect and read timeouts, asks for gzip, and can be made conditional
+ * with the ETag / Last-Modified stored from the previous response to the same URL, in which
+ * case a 304 comes back as {@link Response#notModified}. A response's validators are only
+ * stored once the caller has stored its body and calls {@link Response#commit}, and only
+ * for the {@value #MAX_VALIDATOR_URLS} URLs committed most recently, since history URLs
+ * carry their dates and are rarely asked for again. Bodies are drained and closed
+ * rather than disconnected so HttpURLConnection can keep the socket alive for the next call.
+ * Each request's DNS, connect, first-byte, download and parse times go to {@link Metrics}.
+ */
+public class HttpClient {
+
+    private static final String VALIDATORS_FILE = "http_validators.properties";
+    static final int MAX_VALIDATOR_URLS = 16;
+    static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    static final int READ_TIMEOUT_MILLIS = 15_000;
+
+    // Leftover bytes worth reading to keep a connection reusable; beyond this just drop it
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    private static HttpClient instance;
+
+    private final File validatorsFile;
+    // URL -> "sequence|lastModified|etag", empty fields for missing headers; higher sequence is newer
+    private final Properties validators = new Properties();
+    private long nextSequence;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public static synchronized HttpClient get(File filesDir) {
+        if (instance == null) {
+            instance = new HttpClient(new File(filesDir, VALIDATORS_FILE), CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS);
+        }
+        return instance;
+    }
+
+    HttpClient(File validatorsFile, int connectTimeout, int readTimeout) {
+        this.validatorsFile = validatorsFile;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        if (validatorsFile != null && validatorsFile.exists()) {
+            try (InputStream in = new FileInputStream(validatorsFile)) {
+                validators.load(in);
+            } catch (IOException e) {
+                validators.clear();
+            }
+            // Entries in the older per-header format are simply fetched again
+            validators.keySet().removeIf(key -> !validators.getProperty((String) key).matches("\\d+\\|.*\\|.*"));
+            for (String url : validators.stringPropertyNames()) {
+                nextSequence = Math.max(nextSequence, sequenceOf(validators.getProperty(url)) + 1);
+            }
+        }
+    }
+
+    /**
+     * Issues a GET. With {@code conditional} set, the stored validators for this URL are sent
+     * and a 304 is reported as not modified; only pass it when the caller still holds the
+     * data from the earlier response. Non-2xx, non-304 statuses throw.
+     */
+    public Response get(String url, boolean conditional) throws IOException {
+        return get(url, conditional, null);
+    }
+
+    /**
+     * {@link #get(String, boolean)}, also adding the body's bytes to {@code received} when it
+     * is not null, so a caller with a budget is charged for its own requests only.
+     */
+    public Response get(String url, boolean conditional, AtomicLong received) throws IOException {
+        Metrics.HTTP_REQUESTS.increment();
+        URL target = new URL(url);
+        // Resolved up front so DNS is timed on its own; the connection then hits the system cache
+        long phase = Metrics.HTTP_DNS.start();
+        try {
+            InetAddress.getAllByName(target.getHost());
+        } catch (IOException e) {
+            Metrics.HTTP_ERRORS.increment();
+            throw e;
+        } finally {
+            Metrics.HTTP_DNS.stop(phase);
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) target.openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        connection.setRequestProperty("Accept", "application/json");
+
+        if (conditional) {
+            String stored;
+            synchronized (validators) {
+                stored = validators.getProperty(url);
+            }
+            if (stored != null) {
+                String[] fields = stored.split("\\|", 3);
+                if (!fields[2].isEmpty()) {
+                    connection.setRequestProperty("If-None-Match", fields[2]);
+                }
+                if (!fields[1].isEmpty()) {
+                    connection.setRequestProperty("If-Modified-Since", fields[1]);
+                }
+            }
+        }
+
+        int code;
+        try {
+            // A kept-alive socket makes this next to free
+            phase = Metrics.HTTP_CONNECT.start();
+            try {
+                connection.connect();
+            } finally {
+                Metrics.HTTP_CONNECT.stop(phase);
+            }
+            phase = Metrics.HTTP_FIRST_BYTE.start();
+            try {
+                code = connection.getResponseCode();
+            } finally {
+                Metrics.HTTP_FIRST_BYTE.stop(phase);
+            }
+        } catch (IOException e) {
+            Metrics.HTTP_ERRORS.increment();
+            connection.disconnect();
+            throw e;
+        }
+
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            Metrics.HTTP_NOT_MODIFIED.increment();
+            Response response = new Response(connection, code, connection.getInputStream(), null);
+            response.close();
+            return response;
+        }
+        if (code < 200 || code >= 300) {
+            Metrics.HTTP_ERRORS.increment();
+            Response response = new Response(connection, code, connection.getErrorStream(), null);
+            response.close();
+            throw new IOException("HTTP " + code + " for " + url);
+        }
+
+        CountingInputStream counted = new CountingInputStream(connection.getInputStream(), bytesReceived, received);
+        InputStream body = counted;
+        if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+            body = new GZIPInputStream(body);
+        }
+        Response response = new Response(connection, code, body, counted);
+        response.owner = this;
+        response.url = url;
+        return response;
+    }
+
+    /** Body bytes received over the wire (before gunzip) by this client so far. */
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    private void storeValidators(String url, String etag, String lastModified) {
+        if (validatorsFile == null) {
+            return;
+        }
+        synchronized (validators) {
+            if (etag == null && lastModified == null) {
+                if (validators.remove(url) == null) {
+                    return;
+                }
+            } else {
+                String value = (lastModified != null ? lastModified : "") + "|" + (etag != null ? etag : "");
+                String previous = validators.getProperty(url);
+                if (previous != null && previous.substring(previous.indexOf('|') + 1).equals(value)) {
+                    return;
+                }
+                validators.setProperty(url, nextSequence++ + "|" + value);
+                pruneValidators();
+            }
+            try (FileOutputStream out = new FileOutputStream(validatorsFile)) {
+                validators.store(out, null);
+            } catch (IOException e) {
+                // Validators are an optimisation; losing them only costs a full download
+            }
+        }
+    }
+
+    // Drops the least recently committed URLs beyond the cap
+    private void pruneValidators() {
+        while (validators.size() > MAX_VALIDATOR_URLS) {
+            String oldest = null;
+            long oldestSequence = Long.MAX_VALUE;
+            for (String url : validators.stringPropertyNames()) {
+                long sequence = sequenceOf(validators.getProperty(url));
+                if (sequence < oldestSequence) {
+                    oldest = url;
+                    oldestSequence = sequence;
+                }
+            }
+            validators.remove(oldest);
+        }
+    }
+
+    private static long sequenceOf(String value) {
+        return Long.parseLong(value.substring(0, value.indexOf('|')));
+    }
+
+    /** A response body; always close it, ideally after reading it to the end. */
+    public static class Response implements Closeable {
+        public final int code;
+        public final boolean notModified;
+        private final HttpURLConnection connection;
+        private final InputStream body;
+        // Null for bodies nobody reads (304s, errors), which are not timed
+        private final CountingInputStream counted;
+        private final long openedAt = System.nanoTime();
+        private boolean closed;
+        // Set for 2xx responses, whose validators commit() stores
+        private HttpClient owner;
+        private String url;
+
+        Response(HttpURLConnection connection, int code, InputStream body, CountingInputStream counted) {
+            this.connection = connection;
+            this.code = code;
+            this.notModified = code == HttpURLConnection.HTTP_NOT_MODIFIED;
+            this.body = body;
+            this.counted = counted;
+        }
+
+        public InputStream body() {
+            return body;
+        }
+
+        public String header(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        /**
+         * Keeps this response's ETag / Last-Modified for later conditional requests. Call it
+         * only once the body has been parsed and stored: from then on a 304 vouches for it.
+         */
+        public void commit() {
+            if (owner != null) {
+                owner.storeValidators(url, header("ETag"), header("Last-Modified"));
+            }
+        }
+
+        @Override
+        public void close() {
+            if (body == null || closed) {
+                return;
+            }
+            closed = true;
+            try {
+                // Reading to EOF returns the socket to HttpURLConnection's keep-alive pool
+                byte[] scratch = new byte[4096];
+                int drained = 0;
+                int read;
+                while (drained < MAX_DRAIN_BYTES && (read = body.read(scratch)) != -1) {
+                    drained += read;
+                }
+                body.close();
+                if (drained >= MAX_DRAIN_BYTES) {
+                    connection.disconnect();
+                }
+            } catch (IOException e) {
+                connection.disconnect();
+            }
+            if (counted != null) {
+                // Waiting on the socket is download; everything else between open and close is parsing
+                long total = System.nanoTime() - openedAt;
+                Metrics.HTTP_DOWNLOAD.record(counted.readNanos / 1000);
+                Metrics.HTTP_PARSE.record((total - counted.readNanos) / 1000);
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+        private final AtomicLong callerCounter;
+
+        // Only touched by the thread reading the body
+        long readNanos;
+
+        CountingInputStream(InputStream in, AtomicLong counter, AtomicLong callerCounter) {
+            super(in);
+            this.counter = counter;
+            this.callerCounter = callerCounter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            readNanos += System.nanoTime() - start;
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int read = super.read(buffer, offset, length);
+            readNanos += System.nanoTime() - start;
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int bytes) {
+            counter.addAndGet(bytes);
+            if (callerCounter != null) {
+                callerCounter.addAndGet(bytes);
+            }
+        }
+    }
+}
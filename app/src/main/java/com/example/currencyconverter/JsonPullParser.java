@@ -0,0 +1,269 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull parser for the rate APIs' JSON. Tokens are read straight off the stream;
+ * names and strings land in one reused char buffer and numbers are decoded in place,
+ * so walking a response allocates nothing per value.
+ *
+ * It is deliberately lenient: commas are treated as whitespace and a string followed by
+ * a colon is reported as a name. That is enough for well-formed API responses.
+ */
+final class JsonPullParser {
+
+    static final int BEGIN_OBJECT = 1;
+    static final int END_OBJECT = 2;
+    static final int BEGIN_ARRAY = 3;
+    static final int END_ARRAY = 4;
+    static final int NAME = 5;
+    static final int STRING = 6;
+    static final int NUMBER = 7;
+    static final int LITERAL = 8;
+    static final int END_DOCUMENT = 9;
+
+    // Exact powers of ten representable in a double
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private char[] text = new char[64];
+    private int textLength;
+    private double number;
+
+    JsonPullParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    int next() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case -1:
+                return END_DOCUMENT;
+            case '{':
+                return BEGIN_OBJECT;
+            case '}':
+                return END_OBJECT;
+            case '[':
+                return BEGIN_ARRAY;
+            case ']':
+                return END_ARRAY;
+            case '"':
+                readString();
+                int after = nextNonWhitespace();
+                if (after == ':') {
+                    return NAME;
+                }
+                if (after != -1) {
+                    position--;
+                }
+                return STRING;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return NUMBER;
+                }
+                if (c >= 'a' && c <= 'z') {
+                    readLiteral(c);
+                    return LITERAL;
+                }
+                throw new IOException("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /** Skips the value that follows a NAME, including any nested containers. */
+    void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int token = next();
+            if (token == BEGIN_OBJECT || token == BEGIN_ARRAY) {
+                depth++;
+            } else if (token == END_OBJECT || token == END_ARRAY) {
+                depth--;
+            } else if (token == END_DOCUMENT) {
+                throw new IOException("Unexpected end of document");
+            }
+        } while (depth > 0);
+    }
+
+    /** Characters of the last NAME, STRING or LITERAL; valid until the next call to {@link #next()}. */
+    char[] textChars() {
+        return text;
+    }
+
+    int textLength() {
+        return textLength;
+    }
+
+    boolean textEquals(String value) {
+        if (value.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String textString() {
+        return new String(text, 0, textLength);
+    }
+
+    double numberValue() {
+        return number;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',');
+        return c;
+    }
+
+    private void append(char c) {
+        if (textLength == text.length) {
+            char[] grown = new char[text.length * 2];
+            System.arraycopy(text, 0, grown, 0, textLength);
+            text = grown;
+        }
+        text[textLength++] = c;
+    }
+
+    private void readString() throws IOException {
+        textLength = 0;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n': append('\n'); break;
+                    case 't': append('\t'); break;
+                    case 'r': append('\r'); break;
+                    case 'b': append('\b'); break;
+                    case 'f': append('\f'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            code = (code << 4) | Character.digit(read(), 16);
+                        }
+                        append((char) code);
+                        break;
+                    case -1:
+                        throw new IOException("Unterminated string");
+                    default:
+                        append((char) c);
+                }
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    private void readLiteral(int first) throws IOException {
+        textLength = 0;
+        append((char) first);
+        int c;
+        while ((c = read()) >= 'a' && c <= 'z') {
+            append((char) c);
+        }
+        if (c != -1) {
+            position--;
+        }
+    }
+
+    private void readNumber(int first) throws IOException {
+        textLength = 0;
+        boolean negative = first == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean fraction = false;
+
+        int c = first;
+        if (negative) {
+            append('-');
+            c = read();
+        }
+        while (true) {
+            if (c >= '0' && c <= '9') {
+                append((char) c);
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (fraction) {
+                        scale++;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (c == '.' && !fraction) {
+                append('.');
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                append((char) c);
+                c = read();
+                boolean negativeExponent = c == '-';
+                if (c == '-' || c == '+') {
+                    append((char) c);
+                    c = read();
+                }
+                while (c >= '0' && c <= '9') {
+                    append((char) c);
+                    exponent = exponent * 10 + (c - '0');
+                    c = read();
+                }
+                if (negativeExponent) {
+                    exponent = -exponent;
+                }
+                break;
+            } else {
+                break;
+            }
+            c = read();
+        }
+        if (c != -1) {
+            position--;
+        }
+
+        int power = exponent - scale;
+        // A mantissa below 2^53 divided or multiplied by an exact power of ten is correctly rounded
+        if (exact && mantissa < (1L << 53) && power >= -22 && power <= 22) {
+            double value = power < 0 ? mantissa / POW10[-power] : mantissa * POW10[power];
+            number = negative ? -value : value;
+        } else {
+            number = Double.parseDouble(textString());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.currencyconverter;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rates from files on the device, in the same JSON shapes the network providers return:
+ * latest rates as er-api or frankfurter publish them, history as a frankfurter range.
+ * Answers in microseconds when the files exist and fails at once when they do not, so it
+ * costs nothing as a last resort for devices provisioned with rate files.
+ */
+public class LocalFileProvider implements RateProvider {
+
+    static final String DIRECTORY = "provider_rates";
+
+    private final File latestFile;
+    private final File historyFile;
+
+    public LocalFileProvider(File latestFile, File historyFile) {
+        this.latestFile = latestFile;
+        this.historyFile = historyFile;
+    }
+
+    /** {@code latest.json} and {@code history.json} under {@value #DIRECTORY} in {@code filesDir}. */
+    public static LocalFileProvider in(File filesDir) {
+        File dir = new File(filesDir, DIRECTORY);
+        return new LocalFileProvider(new File(dir, "latest.json"), new File(dir, "history.json"));
+    }
+
+    @Override
+    public String name() {
+        return "local-file";
+    }
+
+    @Override
+    public Latest latest(boolean conditional, AtomicLong received) throws IOException {
+        try (InputStream in = open(latestFile)) {
+            RatesParser.LatestRates latest = RatesParser.parseLatest(in);
+            return new Latest(name(), latest.table, false, latest.nextUpdateUnix, null, null);
+        }
+    }
+
+    @Override
+    public boolean hasCompleteLatest() {
+        // Either provider's shape may be on disk; assume the smaller
+        return false;
+    }
+
+    @Override
+    public boolean hasHistory() {
+        return true;
+    }
+
+    @Override
+    public History history(int startDay, int endDay, boolean tailCheck, AtomicLong received) throws IOException {
+        Map<String, RateSeries> all;
+        try (InputStream in = open(historyFile)) {
+            all = RatesParser.parseHistoryAll(in);
+        }
+        Map<String, RateSeries> range = new HashMap<>(all.size() * 2);
+        for (Map.Entry<String, RateSeries> currency : all.entrySet()) {
+            range.put(currency.getKey(), currency.getValue().slice(startDay, endDay));
+        }
+        return new History(range, null);
+    }
+
+    private static InputStream open(File file) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+}
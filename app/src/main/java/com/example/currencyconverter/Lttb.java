@@ -0,0 +1,110 @@
+package com.example.currencyconverter;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a rate history.
+ *
+ * Picks which point indices to draw, always keeping the first and last point and, per bucket,
+ * the point that spans the largest triangle with its neighbours, which keeps spikes and the
+ * overall shape. x is the point index, matching how the chart lays series out. Results are
+ * written to a caller-supplied int[] so re-sampling on every zoom step allocates nothing.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Selects at most {@code threshold} indices from {@code [from, to)} into {@code out}
+     * starting at {@code offset}; returns how many were written.
+     */
+    public static int select(RateHistory series, int from, int to, int threshold, int[] out, int offset) {
+        int count = to - from;
+        if (count <= 0) {
+            return 0;
+        }
+        if (count <= threshold) {
+            for (int i = 0; i < count; i++) {
+                out[offset + i] = from + i;
+            }
+            return count;
+        }
+        if (threshold < 3) {
+            // Too few buckets for triangles: keep just the ends
+            if (threshold <= 0) {
+                return 0;
+            }
+            out[offset] = from;
+            if (threshold == 1) {
+                return 1;
+            }
+            out[offset + 1] = to - 1;
+            return 2;
+        }
+
+        int written = 0;
+        out[offset + written++] = from;
+
+        // Interior points spread over threshold - 2 buckets
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int a = from;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = from + 1 + (int) Math.floor(bucket * bucketSize);
+            int bucketEnd = from + 1 + (int) Math.floor((bucket + 1) * bucketSize);
+
+            // Average of the next bucket is the third triangle corner
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min(from + 1 + (int) Math.floor((bucket + 2) * bucketSize), to);
+            if (nextStart >= nextEnd) {
+                nextStart = to - 1;
+                nextEnd = to;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += i;
+                avgY += series.rateAt(i);
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            double ax = a;
+            double ay = series.rateAt(a);
+            double maxArea = -1;
+            int chosen = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((ax - avgX) * (series.rateAt(i) - ay) - (ax - i) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            out[offset + written++] = chosen;
+            a = chosen;
+        }
+
+        out[offset + written++] = to - 1;
+        return written;
+    }
+
+    /**
+     * Samples {@code [focusFrom, focusTo)} at {@code focusPoints} and the rest of the series
+     * at {@code contextPoints} per side, so a zoomed-in chart keeps detail where the user is
+     * looking while the full x extent stays intact. Indices come out ascending.
+     */
+    public static int selectWithFocus(RateHistory series, int focusFrom, int focusTo,
+                                      int focusPoints, int contextPoints, int[] out) {
+        int size = series.size();
+        focusFrom = Math.max(0, Math.min(focusFrom, size));
+        focusTo = Math.max(focusFrom, Math.min(focusTo, size));
+
+        int written = select(series, 0, focusFrom, contextPoints, out, 0);
+        written += select(series, focusFrom, focusTo, focusPoints, out, written);
+        written += select(series, focusTo, size, contextPoints, out, written);
+        return written;
+    }
+
+    /** Enough room in an output array for {@link #selectWithFocus}. */
+    public static int capacity(int focusPoints, int contextPoints) {
+        return focusPoints + 2 * Math.max(contextPoints, 2);
+    }
+}
@@ -93,7 +93,6 @@
 //            }
 //
 //            try {
-//                Log.d("API Response", result);
 //                JSONObject jsonResponse = new JSONObject(result);
 //
 //                if (!jsonResponse.has("rates")) {
@@ -165,10 +164,15 @@
 package com.example.currencyconverter;
 
 import android.content.Intent;
-import android.os.AsyncTask;
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.MotionEvent;
 import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.EditText;
@@ -177,26 +181,78 @@ import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
 
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String KEY_ROUNDING_MODE = "rounding_mode";
+    // Offered in the rounding setting; UNNECESSARY would make most conversions fail
+    private static final RoundingMode[] ROUNDING_MODES = {RoundingMode.HALF_UP, RoundingMode.HALF_EVEN,
+            RoundingMode.HALF_DOWN, RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR};
+    private static final String[] ROUNDING_LABELS = {"Half up", "Half even (banker's)", "Half down",
+            "Away from zero", "Toward zero", "Up (ceiling)", "Down (floor)"};
+
     private Spinner fromCurrency, toCurrency;
     private EditText amountInput;
     private TextView resultText;
     private Button convertButton;
     private ImageView swapButton;
-    private JSONObject exchangeRates;
+    private RateTable exchangeRates;
+    private long ratesFetchedAt;
+    private ExactConverter exactRates;
+    private RoundingMode roundingMode;
+    private Button roundingButton;
+    // Reused on every conversion so the exact path allocates nothing until the final String
+    private final ExactConverter.Money amountMoney = new ExactConverter.Money();
+    private final ExactConverter.Money convertedMoney = new ExactConverter.Money();
+    private char[] resultBuffer = new char[32];
+
+    // Live result: recomputed at most once per frame, written into its own char buffer
+    private TextView liveResult;
+    private char[] liveBuffer = new char[32];
+    private boolean liveScheduled;
+    private final Choreographer.FrameCallback liveFrame = frameTimeNanos -> {
+        liveScheduled = false;
+        updateLiveResult();
+    };
+    private RateCache rateCache;
+    private TaskRunner.Slot ratesSlot;
+    private TaskRunner.Slot csvSlot;
+    private TaskRunner.Slot pickerSlot;
+    private Uri csvInput;
+    // Codes behind the spinner adapter; a refresh with the same codes keeps adapter and selection
+    private String[] currencyCodes;
+    private CurrencyPicker currencyPicker;
+
+    // Pick the CSV to read, then where to write the converted copy
+    private final ActivityResultLauncher<String> createCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"), uri -> {
+                if (uri != null && csvInput != null) {
+                    convertCsv(csvInput, uri);
+                }
+            });
+    private final ActivityResultLauncher<String[]> openCsv = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) {
+                    csvInput = uri;
+                    createCsv.launch("converted.csv");
+                }
+            });
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -208,9 +264,28 @@ public class MainActivity extends AppCompatActivity {
         amountInput = findViewById(R.id.amount_input);
         convertButton = findViewById(R.id.convert_button);
         swapButton = findViewById(R.id.swap_button);
-//        resultText = findViewById(R.id.result_text);
-
-        new FetchExchangeRates().execute("https://open.er-api.com/v6/latest/USD");
+        liveResult = findViewById(R.id.live_result);
+        resultText = findViewById(R.id.status_text);
+
+        roundingMode = readRoundingMode();
+        roundingButton = findViewById(R.id.rounding_button);
+        showRoundingMode();
+        roundingButton.setOnClickListener(v -> showRoundingDialog());
+        rateCache = RateCache.get(getFilesDir());
+        ratesSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+        csvSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+        pickerSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+
+        // Serve rates already in memory straight away and only hit the network when stale
+        RateCache.Snapshot cached = rateCache.peek();
+        if (cached != null) {
+            showRates(cached);
+        }
+        if (cached == null) {
+            loadRates();
+        } else if (!cached.isFresh(System.currentTimeMillis())) {
+            refreshRates();
+        }
 
         convertButton.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -219,6 +294,21 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
+        findViewById(R.id.all_currencies_button).setOnClickListener(v -> showAllCurrencies());
+        findViewById(R.id.watchlist_button).setOnClickListener(v -> showWatchlist());
+        // Hidden way into the metrics screen, for looking at where time goes on a real device
+        resultText.setOnLongClickListener(v -> {
+            startActivity(new Intent(MainActivity.this, MetricsActivity.class));
+            return true;
+        });
+        findViewById(R.id.csv_button).setOnClickListener(v -> {
+            if (exchangeRates == null) {
+                Toast.makeText(MainActivity.this, "Exchange rates not loaded", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            openCsv.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"});
+        });
+
         swapButton.setOnClickListener(v -> {
             int fromPosition = fromCurrency.getSelectedItemPosition();
             int toPosition = toCurrency.getSelectedItemPosition();
@@ -226,67 +316,181 @@ public class MainActivity extends AppCompatActivity {
             fromCurrency.setSelection(toPosition);
             toCurrency.setSelection(fromPosition);
         });
-    }
 
-    private class FetchExchangeRates extends AsyncTask<String, Void, String> {
-        @Override
-        protected String doInBackground(String... urls) {
-            try {
-                URL url = new URL(urls[0]);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
+        // Every keystroke and selection change refreshes the live result in place
+        amountInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
 
-                BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                StringBuilder response = new StringBuilder();
-                String line;
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
 
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
+            @Override
+            public void afterTextChanged(Editable s) {
+                scheduleLiveResult();
+            }
+        });
+        AdapterView.OnItemSelectedListener selectionListener = new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                scheduleLiveResult();
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+                scheduleLiveResult();
+            }
+        };
+        fromCurrency.setOnItemSelectedListener(selectionListener);
 
-                reader.close();
-                return response.toString();
+        // Tapping a currency opens the search picker; until its index is built the plain dropdown opens
+        View.OnTouchListener openPicker = (v, event) -> {
+            if (currencyPicker == null) {
+                return false;
+            }
+            if (event.getAction() == MotionEvent.ACTION_UP) {
+                showPicker((Spinner) v);
+            }
+            return true;
+        };
+        fromCurrency.setOnTouchListener(openPicker);
+        toCurrency.setOnTouchListener(openPicker);
+        toCurrency.setOnItemSelectedListener(selectionListener);
+    }
 
-            } catch (Exception e) {
-                Log.e("API Error", "Failed to fetch exchange rates", e);
-                return null;
+    // Loads the on-disk snapshot first, then refreshes from the network if it is stale
+    private void loadRates() {
+        ratesSlot.submit("rates:disk", rateCache::load, new TaskRunner.Callback<RateCache.Snapshot>() {
+            @Override
+            public void onResult(RateCache.Snapshot cached) {
+                if (cached != null) {
+                    showRates(cached);
+                }
+                if (cached == null || !cached.isFresh(System.currentTimeMillis())) {
+                    refreshRates();
+                }
             }
-        }
 
-        @Override
-        protected void onPostExecute(String result) {
-            if (result == null) {
-                resultText.setText("Error: Unable to fetch exchange rates");
-                return;
+            @Override
+            public void onError(Exception error) {
+                refreshRates();
             }
+        });
+    }
 
-            try {
-                Log.d("API Response", result);
-                JSONObject jsonResponse = new JSONObject(result);
+    private void refreshRates() {
+        RatesApi api = RatesApi.get(getFilesDir());
+        ratesSlot.submit("rates:latest", api::refreshLatest, new TaskRunner.Callback<RateCache.Snapshot>() {
+            @Override
+            public void onResult(RateCache.Snapshot result) {
+                showRates(result);
+            }
 
-                if (!jsonResponse.has("rates")) {
-                    resultText.setText("Error: Invalid API response");
-                    return;
+            @Override
+            public void onError(Exception error) {
+                Log.e("API Error", "Failed to fetch exchange rates", error);
+                // Stale rates beat no rates; say how old they are and catch up once back online
+                if (exchangeRates == null) {
+                    resultText.setText("Error: Unable to fetch exchange rates");
+                } else {
+                    resultText.setText("Offline · rates updated " + DataAge.describe(System.currentTimeMillis(), ratesFetchedAt));
                 }
+                SyncScheduler.syncWhenOnline(MainActivity.this);
+            }
+        });
+    }
 
-                exchangeRates = jsonResponse.getJSONObject("rates");
+    private void showRates(RateCache.Snapshot snapshot) {
+        ratesFetchedAt = snapshot.fetchedAt;
+        resultText.setText("Rates updated " + DataAge.describe(System.currentTimeMillis(), snapshot.fetchedAt));
+        applyRates(snapshot.table);
 
-                List<String> currencyList = new ArrayList<>();
-                Iterator<String> keys = exchangeRates.keys();
+        // The screen is usable from here; this is what time-to-full-display measures
+        if (StartupTrace.end(StartupTrace.FIRST_CONVERSION)) {
+            reportFullyDrawn();
+        }
+    }
 
-                while (keys.hasNext()) {
-                    currencyList.add(keys.next());
-                }
+    @Override
+    protected void onDestroy() {
+        Choreographer.getInstance().removeFrameCallback(liveFrame);
+        ratesSlot.cancel();
+        csvSlot.cancel();
+        pickerSlot.cancel();
+        super.onDestroy();
+    }
 
-                ArrayAdapter<String> adapter = new ArrayAdapter<>(MainActivity.this, android.R.layout.simple_spinner_item, currencyList);
-                adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                fromCurrency.setAdapter(adapter);
-                toCurrency.setAdapter(adapter);
-            } catch (Exception e) {
-                Log.e("JSON Error", "Failed to parse API response", e);
-                resultText.setText("Error: Failed to process exchange rates");
+    private void applyRates(RateTable rates) {
+        // Keep the user's selection when fresh rates replace cached ones
+        Object from = fromCurrency.getSelectedItem();
+        Object to = toCurrency.getSelectedItem();
+
+        exchangeRates = rates;
+        exactRates = new ExactConverter(rates);
+
+        // Spinner positions match table indices, so the list is the table's code order
+        String[] codes = rates.codes();
+        if (!Arrays.equals(codes, currencyCodes)) {
+            currencyCodes = codes;
+            List<String> currencyList = Arrays.asList(codes);
+            ArrayAdapter<String> adapter = new ArrayAdapter<>(MainActivity.this, android.R.layout.simple_spinner_item, currencyList);
+            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+            fromCurrency.setAdapter(adapter);
+            toCurrency.setAdapter(adapter);
+
+            if (from != null && to != null) {
+                fromCurrency.setSelection(Math.max(0, currencyList.indexOf(from.toString())));
+                toCurrency.setSelection(Math.max(0, currencyList.indexOf(to.toString())));
             }
         }
+
+        if (currencyPicker != null) {
+            currencyPicker.setAvailable(rates);
+        } else {
+            buildCurrencyPicker(codes);
+        }
+        scheduleLiveResult();
+    }
+
+    // Bursts of keystrokes within one frame collapse into a single recompute before drawing
+    private void scheduleLiveResult() {
+        if (!liveScheduled) {
+            liveScheduled = true;
+            Choreographer.getInstance().postFrameCallback(liveFrame);
+        }
+    }
+
+    // Runs once per frame at most; reads the Editable in place and allocates nothing
+    private void updateLiveResult() {
+        int fromIndex = fromCurrency.getSelectedItemPosition();
+        int toIndex = toCurrency.getSelectedItemPosition();
+        if (exactRates == null || fromIndex < 0 || fromIndex >= exchangeRates.size()
+                || toIndex < 0 || toIndex >= exchangeRates.size()
+                || !amountMoney.parse(amountInput.getText())) {
+            liveResult.setText(null);
+            return;
+        }
+        long start = Metrics.CONVERSION.start();
+        try {
+            exactRates.convert(fromIndex, toIndex, amountMoney, roundingMode, convertedMoney);
+        } catch (ArithmeticException e) {
+            liveResult.setText(null);
+            return;
+        } finally {
+            Metrics.CONVERSION.stop(start);
+        }
+
+        int needed = convertedMoney.formattedLength() + 4;
+        if (liveBuffer.length < needed) {
+            liveBuffer = new char[needed];
+        }
+        int length = convertedMoney.format(liveBuffer, 0);
+        liveBuffer[length++] = ' ';
+        RateTable.unpack(exchangeRates.packedCodeAt(toIndex), liveBuffer, length);
+        // TextView wraps the array rather than copying it; it is only rewritten right before the next setText
+        liveResult.setText(liveBuffer, 0, length + 3);
     }
 
     private void convertCurrency() {
@@ -296,8 +500,8 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
 
-            String from = fromCurrency.getSelectedItem().toString();
-            String to = toCurrency.getSelectedItem().toString();
+            int fromIndex = fromCurrency.getSelectedItemPosition();
+            int toIndex = toCurrency.getSelectedItemPosition();
             String amountStr = amountInput.getText().toString();
 
             if (amountStr.isEmpty()) {
@@ -305,18 +509,28 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
 
-            double amount = Double.parseDouble(amountStr);
+            if (!amountMoney.parse(amountStr)) {
+                Toast.makeText(MainActivity.this, "Invalid amount entered", Toast.LENGTH_SHORT).show();
+                return;
+            }
 
-            if (!exchangeRates.has(from) || !exchangeRates.has(to)) {
+            if (fromIndex < 0 || fromIndex >= exchangeRates.size()
+                    || toIndex < 0 || toIndex >= exchangeRates.size()) {
                 resultText.setText("Error: Invalid currency selection");
                 return;
             }
 
-            double fromRate = exchangeRates.getDouble(from);
-            double toRate = exchangeRates.getDouble(to);
+            String from = exchangeRates.codeAt(fromIndex);
+            String to = exchangeRates.codeAt(toIndex);
 
-            double convertedAmount = (amount / fromRate) * toRate;
-            String result = String.format("%.2f %s", convertedAmount, to);
+            // Exact decimal arithmetic, rounded once to the target currency's minor units
+            long start = Metrics.CONVERSION.start();
+            try {
+                exactRates.convert(fromIndex, toIndex, amountMoney, roundingMode, convertedMoney);
+            } finally {
+                Metrics.CONVERSION.stop(start);
+            }
+            String result = formatResult(convertedMoney, to);
 
             // ✅ Pass from & to currencies along with converted amount
             Intent intent = new Intent(MainActivity.this, ResultActivity.class);
@@ -325,11 +539,139 @@ public class MainActivity extends AppCompatActivity {
             intent.putExtra("to_currency", to);
             startActivity(intent);
 
-        } catch (NumberFormatException e) {
-            Toast.makeText(MainActivity.this, "Invalid amount entered", Toast.LENGTH_SHORT).show();
         } catch (Exception e) {
             Log.e("Conversion Error", "Failed to convert currency", e);
             Toast.makeText(MainActivity.this, "Conversion failed", Toast.LENGTH_SHORT).show();
         }
     }
+
+    // "<amount> <code>" built in a reused buffer rather than through String.format
+    private String formatResult(ExactConverter.Money money, String code) {
+        int needed = money.formattedLength() + 1 + code.length();
+        if (resultBuffer.length < needed) {
+            resultBuffer = new char[needed];
+        }
+        int length = money.format(resultBuffer, 0);
+        resultBuffer[length++] = ' ';
+        code.getChars(0, code.length(), resultBuffer, length);
+        return new String(resultBuffer, 0, length + code.length());
+    }
+
+    private RoundingMode readRoundingMode() {
+        String name = getSharedPreferences(SyncScheduler.SETTINGS, MODE_PRIVATE)
+                .getString(KEY_ROUNDING_MODE, RoundingMode.HALF_UP.name());
+        try {
+            return RoundingMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return RoundingMode.HALF_UP;
+        }
+    }
+
+    private void showRoundingDialog() {
+        int checked = Arrays.asList(ROUNDING_MODES).indexOf(roundingMode);
+        new AlertDialog.Builder(this)
+                .setTitle("Rounding")
+                .setSingleChoiceItems(ROUNDING_LABELS, checked, (dialog, which) -> {
+                    roundingMode = ROUNDING_MODES[which];
+                    getSharedPreferences(SyncScheduler.SETTINGS, MODE_PRIVATE).edit()
+                            .putString(KEY_ROUNDING_MODE, roundingMode.name())
+                            .apply();
+                    showRoundingMode();
+                    scheduleLiveResult();
+                    dialog.dismiss();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showRoundingMode() {
+        int index = Arrays.asList(ROUNDING_MODES).indexOf(roundingMode);
+        roundingButton.setText("Rounding: " + (index >= 0 ? ROUNDING_LABELS[index] : roundingMode.name()));
+    }
+
+    private void showAllCurrencies() {
+        if (exchangeRates == null || fromCurrency.getSelectedItem() == null) {
+            Toast.makeText(MainActivity.this, "Exchange rates not loaded", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String amountStr = amountInput.getText().toString().trim();
+        if (amountStr.isEmpty()) {
+            amountStr = "1";
+        } else if (!new ExactConverter.Money().parse(amountStr)) {
+            Toast.makeText(MainActivity.this, "Invalid amount entered", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        // Passed as typed so the other screen converts the exact decimal, rounded the same way
+        Intent intent = new Intent(MainActivity.this, AllCurrenciesActivity.class);
+        intent.putExtra("from_currency", fromCurrency.getSelectedItem().toString());
+        intent.putExtra("amount", amountStr);
+        intent.putExtra("rounding_mode", roundingMode.name());
+        startActivity(intent);
+    }
+
+    // The index covers the platform's currencies plus any the rate table has beyond them
+    private void buildCurrencyPicker(String[] codes) {
+        pickerSlot.submit("currency:index", () -> CurrencyIndex.build(Arrays.asList(codes), Locale.getDefault()),
+                new TaskRunner.Callback<CurrencyIndex>() {
+                    @Override
+                    public void onResult(CurrencyIndex index) {
+                        currencyPicker = new CurrencyPicker(MainActivity.this, index, CurrencyPins.get(getFilesDir()));
+                        currencyPicker.setAvailable(exchangeRates);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.e("Picker Error", "Failed to build currency index", error);
+                    }
+                });
+    }
+
+    private void showPicker(Spinner target) {
+        currencyPicker.show(target == fromCurrency ? "From currency" : "To currency", code -> {
+            int index = exchangeRates.indexOf(code);
+            if (index != RateTable.NOT_FOUND) {
+                target.setSelection(index);
+            }
+        });
+    }
+
+    // The current selection is offered for adding on the watchlist screen
+    private void showWatchlist() {
+        Intent intent = new Intent(MainActivity.this, WatchlistActivity.class);
+        if (fromCurrency.getSelectedItem() != null && toCurrency.getSelectedItem() != null) {
+            intent.putExtra("from_currency", fromCurrency.getSelectedItem().toString());
+            intent.putExtra("to_currency", toCurrency.getSelectedItem().toString());
+        }
+        startActivity(intent);
+    }
+
+    // Rows without a currency column are read as the "from" selection and all go to "to"
+    private void convertCsv(Uri input, Uri output) {
+        RateTable table = exchangeRates;
+        int fromIndex = fromCurrency.getSelectedItemPosition();
+        int toIndex = toCurrency.getSelectedItemPosition();
+        if (fromIndex < 0 || fromIndex >= table.size() || toIndex < 0 || toIndex >= table.size()) {
+            Toast.makeText(MainActivity.this, "Invalid currency selection", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        BatchConverter converter = new BatchConverter(table, roundingMode, Runtime.getRuntime().availableProcessors());
+        csvSlot.submit("csv:" + input + ":" + output, () -> {
+            try (Reader in = new InputStreamReader(getContentResolver().openInputStream(input), StandardCharsets.UTF_8);
+                 OutputStream stream = getContentResolver().openOutputStream(output);
+                 Writer out = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+                return converter.convertCsv(in, out, fromIndex, toIndex);
+            }
+        }, new TaskRunner.Callback<Long>() {
+            @Override
+            public void onResult(Long rows) {
+                Toast.makeText(MainActivity.this, "Converted " + rows + " rows", Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                Log.e("Conversion Error", "Failed to convert CSV", error);
+                Toast.makeText(MainActivity.this, "CSV conversion failed", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.currencyconverter;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A window onto the day and rate columns of a memory-mapped history file. Nothing is
+ * copied; reads go straight to the mapped pages.
+ */
+public final class MappedSeries implements RateHistory {
+
+    private final IntBuffer days;
+    private final FloatBuffer rates;
+    private final int offset;
+    private final int size;
+
+    MappedSeries(IntBuffer days, FloatBuffer rates, int offset, int size) {
+        this.days = days;
+        this.rates = rates;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int dayAt(int index) {
+        return days.get(offset + index);
+    }
+
+    @Override
+    public float rateAt(int index) {
+        return rates.get(offset + index);
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process counters, histograms and timers, readable on the debug screen and exportable as
+ * JSON. Metrics are registered once, normally into the static fields below, and recorded
+ * through those references: recording is a few atomic adds into preallocated arrays, with
+ * no lock and no allocation, so it is safe on the main thread and in per-frame code.
+ * Timers also open a trace section under their name through the installed {@link Tracer},
+ * so they show up in systrace and Perfetto.
+ */
+public final class Metrics {
+
+    /** Receives timer sections; the app installs one backed by the platform trace API. */
+    public interface Tracer {
+        void begin(String section);
+
+        void end();
+    }
+
+    private static final Tracer NO_TRACER = new Tracer() {
+        @Override
+        public void begin(String section) {
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private static final Map<String, Object> registry = new LinkedHashMap<>();
+    private static volatile Tracer tracer = NO_TRACER;
+
+    // Every fetch, split into its phases; histograms are in microseconds like the timers
+    public static final Timer HTTP_DNS = timer("http.dns");
+    public static final Timer HTTP_CONNECT = timer("http.connect");
+    public static final Timer HTTP_FIRST_BYTE = timer("http.ttfb");
+    /** Time spent blocked reading the body off the network. */
+    public static final Histogram HTTP_DOWNLOAD = histogram("http.download");
+    /** Time spent handling the body between reads, i.e. parsing it as it streams in. */
+    public static final Histogram HTTP_PARSE = histogram("http.parse");
+    public static final Counter HTTP_REQUESTS = counter("http.requests");
+    public static final Counter HTTP_NOT_MODIFIED = counter("http.not_modified");
+    public static final Counter HTTP_ERRORS = counter("http.errors");
+
+    public static final Counter RATES_MEMORY_HITS = counter("cache.rates.memory_hit");
+    public static final Counter RATES_DISK_HITS = counter("cache.rates.disk_hit");
+    public static final Counter RATES_MISSES = counter("cache.rates.miss");
+    /** History requests answered entirely from the store. */
+    public static final Counter HISTORY_STORE_HITS = counter("cache.history.hit");
+    /** History requests that had to fetch at least one hole. */
+    public static final Counter HISTORY_STORE_MISSES = counter("cache.history.miss");
+
+    public static final Timer CONVERSION = timer("convert");
+    public static final Timer CHART_SHOW = timer("chart.show");
+    /** From picking a chart range to its series being shown, network included. */
+    public static final Histogram RANGE_SWITCH = histogram("chart.range_switch");
+    /** Ranges brought into the store ahead of being asked for. */
+    public static final Counter PREFETCH_STEPS = counter("prefetch.steps");
+    /** Duration of each frame drawn while a {@link FrameMonitor} is running. */
+    public static final Histogram FRAME_TIME = histogram("frame.time");
+    public static final Counter FRAMES = counter("frame.count");
+    /** Vsyncs missed because a frame took longer than one refresh interval. */
+    public static final Counter FRAMES_DROPPED = counter("frame.dropped");
+
+    private Metrics() {
+    }
+
+    public static void setTracer(Tracer installed) {
+        tracer = installed != null ? installed : NO_TRACER;
+    }
+
+    /** The counter called {@code name}, registered on first use. */
+    public static synchronized Counter counter(String name) {
+        Object metric = registry.get(name);
+        if (metric == null) {
+            metric = new Counter(name);
+            registry.put(name, metric);
+        }
+        return (Counter) metric;
+    }
+
+    /** The histogram called {@code name}, registered on first use. */
+    public static synchronized Histogram histogram(String name) {
+        Object metric = registry.get(name);
+        if (metric == null) {
+            metric = new Histogram(name);
+            registry.put(name, metric);
+        }
+        return (Histogram) metric;
+    }
+
+    /** The timer called {@code name}, registered on first use; its histogram is in microseconds. */
+    public static synchronized Timer timer(String name) {
+        Object metric = registry.get(name);
+        if (metric == null) {
+            metric = new Timer(name);
+            registry.put(name, metric);
+        }
+        return (Timer) metric;
+    }
+
+    /** Every registered metric, in registration order. */
+    public static synchronized List<Object> all() {
+        return new ArrayList<>(registry.values());
+    }
+
+    /** Zeroes every metric; registrations stay. */
+    public static void reset() {
+        for (Object metric : all()) {
+            if (metric instanceof Counter) {
+                ((Counter) metric).value.set(0);
+            } else if (metric instanceof Timer) {
+                ((Timer) metric).histogram.reset();
+            } else {
+                ((Histogram) metric).reset();
+            }
+        }
+    }
+
+    /** A monotonically increasing count. */
+    public static final class Counter {
+        private final String name;
+        private final AtomicLong value = new AtomicLong();
+
+        Counter(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        public long value() {
+            return value.get();
+        }
+    }
+
+    /**
+     * Distribution of non-negative values in log-linear buckets: exact below 16, then eight
+     * buckets per power of two, so any percentile is within 12.5% of the true value.
+     */
+    public static final class Histogram {
+        static final int LINEAR = 16;
+        static final int SUB_BUCKETS = 8;
+        // Up to 2^47, far beyond any duration in microseconds this app measures
+        static final int BUCKETS = LINEAR + (47 - 4) * SUB_BUCKETS;
+
+        private final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            buckets.incrementAndGet(bucketOf(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long seen;
+            while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+                // Lost a race with a concurrent record; re-read and retry
+            }
+        }
+
+        static int bucketOf(long value) {
+            if (value < LINEAR) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+            return Math.min(BUCKETS - 1, LINEAR + (exponent - 4) * SUB_BUCKETS + sub);
+        }
+
+        // Smallest value that falls into the bucket
+        static long bucketStart(int bucket) {
+            if (bucket < LINEAR) {
+                return bucket;
+            }
+            int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+            int sub = (bucket - LINEAR) % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + sub) << (exponent - 3);
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        public long sum() {
+            return sum.get();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+
+        /** Estimated value at {@code quantile} (0 to 1), the middle of its bucket; 0 when empty. */
+        public long percentile(double quantile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    long start = bucketStart(i);
+                    long end = i + 1 < BUCKETS ? bucketStart(i + 1) : start + 1;
+                    return Math.min(max.get(), start + (end - start - 1) / 2);
+                }
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+    }
+
+    /**
+     * Times a synchronous block: {@code long start = timer.start(); ... timer.stop(start);}
+     * on the same thread, which also brackets the block in a trace section.
+     */
+    public static final class Timer {
+        private final String name;
+        private final Histogram histogram;
+
+        Timer(String name) {
+            this.name = name;
+            this.histogram = new Histogram(name);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Histogram histogram() {
+            return histogram;
+        }
+
+        public long start() {
+            tracer.begin(name);
+            return System.nanoTime();
+        }
+
+        public void stop(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            tracer.end();
+            histogram.record(elapsed / 1000);
+        }
+
+        /** Records a duration measured elsewhere, without a trace section. */
+        public void recordNanos(long nanos) {
+            histogram.record(nanos / 1000);
+        }
+    }
+
+    /**
+     * Writes every metric as {@code {"counters":{name:value,...},"histograms":{name:{count,
+     * mean,p50,p95,p99,max},...}}}; timer values are in microseconds.
+     */
+    public static void writeJson(Writer out) throws IOException {
+        List<Object> metrics = all();
+        out.write("{\"counters\":{");
+        boolean first = true;
+        for (Object metric : metrics) {
+            if (metric instanceof Counter) {
+                Counter counter = (Counter) metric;
+                out.write(first ? "\"" : ",\"");
+                out.write(counter.name);
+                out.write("\":");
+                out.write(Long.toString(counter.value()));
+                first = false;
+            }
+        }
+        out.write("},\"histograms\":{");
+        first = true;
+        for (Object metric : metrics) {
+            Histogram histogram = metric instanceof Timer ? ((Timer) metric).histogram
+                    : metric instanceof Histogram ? (Histogram) metric : null;
+            if (histogram == null) {
+                continue;
+            }
+            out.write(first ? "\"" : ",\"");
+            out.write(histogram.name);
+            out.write("\":{\"count\":" + histogram.count()
+                    + ",\"mean\":" + Math.round(histogram.mean())
+                    + ",\"p50\":" + histogram.percentile(0.5)
+                    + ",\"p95\":" + histogram.percentile(0.95)
+                    + ",\"p99\":" + histogram.percentile(0.99)
+                    + ",\"max\":" + histogram.max() + "}");
+            first = false;
+        }
+        out.write("}}");
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.currencyconverter;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Debug screen listing every {@link Metrics} value and the rate providers' health, with a
+ * JSON export through the share sheet. Opened by long-pressing the rates status line.
+ */
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView metricsText;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+
+        metricsText = findViewById(R.id.metrics_text);
+        findViewById(R.id.metrics_refresh_button).setOnClickListener(v -> showMetrics());
+        findViewById(R.id.metrics_reset_button).setOnClickListener(v -> {
+            Metrics.reset();
+            showMetrics();
+        });
+        findViewById(R.id.metrics_export_button).setOnClickListener(v -> exportJson());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showMetrics();
+    }
+
+    private void showMetrics() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.US, "%-26s %8s %8s %8s %8s%n", "histogram (µs)", "count", "p50", "p95", "max"));
+        for (Object metric : Metrics.all()) {
+            Metrics.Histogram histogram = metric instanceof Metrics.Timer ? ((Metrics.Timer) metric).histogram()
+                    : metric instanceof Metrics.Histogram ? (Metrics.Histogram) metric : null;
+            if (histogram != null) {
+                text.append(String.format(Locale.US, "%-26s %8d %8d %8d %8d%n", histogram.name(), histogram.count(),
+                        histogram.percentile(0.5), histogram.percentile(0.95), histogram.max()));
+            }
+        }
+
+        text.append('\n');
+        for (Object metric : Metrics.all()) {
+            if (metric instanceof Metrics.Counter) {
+                Metrics.Counter counter = (Metrics.Counter) metric;
+                text.append(String.format(Locale.US, "%-26s %8d%n", counter.name(), counter.value()));
+            }
+        }
+        long memoryHits = Metrics.RATES_MEMORY_HITS.value();
+        long diskHits = Metrics.RATES_DISK_HITS.value();
+        long lookups = memoryHits + diskHits + Metrics.RATES_MISSES.value();
+        long historyHits = Metrics.HISTORY_STORE_HITS.value();
+        long historyLookups = historyHits + Metrics.HISTORY_STORE_MISSES.value();
+        text.append(String.format(Locale.US, "%-26s %7.1f%%%n", "rates cache hit ratio", percent(memoryHits + diskHits, lookups)));
+        text.append(String.format(Locale.US, "%-26s %7.1f%%%n", "history store hit ratio", percent(historyHits, historyLookups)));
+        text.append(String.format(Locale.US, "%-26s %7.1f%%%n", "frames dropped",
+                percent(Metrics.FRAMES_DROPPED.value(), Metrics.FRAMES.value() + Metrics.FRAMES_DROPPED.value())));
+
+        text.append('\n');
+        text.append(String.format(Locale.US, "%-22s %8s %8s %8s%n", "provider", "requests", "errors", "p95 ms"));
+        RateSource source = RatesApi.get(getFilesDir()).source();
+        List<ProviderStats> all = new ArrayList<>(source.stats(false));
+        all.addAll(source.stats(true));
+        for (ProviderStats provider : all) {
+            text.append(String.format(Locale.US, "%-22s %8d %7.0f%% %8d%n", provider.name(), provider.totalRequests(),
+                    provider.errorRate() * 100, provider.p95Millis()));
+        }
+        metricsText.setText(text);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : part * 100.0 / whole;
+    }
+
+    private void exportJson() {
+        StringWriter json = new StringWriter();
+        try {
+            Metrics.writeJson(json);
+        } catch (IOException e) {
+            // A StringWriter does not fail
+            throw new IllegalStateException(e);
+        }
+        Intent send = new Intent(Intent.ACTION_SEND);
+        send.setType("application/json");
+        send.putExtra(Intent.EXTRA_SUBJECT, "Currency converter metrics");
+        send.putExtra(Intent.EXTRA_TEXT, json.toString());
+        startActivity(Intent.createChooser(send, "Export metrics"));
+    }
+}
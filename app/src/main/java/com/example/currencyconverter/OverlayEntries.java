@@ -0,0 +1,50 @@
+package com.example.currencyconverter;
+
+import com.github.mikephil.charting.data.Entry;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A line derived from the history, such as a moving average, drawn at exactly the points
+ * the main series currently shows. Values are indexed like the history and read through
+ * the main {@link SampledEntries}, so resampling the series resamples the overlay with it.
+ * Entries are cached per index like {@link HistoryEntries}.
+ */
+public class OverlayEntries extends AbstractList<Entry> {
+
+    private final SampledEntries sampled;
+    private float[] values = new float[0];
+    private Entry[] entries = new Entry[0];
+
+    public OverlayEntries(SampledEntries sampled) {
+        this.sampled = sampled;
+    }
+
+    /** Buffer for {@code size} values, reused while the history is no longer than the last one. */
+    public float[] values(int size) {
+        if (values.length < size) {
+            values = new float[size];
+            entries = new Entry[size];
+        } else {
+            Arrays.fill(entries, null);
+        }
+        return values;
+    }
+
+    @Override
+    public Entry get(int position) {
+        int index = sampled.indexAt(position);
+        Entry entry = entries[index];
+        if (entry == null) {
+            entry = new Entry(index, values[index]);
+            entries[index] = entry;
+        }
+        return entry;
+    }
+
+    @Override
+    public int size() {
+        return sampled.size();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches, ahead of time, the chart ranges and pairs the user is likely to open next, so
+ * that switching to them reads the local store instead of waiting on the network.
+ * Predictions come from {@link SyncState}: the ranges picked most often, for the pair on
+ * screen and then for the other recently viewed pairs. Steps run most likely first; the
+ * run stops at the day's prefetch budget or as soon as its thread is interrupted, and
+ * whatever was fetched up to then stays in the store.
+ */
+public class Prefetcher {
+
+    /** Daily prefetch budget on unmetered networks. */
+    public static final long DAILY_BUDGET_BYTES = 4L * 1024 * 1024;
+    /** Daily prefetch budget on metered networks. */
+    public static final long METERED_DAILY_BUDGET_BYTES = 512L * 1024;
+
+    /** Range tried next for the pair on screen before any range has been picked. */
+    static final int DEFAULT_NEXT_DAYS = 30;
+    /** Other recent pairs warmed per run, besides the one on screen. */
+    static final int OTHER_PAIRS = 2;
+    static final int MAX_STEPS = 4;
+
+    private final RatesApi api;
+    private final SyncState state;
+    private final long dailyBudgetBytes;
+
+    public Prefetcher(RatesApi api, SyncState state, long dailyBudgetBytes) {
+        this.api = api;
+        this.state = state;
+        this.dailyBudgetBytes = dailyBudgetBytes;
+    }
+
+    /** One range of one pair to bring into the store: {@code days} back from today. */
+    public static final class Step {
+        public final String from;
+        public final String to;
+        public final int days;
+
+        Step(String from, String to, int days) {
+            this.from = from;
+            this.to = to;
+            this.days = days;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Step)) {
+                return false;
+            }
+            Step step = (Step) o;
+            return from.equals(step.from) && to.equals(step.to) && days == step.days;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * from.hashCode() + to.hashCode()) + days;
+        }
+
+        @Override
+        public String toString() {
+            return from + ":" + to + "/" + days;
+        }
+    }
+
+    /**
+     * Steps worth taking while {@code from}/{@code to} is shown over {@code shownDays}, most
+     * likely first. A range no longer than one already covered for the same pair is left
+     * out, since the longer one contains it.
+     */
+    public List<Step> plan(String from, String to, int shownDays) {
+        int[] ranges = state.likelyRanges();
+        List<Step> steps = new ArrayList<>();
+
+        // The pair on screen: the user's usual ranges that are not already loaded
+        int covered = shownDays;
+        int[] candidates = ranges.length > 0 ? ranges : new int[] {DEFAULT_NEXT_DAYS};
+        for (int days : candidates) {
+            if (days > covered && steps.size() < MAX_STEPS) {
+                steps.add(new Step(from, to, days));
+                covered = days;
+            }
+        }
+
+        // Pairs opened recently, at the range picked most often
+        int usualDays = ranges.length > 0 ? ranges[0] : shownDays;
+        String current = from + ":" + to;
+        int others = 0;
+        for (String pair : state.recentPairs()) {
+            if (others == OTHER_PAIRS || steps.size() == MAX_STEPS) {
+                break;
+            }
+            if (!pair.equals(current)) {
+                steps.add(new Step(pair.substring(0, 3), pair.substring(4), usualDays));
+                others++;
+            }
+        }
+        return steps;
+    }
+
+    /** What a run did. */
+    public static final class Result {
+        public int stepsDone;
+        public boolean budgetExhausted;
+        public boolean interrupted;
+    }
+
+    /**
+     * Takes {@code steps} in order. Network failures skip a step; only a failing local store
+     * throws. Bytes received by this run's own requests are charged to today's prefetch budget.
+     */
+    public Result run(List<Step> steps, int today, long now) throws IOException {
+        Result result = new Result();
+        AtomicLong received = new AtomicLong();
+        RatesApi charged = api.chargingTo(received);
+        long spentBefore = state.prefetchBytesSpent(today);
+        try {
+            for (Step step : steps) {
+                if (Thread.currentThread().isInterrupted()) {
+                    result.interrupted = true;
+                    break;
+                }
+                if (spentBefore + received.get() >= dailyBudgetBytes) {
+                    result.budgetExhausted = true;
+                    break;
+                }
+                // Same request the chart makes for this range, so the chart then finds it all stored
+                charged.prefetch(Arrays.asList(step.from, step.to), today - step.days, today, today, now);
+                result.stepsDone++;
+                Metrics.PREFETCH_STEPS.increment();
+            }
+        } finally {
+            state.addPrefetchBytesSpent(today, received.get());
+        }
+        return result;
+    }
+}
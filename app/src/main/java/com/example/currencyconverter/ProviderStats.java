@@ -0,0 +1,98 @@
+package com.example.currencyconverter;
+
+import java.util.Arrays;
+
+/**
+ * Recent latency and error rate of one {@link RateProvider}, from which {@link RateSource}
+ * ranks providers and times its hedges. Only the latest samples count, so a provider that
+ * slows down or recovers is noticed within a few requests. A provider failing most of its
+ * recent requests is unhealthy and tried last, until it has been left alone long enough to
+ * deserve another chance.
+ */
+public final class ProviderStats {
+
+    static final int LATENCY_SAMPLES = 64;
+    static final int OUTCOME_SAMPLES = 20;
+    /** Latencies needed before the p95 means anything. */
+    static final int MIN_LATENCY_SAMPLES = 5;
+    static final double MAX_HEALTHY_ERROR_RATE = 0.5;
+    /** Outcomes needed before a provider can be judged unhealthy; one blip is not a trend. */
+    static final int MIN_OUTCOME_SAMPLES = 3;
+    static final long RETRY_UNHEALTHY_MILLIS = 60_000;
+
+    private final String name;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int nextLatency;
+    private final boolean[] failed = new boolean[OUTCOME_SAMPLES];
+    private int outcomeCount;
+    private int nextOutcome;
+    private int recentFailures;
+    private long lastAttemptAt;
+    private long totalRequests;
+    private long totalFailures;
+    private final long[] sorted = new long[LATENCY_SAMPLES];
+
+    ProviderStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    synchronized void recordSuccess(long latencyMillis, long now) {
+        latencies[nextLatency] = latencyMillis;
+        nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        recordOutcome(false, now);
+    }
+
+    synchronized void recordFailure(long now) {
+        recordOutcome(true, now);
+        totalFailures++;
+    }
+
+    private void recordOutcome(boolean failure, long now) {
+        if (outcomeCount == OUTCOME_SAMPLES && failed[nextOutcome]) {
+            recentFailures--;
+        }
+        failed[nextOutcome] = failure;
+        if (failure) {
+            recentFailures++;
+        }
+        nextOutcome = (nextOutcome + 1) % OUTCOME_SAMPLES;
+        outcomeCount = Math.min(outcomeCount + 1, OUTCOME_SAMPLES);
+        lastAttemptAt = now;
+        totalRequests++;
+    }
+
+    /** 95th percentile of recent successful requests, or -1 with too few of them. */
+    public synchronized long p95Millis() {
+        if (latencyCount < MIN_LATENCY_SAMPLES) {
+            return -1;
+        }
+        System.arraycopy(latencies, 0, sorted, 0, latencyCount);
+        Arrays.sort(sorted, 0, latencyCount);
+        return sorted[(int) Math.ceil(latencyCount * 0.95) - 1];
+    }
+
+    /** Share of recent requests that failed; 0 before any. */
+    public synchronized double errorRate() {
+        return outcomeCount == 0 ? 0 : (double) recentFailures / outcomeCount;
+    }
+
+    /** Healthy, or unhealthy but untried for long enough to be probed again. */
+    public synchronized boolean isHealthy(long now) {
+        return outcomeCount < MIN_OUTCOME_SAMPLES || errorRate() <= MAX_HEALTHY_ERROR_RATE
+                || now - lastAttemptAt >= RETRY_UNHEALTHY_MILLIS;
+    }
+
+    public synchronized long totalRequests() {
+        return totalRequests;
+    }
+
+    public synchronized long totalFailures() {
+        return totalFailures;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.currencyconverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted, disjoint, inclusive ranges of epoch days. Adjacent and overlapping ranges are
+ * merged on insert, so the set stays as small as the number of real holes.
+ */
+public final class RangeSet {
+
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public int startAt(int index) {
+        return starts[index];
+    }
+
+    public int endAt(int index) {
+        return ends[index];
+    }
+
+    public void add(int start, int end) {
+        if (end < start) {
+            return;
+        }
+        // First range that could touch [start, end]: its end is at least start - 1
+        int first = 0;
+        while (first < size && ends[first] < start - 1) {
+            first++;
+        }
+        int last = first;
+        while (last < size && starts[last] <= end + 1) {
+            start = Math.min(start, starts[last]);
+            end = Math.max(end, ends[last]);
+            last++;
+        }
+        int removed = last - first;
+        if (removed == 0) {
+            ensureCapacity(size + 1);
+            System.arraycopy(starts, first, starts, first + 1, size - first);
+            System.arraycopy(ends, first, ends, first + 1, size - first);
+            size++;
+        } else if (removed > 1) {
+            System.arraycopy(starts, last, starts, first + 1, size - last);
+            System.arraycopy(ends, last, ends, first + 1, size - last);
+            size -= removed - 1;
+        }
+        starts[first] = start;
+        ends[first] = end;
+    }
+
+    public boolean contains(int start, int end) {
+        for (int i = 0; i < size; i++) {
+            if (starts[i] <= start && end <= ends[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Parts of {@code [start, end]} not covered by this set, as {start, end} pairs in order. */
+    public List<int[]> missing(int start, int end) {
+        List<int[]> gaps = new ArrayList<>();
+        int cursor = start;
+        for (int i = 0; i < size && cursor <= end; i++) {
+            if (ends[i] < cursor) {
+                continue;
+            }
+            if (starts[i] > end) {
+                break;
+            }
+            if (starts[i] > cursor) {
+                gaps.add(new int[]{cursor, starts[i] - 1});
+            }
+            cursor = ends[i] + 1;
+        }
+        if (cursor <= end) {
+            gaps.add(new int[]{cursor, end});
+        }
+        return gaps;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.currencyconverter;
+
+/**
+ * Summary statistics for any index range of a history in constant time. One pass builds
+ * prefix sums of the rates and their squares (mean and standard deviation), prefix sums of
+ * daily log returns and their squares (volatility), and sparse tables for range minimum and
+ * maximum. Zooming or panning the chart then costs a handful of array reads per update,
+ * however long the series is.
+ */
+public final class RangeStats {
+
+    /** Statistics of one range, filled in place so live updates allocate nothing. */
+    public static final class Window {
+        public int from;
+        public int to;
+        public float high;
+        public float low;
+        public double mean;
+        public double stdDev;
+        /** Percent change from the first to the last rate of the range. */
+        public double changePercent;
+        /** Standard deviation of day-to-day log returns, in percent. */
+        public double volatility;
+    }
+
+    private final RateHistory history;
+    private final int size;
+    private final double[] sum;
+    private final double[] sumSquares;
+    private final double[] returnSum;
+    private final double[] returnSumSquares;
+    // minTable[k][i] / maxTable[k][i]: extreme of [i, i + 2^k)
+    private final float[][] minTable;
+    private final float[][] maxTable;
+    private final byte[] log2;
+
+    public RangeStats(RateHistory history) {
+        this.history = history;
+        size = history.size();
+        sum = new double[size + 1];
+        sumSquares = new double[size + 1];
+        returnSum = new double[size + 1];
+        returnSumSquares = new double[size + 1];
+        for (int i = 0; i < size; i++) {
+            double rate = history.rateAt(i);
+            sum[i + 1] = sum[i] + rate;
+            sumSquares[i + 1] = sumSquares[i] + rate * rate;
+            // returnSum[i + 1] covers the returns into points 1..i
+            double logReturn = i == 0 ? 0 : Math.log(rate / history.rateAt(i - 1));
+            returnSum[i + 1] = returnSum[i] + logReturn;
+            returnSumSquares[i + 1] = returnSumSquares[i] + logReturn * logReturn;
+        }
+
+        log2 = new byte[size + 1];
+        for (int i = 2; i <= size; i++) {
+            log2[i] = (byte) (log2[i / 2] + 1);
+        }
+        int levels = size == 0 ? 0 : log2[size] + 1;
+        minTable = new float[levels][];
+        maxTable = new float[levels][];
+        if (levels > 0) {
+            minTable[0] = new float[size];
+            maxTable[0] = new float[size];
+            for (int i = 0; i < size; i++) {
+                minTable[0][i] = history.rateAt(i);
+                maxTable[0][i] = minTable[0][i];
+            }
+        }
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int count = size - (1 << k) + 1;
+            minTable[k] = new float[count];
+            maxTable[k] = new float[count];
+            for (int i = 0; i < count; i++) {
+                minTable[k][i] = Math.min(minTable[k - 1][i], minTable[k - 1][i + half]);
+                maxTable[k][i] = Math.max(maxTable[k - 1][i], maxTable[k - 1][i + half]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Lowest rate in {@code [from, to)}; the range must not be empty. */
+    public float min(int from, int to) {
+        int k = log2[to - from];
+        return Math.min(minTable[k][from], minTable[k][to - (1 << k)]);
+    }
+
+    /** Highest rate in {@code [from, to)}; the range must not be empty. */
+    public float max(int from, int to) {
+        int k = log2[to - from];
+        return Math.max(maxTable[k][from], maxTable[k][to - (1 << k)]);
+    }
+
+    public double mean(int from, int to) {
+        return (sum[to] - sum[from]) / (to - from);
+    }
+
+    /** Population standard deviation of the rates in {@code [from, to)}. */
+    public double stdDev(int from, int to) {
+        int count = to - from;
+        double mean = (sum[to] - sum[from]) / count;
+        double variance = (sumSquares[to] - sumSquares[from]) / count - mean * mean;
+        // Cancellation can leave a tiny negative for flat ranges
+        return variance > 0 ? Math.sqrt(variance) : 0;
+    }
+
+    /** Standard deviation of the daily log returns inside {@code [from, to)}, in percent. */
+    public double volatility(int from, int to) {
+        // Returns into points from + 1 .. to - 1
+        int count = to - from - 1;
+        if (count < 2) {
+            return 0;
+        }
+        double total = returnSum[to] - returnSum[from + 1];
+        double mean = total / count;
+        double variance = (returnSumSquares[to] - returnSumSquares[from + 1]) / count - mean * mean;
+        return variance > 0 ? Math.sqrt(variance) * 100 : 0;
+    }
+
+    /** Fills {@code out} for {@code [from, to)}, clamped to the series; false if that leaves nothing. */
+    public boolean compute(int from, int to, Window out) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        if (to <= from) {
+            return false;
+        }
+        out.from = from;
+        out.to = to;
+        out.high = max(from, to);
+        out.low = min(from, to);
+        out.mean = mean(from, to);
+        out.stdDev = stdDev(from, to);
+        double first = history.rateAt(from);
+        out.changePercent = (history.rateAt(to - 1) - first) / first * 100;
+        out.volatility = volatility(from, to);
+        return true;
+    }
+
+    /**
+     * Simple moving average over {@code window} points in one pass with a running sum. The
+     * first points average what is there so far, so the overlay starts with the series.
+     */
+    public static void sma(RateHistory history, int window, float[] out) {
+        double running = 0;
+        for (int i = 0; i < history.size(); i++) {
+            running += history.rateAt(i);
+            if (i >= window) {
+                running -= history.rateAt(i - window);
+            }
+            out[i] = (float) (running / Math.min(i + 1, window));
+        }
+    }
+
+    /** Exponential moving average with the usual {@code 2 / (period + 1)} smoothing, seeded with the first rate. */
+    public static void ema(RateHistory history, int period, float[] out) {
+        if (history.size() == 0) {
+            return;
+        }
+        double alpha = 2.0 / (period + 1);
+        double average = history.rateAt(0);
+        out[0] = (float) average;
+        for (int i = 1; i < history.size(); i++) {
+            average += alpha * (history.rateAt(i) - average);
+            out[i] = (float) average;
+        }
+    }
+}
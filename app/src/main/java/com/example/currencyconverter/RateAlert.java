@@ -0,0 +1,81 @@
+package com.example.currencyconverter;
+
+import java.math.BigDecimal;
+
+/**
+ * A condition on one pair's rate: crossing a threshold in either direction, or moving by at
+ * least a percentage from a reference at most a day old. The definition is immutable; the rate last seen and the
+ * reference a move is measured from are carried between evaluations and persisted with it,
+ * because each background run may be a new process.
+ */
+public final class RateAlert {
+
+    public enum Kind {
+        /** Fires when the rate passes {@link #threshold}, up or down. */
+        CROSSES,
+        /**
+         * Fires when the rate is {@link #threshold} percent away from a reference rate. The
+         * reference is the rate when the alert was first checked, reset to the current rate
+         * once it is a day old and whenever the alert fires. This is a window that restarts
+         * every 24 hours, not a sliding one, so a move that straddles a reset can go unreported.
+         */
+        MOVES_PERCENT
+    }
+
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    public final long id;
+    public final String from;
+    public final String to;
+    public final Kind kind;
+    public final double threshold;
+    final short fromCode;
+    final short toCode;
+
+    // Evaluation state
+    double lastRate = Double.NaN;
+    double referenceRate = Double.NaN;
+    long referenceAt;
+    int stamp;
+
+    public RateAlert(long id, String from, String to, Kind kind, double threshold) {
+        this.id = id;
+        this.from = from;
+        this.to = to;
+        this.kind = kind;
+        this.threshold = threshold;
+        this.fromCode = RateTable.pack(from);
+        this.toCode = RateTable.pack(to);
+    }
+
+    /** Checks {@code rate} at {@code now} against the condition and returns whether it fired. */
+    boolean check(double rate, long now) {
+        if (kind == Kind.CROSSES) {
+            double previous = lastRate;
+            lastRate = rate;
+            // The first rate ever seen only sets where the pair is
+            return !Double.isNaN(previous)
+                    && ((previous < threshold && rate >= threshold) || (previous > threshold && rate <= threshold));
+        }
+
+        lastRate = rate;
+        if (Double.isNaN(referenceRate) || now - referenceAt >= DAY_MILLIS) {
+            referenceRate = rate;
+            referenceAt = now;
+            return false;
+        }
+        if (Math.abs(rate / referenceRate - 1) * 100 < threshold) {
+            return false;
+        }
+        // Measure the next move from here so one move is reported once
+        referenceRate = rate;
+        referenceAt = now;
+        return true;
+    }
+
+    /** What the alert is for, e.g. {@code USD → INR crosses 87}. */
+    public String describe() {
+        String value = BigDecimal.valueOf(threshold).stripTrailingZeros().toPlainString();
+        return from + " → " + to + (kind == Kind.CROSSES ? " crosses " + value : " moves " + value + "% in a day");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.currencyconverter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Two-tier cache for the latest rates: an in-memory snapshot shared by the process,
+ * backed by a small binary file under the app's files directory so a cold start can
+ * convert immediately with the last known rates.
+ */
+public class RateCache {
+
+    private static final String FILE_NAME = "latest_rates.bin";
+    private static final int FILE_VERSION = 3;
+
+    // Used when the response carries neither time_next_update_unix nor Cache-Control
+    private static final long DEFAULT_TTL_MILLIS = 60 * 60 * 1000L;
+
+    private static RateCache instance;
+
+    private final File file;
+    private volatile Snapshot memory;
+
+    public static synchronized RateCache get(File filesDir) {
+        if (instance == null) {
+            instance = new RateCache(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    RateCache(File file) {
+        this.file = file;
+    }
+
+    /** Last known rates, whether fresh or not. Reads the disk tier on the first call. */
+    public Snapshot load() {
+        Snapshot snapshot = memory;
+        if (snapshot != null) {
+            Metrics.RATES_MEMORY_HITS.increment();
+            return snapshot;
+        }
+        snapshot = readFromDisk();
+        memory = snapshot;
+        (snapshot != null ? Metrics.RATES_DISK_HITS : Metrics.RATES_MISSES).increment();
+        return snapshot;
+    }
+
+    /** Returns the in-memory snapshot only; never touches the disk. */
+    public Snapshot peek() {
+        return memory;
+    }
+
+    public void put(Snapshot snapshot) {
+        memory = snapshot;
+        writeToDisk(snapshot);
+    }
+
+    private Snapshot readFromDisk() {
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            long fetchedAt = in.readLong();
+            long expiresAt = in.readLong();
+            String provider = in.readUTF();
+            RateTable.Builder builder = new RateTable.Builder("USD");
+            builder.base(RateTable.unpack(in.readShort()));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                builder.put(in.readShort(), in.readDouble());
+            }
+            return new Snapshot(builder.build(), fetchedAt, expiresAt, provider.isEmpty() ? null : provider);
+        } catch (IOException e) {
+            // A torn or corrupt snapshot is just a cache miss
+            return null;
+        }
+    }
+
+    private void writeToDisk(Snapshot snapshot) {
+        // Write to a temp file and rename so a crash never leaves a half-written snapshot
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            RateTable table = snapshot.table;
+            out.writeInt(FILE_VERSION);
+            out.writeLong(snapshot.fetchedAt);
+            out.writeLong(snapshot.expiresAt);
+            out.writeUTF(snapshot.provider != null ? snapshot.provider : "");
+            out.writeShort(RateTable.pack(table.base()));
+            out.writeInt(table.size());
+            for (int i = 0; i < table.size(); i++) {
+                out.writeShort(table.packedCodeAt(i));
+                out.writeDouble(table.rateAt(i));
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    /**
+     * Works out when a response stops being fresh. The API publishes the time of its next
+     * update; Cache-Control max-age is honoured too and the earlier of the two wins.
+     */
+    public static long computeExpiry(long now, long nextUpdateUnix, String cacheControl) {
+        long expiry = Long.MAX_VALUE;
+        if (nextUpdateUnix > 0) {
+            expiry = nextUpdateUnix * 1000L;
+        }
+        long maxAge = parseMaxAge(cacheControl);
+        if (maxAge >= 0) {
+            expiry = Math.min(expiry, now + maxAge * 1000L);
+        }
+        return expiry == Long.MAX_VALUE ? now + DEFAULT_TTL_MILLIS : expiry;
+    }
+
+    static long parseMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        String header = cacheControl.toLowerCase(Locale.ROOT);
+        if (header.contains("no-cache") || header.contains("no-store")) {
+            return 0;
+        }
+        int start = header.indexOf("max-age=");
+        if (start < 0) {
+            return -1;
+        }
+        start += "max-age=".length();
+        int end = start;
+        while (end < header.length() && Character.isDigit(header.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.substring(start, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** A rate table together with when it was fetched, when it goes stale and who sent it. */
+    public static class Snapshot {
+        public final RateTable table;
+        public final long fetchedAt;
+        public final long expiresAt;
+        /** {@link RateProvider#name()} of the provider the table came from; null if unknown. */
+        public final String provider;
+
+        public Snapshot(RateTable table, long fetchedAt, long expiresAt, String provider) {
+            this.table = table;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+            this.provider = provider;
+        }
+
+        public boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.currencyconverter;
+
+/**
+ * Read access to a daily rate history: epoch days in ascending order and the rate on each.
+ * Implemented by in-memory {@link RateSeries} and by {@link MappedSeries} over the
+ * memory-mapped history file.
+ */
+public interface RateHistory {
+
+    int size();
+
+    int dayAt(int index);
+
+    float rateAt(int index);
+}
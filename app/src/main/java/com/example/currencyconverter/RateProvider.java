@@ -0,0 +1,95 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One upstream source of rates. {@link RateSource} picks between providers by their
+ * observed speed and health, so every implementation answers the same questions in the
+ * same shape whatever its wire format.
+ */
+public interface RateProvider {
+
+    /** Short stable name, used for stats and logs. */
+    String name();
+
+    /**
+     * Latest rates. With {@code conditional} set the provider may answer
+     * {@link Latest#notModified} if nothing changed since its last full answer; only ask
+     * that of the provider the cached table came from. Bytes received over the network are
+     * added to {@code received} when it is not null.
+     */
+    Latest latest(boolean conditional, AtomicLong received) throws IOException;
+
+    /**
+     * Whether the latest table covers every currency the app offers. A provider with a
+     * partial table is only asked for latest rates once every complete one has failed, so a
+     * slow answer from a complete provider is never replaced by a smaller table.
+     */
+    boolean hasCompleteLatest();
+
+    /** Whether {@link #history} is supported at all; providers without it are never asked. */
+    boolean hasHistory();
+
+    /**
+     * Every currency's daily rates against {@link CrossRates#BASE} over {@code [startDay,
+     * endDay]}, keyed by code; empty when a {@code tailCheck} found nothing new. Bytes
+     * received are added to {@code received} as for {@link #latest}.
+     */
+    History history(int startDay, int endDay, boolean tailCheck, AtomicLong received) throws IOException;
+
+    /** A latest-rates answer: a table, or word that the previous one still stands. */
+    final class Latest {
+        /** {@link #name()} of the provider that answered. */
+        public final String provider;
+        /** Null when {@link #notModified}. */
+        public final RateTable table;
+        public final boolean notModified;
+        /** When the provider says it publishes next, in Unix seconds; 0 if it does not say. */
+        public final long nextUpdateUnix;
+        public final String cacheControl;
+
+        private final HttpClient.Response response;
+
+        Latest(String provider, RateTable table, boolean notModified, long nextUpdateUnix, String cacheControl,
+               HttpClient.Response response) {
+            this.provider = provider;
+            this.table = table;
+            this.notModified = notModified;
+            this.nextUpdateUnix = nextUpdateUnix;
+            this.cacheControl = cacheControl;
+            this.response = response;
+        }
+
+        /** Call once {@link #table} is cached; only then may a later 304 vouch for it. */
+        public void commit() {
+            if (response != null) {
+                response.commit();
+            }
+        }
+    }
+
+    /** A history answer, one series per currency. */
+    final class History {
+        public final Map<String, RateSeries> rates;
+        private final HttpClient.Response response;
+
+        History(Map<String, RateSeries> rates, HttpClient.Response response) {
+            this.rates = rates;
+            this.response = response;
+        }
+
+        static History unchanged() {
+            return new History(Collections.emptyMap(), null);
+        }
+
+        /** Call once {@link #rates} are in the store; only then may a later 304 vouch for them. */
+        public void commit() {
+            if (response != null) {
+                response.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.currencyconverter;
+
+import java.util.Arrays;
+
+/**
+ * A daily rate history held as two parallel primitive columns: epoch days in ascending
+ * order and the rate on each of those days.
+ */
+public final class RateSeries implements RateHistory {
+
+    private int[] days;
+    private float[] rates;
+    private int size;
+
+    public RateSeries() {
+        this(64);
+    }
+
+    public RateSeries(int capacity) {
+        days = new int[Math.max(capacity, 1)];
+        rates = new float[Math.max(capacity, 1)];
+    }
+
+    public RateSeries(int[] days, float[] rates, int size) {
+        this.days = days;
+        this.rates = rates;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int dayAt(int index) {
+        return days[index];
+    }
+
+    @Override
+    public float rateAt(int index) {
+        return rates[index];
+    }
+
+    /** Index of the first point on or after {@code epochDay}; {@link #size()} if there is none. */
+    public int lowerBound(int epochDay) {
+        int index = Arrays.binarySearch(days, 0, size, epochDay);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /** Copy of the points whose day falls in {@code [startDay, endDay]}. */
+    public RateSeries slice(int startDay, int endDay) {
+        int from = lowerBound(startDay);
+        int to = lowerBound(endDay + 1);
+        int count = Math.max(0, to - from);
+        RateSeries slice = new RateSeries(count);
+        System.arraycopy(days, from, slice.days, 0, count);
+        System.arraycopy(rates, from, slice.rates, 0, count);
+        slice.size = count;
+        return slice;
+    }
+
+    /** Appends a point, keeping days sorted; a repeated day overwrites the previous value. */
+    public void add(int epochDay, float rate) {
+        if (size > 0 && epochDay <= days[size - 1]) {
+            insert(epochDay, rate);
+            return;
+        }
+        ensureCapacity(size + 1);
+        days[size] = epochDay;
+        rates[size] = rate;
+        size++;
+    }
+
+    private void insert(int epochDay, float rate) {
+        int index = Arrays.binarySearch(days, 0, size, epochDay);
+        if (index >= 0) {
+            rates[index] = rate;
+            return;
+        }
+        index = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(days, index, days, index + 1, size - index);
+        System.arraycopy(rates, index, rates, index + 1, size - index);
+        days[index] = epochDay;
+        rates[index] = rate;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > days.length) {
+            int grown = Math.max(capacity, days.length * 2);
+            days = Arrays.copyOf(days, grown);
+            rates = Arrays.copyOf(rates, grown);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asks several {@link RateProvider}s for the same thing and returns the first good answer.
+ *
+ * Providers are ranked on every request: healthy ones first, fastest observed p95 first,
+ * declaration order between equals. The best is asked; if it has not answered within its
+ * own p95, the next is asked as well (a hedge) and whichever answers first wins. A failure
+ * moves straight on to the next provider without waiting. Every attempt, including the
+ * losing side of a hedge, feeds its provider's {@link ProviderStats}, kept apart for latest
+ * and history requests since a year of history takes far longer than one small table.
+ *
+ * For latest rates, providers with a partial table rank after every complete one and are
+ * never hedged to: they only answer once all complete providers have failed.
+ */
+public class RateSource {
+
+    /** Hedge delay, and assumed p95, for a provider without enough samples yet. */
+    static final long DEFAULT_HEDGE_MILLIS = 1000;
+    /** Floor on the hedge delay so a very fast provider does not double every request. */
+    static final long MIN_HEDGE_MILLIS = 50;
+
+    private static final int MAX_THREADS = 6;
+
+    private final RateProvider[] providers;
+    private final ProviderStats[] latestStats;
+    private final ProviderStats[] historyStats;
+    private final ThreadPoolExecutor executor;
+
+    public RateSource(List<RateProvider> providers) {
+        this.providers = providers.toArray(new RateProvider[0]);
+        this.latestStats = new ProviderStats[this.providers.length];
+        this.historyStats = new ProviderStats[this.providers.length];
+        for (int i = 0; i < this.providers.length; i++) {
+            latestStats[i] = new ProviderStats(this.providers[i].name() + "/latest");
+            historyStats[i] = new ProviderStats(this.providers[i].name() + "/history");
+        }
+        // Threads only exist while requests are in flight
+        this.executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new HedgeThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Every provider's stats for latest requests, or for history ones, in declaration order. */
+    public List<ProviderStats> stats(boolean history) {
+        return Collections.unmodifiableList(Arrays.asList(history ? historyStats : latestStats));
+    }
+
+    /**
+     * Latest rates from whichever provider answers first. Only the provider named
+     * {@code conditionalProvider}, if any, is asked conditionally: a 304 from any other would
+     * vouch for a table it never sent.
+     */
+    public RateProvider.Latest latest(String conditionalProvider) throws IOException {
+        return latest(conditionalProvider, null);
+    }
+
+    /**
+     * {@link #latest(String)}, adding the bytes every provider asked received, hedged losers
+     * included, to {@code received}.
+     */
+    public RateProvider.Latest latest(String conditionalProvider, AtomicLong received) throws IOException {
+        return request(false, provider -> provider.latest(provider.name().equals(conditionalProvider), received));
+    }
+
+    public RateProvider.History history(int startDay, int endDay, boolean tailCheck) throws IOException {
+        return history(startDay, endDay, tailCheck, null);
+    }
+
+    public RateProvider.History history(int startDay, int endDay, boolean tailCheck, AtomicLong received)
+            throws IOException {
+        return request(true, provider -> provider.history(startDay, endDay, tailCheck, received));
+    }
+
+    private interface Call<T> {
+        T run(RateProvider provider) throws IOException;
+    }
+
+    private <T> T request(boolean needsHistory, Call<T> call) throws IOException {
+        int[] order = rank(needsHistory, System.currentTimeMillis());
+        if (order.length == 0) {
+            throw new IOException("No rate provider for this request");
+        }
+        ProviderStats[] stats = needsHistory ? historyStats : latestStats;
+
+        ExecutorCompletionService<T> completed = new ExecutorCompletionService<>(executor);
+        List<Future<T>> started = new ArrayList<>(order.length);
+        IOException failure = null;
+        int next = 0;
+        int running = 0;
+        try {
+            started.add(completed.submit(attempt(stats, order[next++], call)));
+            running++;
+            while (running > 0) {
+                Future<T> finished;
+                if (next < order.length && (needsHistory || providers[order[next]].hasCompleteLatest())) {
+                    finished = completed.poll(hedgeDelay(stats[order[next - 1]]), TimeUnit.MILLISECONDS);
+                    if (finished == null) {
+                        // Slower than usual: race the next provider against it
+                        started.add(completed.submit(attempt(stats, order[next++], call)));
+                        running++;
+                        continue;
+                    }
+                } else {
+                    finished = completed.take();
+                }
+                running--;
+                try {
+                    return finished.get();
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                    if (next < order.length) {
+                        started.add(completed.submit(attempt(stats, order[next++], call)));
+                        running++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for rates");
+        } finally {
+            // Losers may still be blocked on their sockets; they finish and record stats on their own
+            for (Future<T> future : started) {
+                future.cancel(true);
+            }
+        }
+        throw failure;
+    }
+
+    private <T> Callable<T> attempt(ProviderStats[] stats, int provider, Call<T> call) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.run(providers[provider]);
+                stats[provider].recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        System.currentTimeMillis());
+                return result;
+            } catch (IOException | RuntimeException e) {
+                // A hedge cancelled by the winner is not the provider's fault
+                if (!Thread.currentThread().isInterrupted()) {
+                    stats[provider].recordFailure(System.currentTimeMillis());
+                }
+                throw e;
+            }
+        };
+    }
+
+    private static long hedgeDelay(ProviderStats stats) {
+        long p95 = stats.p95Millis();
+        return p95 < 0 ? DEFAULT_HEDGE_MILLIS : Math.max(MIN_HEDGE_MILLIS, p95);
+    }
+
+    // Indices of the providers able to answer, best first
+    int[] rank(boolean needsHistory, long now) {
+        List<Integer> candidates = new ArrayList<>(providers.length);
+        for (int i = 0; i < providers.length; i++) {
+            if (!needsHistory || providers[i].hasHistory()) {
+                candidates.add(i);
+            }
+        }
+        ProviderStats[] stats = needsHistory ? historyStats : latestStats;
+        boolean[] complete = new boolean[providers.length];
+        boolean[] healthy = new boolean[providers.length];
+        long[] speed = new long[providers.length];
+        for (int i : candidates) {
+            complete[i] = needsHistory || providers[i].hasCompleteLatest();
+            healthy[i] = stats[i].isHealthy(now);
+            long p95 = stats[i].p95Millis();
+            speed[i] = p95 < 0 ? DEFAULT_HEDGE_MILLIS : p95;
+        }
+        // Stable, so equals keep declaration order
+        candidates.sort((a, b) -> {
+            if (complete[a] != complete[b]) {
+                return complete[a] ? -1 : 1;
+            }
+            if (healthy[a] != healthy[b]) {
+                return healthy[a] ? -1 : 1;
+            }
+            return Long.compare(speed[a], speed[b]);
+        });
+        int[] order = new int[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = candidates.get(i);
+        }
+        return order;
+    }
+
+    private static final class HedgeThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "rates-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One background sync pass: refresh the latest rates if they are stale, then bring the
+ * history of the most recently viewed pairs up to date, all within the day's data budget.
+ * Everything lands in the same local stores the activities read first, so the app opens
+ * with current data even when the network is gone by then. Pure Java so it can be run
+ * against a local server in tests; {@link RateSyncWorker} runs it on a schedule.
+ */
+public class RateSync {
+
+    private final RatesApi api;
+    private final SyncState state;
+    private final SyncPolicy policy;
+
+    public RateSync(RatesApi api, SyncState state, SyncPolicy policy) {
+        this.api = api;
+        this.state = state;
+        this.policy = policy;
+    }
+
+    /** What a pass did; {@link #failed} asks the scheduler to retry with backoff. */
+    public static final class Result {
+        public boolean latestRefreshed;
+        public int pairsSynced;
+        public boolean budgetExhausted;
+        public boolean failed;
+    }
+
+    public Result run(int today, long now) {
+        Result result = new Result();
+        // Only this pass's requests count; the screens may be fetching through the same client
+        AtomicLong received = new AtomicLong();
+        RatesApi api = this.api.chargingTo(received);
+        long spentBefore = state.bytesSpent(today);
+        if (overBudget(spentBefore)) {
+            result.budgetExhausted = true;
+            return result;
+        }
+
+        try {
+            RateCache.Snapshot cached = api.rateCache().load();
+            if (cached == null || !cached.isFresh(now)) {
+                api.refreshLatest();
+                result.latestRefreshed = true;
+            }
+
+            // Several pairs per wake-up; the radio is already on, so batching them is cheap
+            List<String> pairs = state.recentPairs();
+            for (int i = 0; i < pairs.size() && i < policy.pairsPerRun; i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                if (overBudget(spentBefore + received.get())) {
+                    result.budgetExhausted = true;
+                    break;
+                }
+                String pair = pairs.get(i);
+                api.history(pair.substring(0, 3), pair.substring(4), today - policy.historyDays, today, today, now);
+                result.pairsSynced++;
+            }
+        } catch (IOException e) {
+            result.failed = true;
+        } finally {
+            state.addBytesSpent(today, received.get());
+        }
+
+        if (!result.failed) {
+            state.setLastSyncAt(now);
+        }
+        return result;
+    }
+
+    private boolean overBudget(long spent) {
+        return policy.dailyBudgetBytes > 0 && spent >= policy.dailyBudgetBytes;
+    }
+}
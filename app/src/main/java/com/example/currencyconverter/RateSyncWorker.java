@@ -0,0 +1,38 @@
+package com.example.currencyconverter;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+/** Runs one {@link RateSync} pass and then the rate alerts for WorkManager, on its background thread. */
+public class RateSyncWorker extends Worker {
+
+    public RateSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        RateSync sync = new RateSync(RatesApi.get(context.getFilesDir()), SyncState.get(context.getFilesDir()),
+                SyncScheduler.readPolicy(context));
+        long now = System.currentTimeMillis();
+        RateSync.Result result = sync.run(EpochDays.today(), now);
+
+        // Alerts are checked against whatever table is cached now, whoever refreshed it
+        RateCache.Snapshot latest = RatesApi.get(context.getFilesDir()).rateCache().load();
+        if (latest != null) {
+            AlertNotifier.notify(context, AlertStore.get(context.getFilesDir()).evaluate(latest.table, now));
+        }
+
+        if (result.failed) {
+            Log.w("Sync", "Rate sync failed, will retry");
+            return Result.retry();
+        }
+        return Result.success();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.currencyconverter;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of exchange rates against a single base currency.
+ *
+ * Currency codes are packed into a short (5 bits per letter) and kept sorted, so a code
+ * resolves to a small index once and every conversion after that is plain array access.
+ * Pure Java on purpose: it is unit tested and benchmarked on the JVM.
+ */
+public final class RateTable {
+
+    public static final int NOT_FOUND = -1;
+
+    private final short base;
+    private final short[] codes;
+    private final double[] rates;
+
+    private RateTable(short base, short[] codes, double[] rates) {
+        this.base = base;
+        this.codes = codes;
+        this.rates = rates;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String base() {
+        return unpack(base);
+    }
+
+    /** Index of the given ISO 4217 code, or {@link #NOT_FOUND}. */
+    public int indexOf(CharSequence code) {
+        short packed = pack(code);
+        return packed < 0 ? NOT_FOUND : indexOf(packed);
+    }
+
+    public int indexOf(short packedCode) {
+        int index = Arrays.binarySearch(codes, packedCode);
+        return index >= 0 ? index : NOT_FOUND;
+    }
+
+    public String codeAt(int index) {
+        return unpack(codes[index]);
+    }
+
+    public short packedCodeAt(int index) {
+        return codes[index];
+    }
+
+    /** Units of the currency at {@code index} per one unit of the base currency. */
+    public double rateAt(int index) {
+        return rates[index];
+    }
+
+    public double convert(int fromIndex, int toIndex, double amount) {
+        return (amount / rates[fromIndex]) * rates[toIndex];
+    }
+
+    /** {@code amount} in every currency, written to {@code out} in index order. */
+    public void convertToAll(int fromIndex, double amount, double[] out) {
+        // Same operation order as convert() so both give bit-identical results
+        double inBase = amount / rates[fromIndex];
+        for (int i = 0; i < rates.length; i++) {
+            out[i] = inBase * rates[i];
+        }
+    }
+
+    /** Converts {@code length} amounts starting at {@code offset} from one currency to another. */
+    public void convertAll(int fromIndex, int toIndex, double[] amounts, double[] out, int offset, int length) {
+        double fromRate = rates[fromIndex];
+        double toRate = rates[toIndex];
+        for (int i = offset, end = offset + length; i < end; i++) {
+            out[i] = (amounts[i] / fromRate) * toRate;
+        }
+    }
+
+    /** All codes in index order, which is also alphabetical order. */
+    public String[] codes() {
+        String[] out = new String[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            out[i] = unpack(codes[i]);
+        }
+        return out;
+    }
+
+    /** Packs a three-letter upper-case code into 15 bits, or returns -1 if it is not one. */
+    public static short pack(CharSequence code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            packed = (packed << 5) | letter;
+        }
+        return (short) packed;
+    }
+
+    public static short pack(char[] chars, int offset, int length) {
+        if (length != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = chars[offset + i] - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            packed = (packed << 5) | letter;
+        }
+        return (short) packed;
+    }
+
+    /** Writes the three letters of a packed code into {@code out} at {@code offset}. */
+    public static void unpack(short packed, char[] out, int offset) {
+        out[offset] = (char) ('A' + ((packed >> 10) & 31));
+        out[offset + 1] = (char) ('A' + ((packed >> 5) & 31));
+        out[offset + 2] = (char) ('A' + (packed & 31));
+    }
+
+    public static String unpack(short packed) {
+        char[] chars = new char[3];
+        unpack(packed, chars, 0);
+        return new String(chars);
+    }
+
+    public static class Builder {
+        private short base;
+        private short[] codes = new short[192];
+        private double[] rates = new double[192];
+        private int size;
+
+        public Builder(String base) {
+            this.base = pack(base);
+            if (this.base < 0) {
+                throw new IllegalArgumentException("Invalid base currency: " + base);
+            }
+        }
+
+        /** Replaces the base given to the constructor, for responses that name it after the rates. */
+        public Builder base(CharSequence code) {
+            short packed = pack(code);
+            if (packed >= 0) {
+                base = packed;
+            }
+            return this;
+        }
+
+        /** Adds a rate; codes that are not three upper-case letters or non-positive rates are skipped. */
+        public Builder put(CharSequence code, double rate) {
+            short packed = pack(code);
+            if (packed >= 0) {
+                put(packed, rate);
+            }
+            return this;
+        }
+
+        public Builder put(short packedCode, double rate) {
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                return this;
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            codes[size] = packedCode;
+            rates[size] = rate;
+            size++;
+            return this;
+        }
+
+        public RateTable build() {
+            // Insertion sort keeps the code and rate columns together; n is ~160 and usually near sorted
+            short[] sortedCodes = Arrays.copyOf(codes, size);
+            double[] sortedRates = Arrays.copyOf(rates, size);
+            for (int i = 1; i < size; i++) {
+                short code = sortedCodes[i];
+                double rate = sortedRates[i];
+                int j = i - 1;
+                while (j >= 0 && sortedCodes[j] > code) {
+                    sortedCodes[j + 1] = sortedCodes[j];
+                    sortedRates[j + 1] = sortedRates[j];
+                    j--;
+                }
+                sortedCodes[j + 1] = code;
+                sortedRates[j + 1] = rate;
+            }
+
+            // Drop duplicate codes, keeping the last value put
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique > 0 && sortedCodes[unique - 1] == sortedCodes[i]) {
+                    sortedRates[unique - 1] = sortedRates[i];
+                } else {
+                    sortedCodes[unique] = sortedCodes[i];
+                    sortedRates[unique] = sortedRates[i];
+                    unique++;
+                }
+            }
+            return new RateTable(base, Arrays.copyOf(sortedCodes, unique), Arrays.copyOf(sortedRates, unique));
+        }
+    }
+}
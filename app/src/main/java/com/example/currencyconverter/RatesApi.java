@@ -0,0 +1,125 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where rates come from and what to do with them: latest rates go into {@link RateCache},
+ * history ranges are handed to {@link CrossRates} for the store. Requests go through a
+ * {@link RateSource}, which picks and hedges between providers. Shared by the activities
+ * and the background sync so each request is made one way only; callers with a data budget
+ * take a {@link #chargingTo} view to count their own bytes.
+ */
+public class RatesApi implements CrossRates.Fetcher {
+
+    private static RatesApi instance;
+
+    private final HttpClient http;
+    private final RateCache rateCache;
+    private final HistoryStore historyStore;
+    private final RateSource source;
+    // Null for the shared instance; set on chargingTo views
+    private final AtomicLong received;
+
+    public static synchronized RatesApi get(File filesDir) {
+        if (instance == null) {
+            HttpClient http = HttpClient.get(filesDir);
+            // er-api has the most currencies, frankfurter the history, local files are the last resort
+            RateSource source = new RateSource(Arrays.asList(
+                    new ErApiProvider(http, ErApiProvider.LATEST_URL),
+                    new FrankfurterProvider(http, FrankfurterProvider.BASE_URL),
+                    LocalFileProvider.in(filesDir)));
+            instance = new RatesApi(http, RateCache.get(filesDir), HistoryStore.get(filesDir), source);
+        }
+        return instance;
+    }
+
+    RatesApi(HttpClient http, RateCache rateCache, HistoryStore historyStore, String latestUrl, String historyUrl) {
+        this(http, rateCache, historyStore, new RateSource(Arrays.asList(
+                new ErApiProvider(http, latestUrl), new FrankfurterProvider(http, historyUrl))));
+    }
+
+    RatesApi(HttpClient http, RateCache rateCache, HistoryStore historyStore, RateSource source) {
+        this(http, rateCache, historyStore, source, null);
+    }
+
+    private RatesApi(HttpClient http, RateCache rateCache, HistoryStore historyStore, RateSource source,
+                     AtomicLong received) {
+        this.http = http;
+        this.rateCache = rateCache;
+        this.historyStore = historyStore;
+        this.source = source;
+        this.received = received;
+    }
+
+    /**
+     * The same stores and providers, with the bytes of every request made through the
+     * returned instance added to {@code received}. {@link HttpClient#bytesReceived} counts
+     * every caller at once, so a background job charging its budget from it would also pay
+     * for whatever the screens fetched meanwhile.
+     */
+    public RatesApi chargingTo(AtomicLong received) {
+        return new RatesApi(http, rateCache, historyStore, source, received);
+    }
+
+    public HttpClient http() {
+        return http;
+    }
+
+    public RateCache rateCache() {
+        return rateCache;
+    }
+
+    public RateSource source() {
+        return source;
+    }
+
+    /**
+     * Fetches the latest rates from the best provider answering and caches them. The provider
+     * the cached table came from is asked conditionally; any other sends a full table.
+     */
+    public RateCache.Snapshot refreshLatest() throws IOException {
+        RateCache.Snapshot cached = rateCache.load();
+        RateProvider.Latest latest = source.latest(cached != null ? cached.provider : null, received);
+        long now = System.currentTimeMillis();
+
+        // Unchanged upstream: keep the cached table and push its expiry out
+        RateTable table = latest.notModified ? cached.table : latest.table;
+        long expiresAt = RateCache.computeExpiry(now, latest.nextUpdateUnix, latest.cacheControl);
+        RateCache.Snapshot snapshot = new RateCache.Snapshot(table, now, expiresAt, latest.provider);
+        rateCache.put(snapshot);
+        latest.commit();
+        return snapshot;
+    }
+
+    /** Local-first history of a pair; only days the store has never seen go to the network. */
+    public RateHistory history(String from, String to, int start, int end, int today, long now) throws IOException {
+        return new CrossRates(historyStore, this).history(from, to, start, end, today, now);
+    }
+
+    /** {@link #history} with whether it is complete and how old it is, for screens that show that. */
+    public CrossRates.Loaded load(String from, String to, int start, int end, int today, long now) throws IOException {
+        return new CrossRates(historyStore, this).load(from, to, start, end, today, now);
+    }
+
+    /**
+     * Brings the history of all {@code codes} up to date in as few requests as the gaps allow;
+     * false if some of it could not be fetched.
+     */
+    public boolean prefetch(Collection<String> codes, int start, int end, int today, long now) throws IOException {
+        return new CrossRates(historyStore, this).prefetch(codes, start, end, today, now);
+    }
+
+    /** History of a pair from the store alone. */
+    public RateHistory stored(String from, String to, int start, int end) throws IOException {
+        return new CrossRates(historyStore, this).stored(from, to, start, end);
+    }
+
+    @Override
+    public RateProvider.History fetchAll(int startDay, int endDay, boolean tailCheck) throws IOException {
+        return source.history(startDay, endDay, tailCheck, received);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams the open.er-api latest-rates and frankfurter history responses straight into
+ * {@link RateTable} and {@link RateSeries} without building a JSON tree or holding the body.
+ */
+public final class RatesParser {
+
+    private RatesParser() {
+    }
+
+    /**
+     * Parses {@code {"base_code":"USD","time_next_update_unix":...,"rates":{"AED":3.67,...}}},
+     * or frankfurter's {@code {"base":"EUR","rates":{...}}}, which does not list the base.
+     */
+    public static LatestRates parseLatest(InputStream in) throws IOException {
+        JsonPullParser parser = new JsonPullParser(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RateTable.Builder builder = new RateTable.Builder("USD");
+        long nextUpdateUnix = 0;
+        boolean sawRates = false;
+
+        expect(parser, JsonPullParser.BEGIN_OBJECT);
+        int token;
+        while ((token = parser.next()) == JsonPullParser.NAME) {
+            if (parser.textEquals("rates")) {
+                expect(parser, JsonPullParser.BEGIN_OBJECT);
+                while (parser.next() == JsonPullParser.NAME) {
+                    short code = RateTable.pack(parser.textChars(), 0, parser.textLength());
+                    expect(parser, JsonPullParser.NUMBER);
+                    if (code >= 0) {
+                        builder.put(code, parser.numberValue());
+                    }
+                }
+                sawRates = true;
+            } else if (parser.textEquals("base_code") || parser.textEquals("base")) {
+                expect(parser, JsonPullParser.STRING);
+                String base = parser.textString();
+                builder.base(base);
+                // frankfurter leaves the base out of its rates; a listed value still wins
+                if (!sawRates) {
+                    builder.put(base, 1);
+                }
+            } else if (parser.textEquals("time_next_update_unix")) {
+                expect(parser, JsonPullParser.NUMBER);
+                nextUpdateUnix = (long) parser.numberValue();
+            } else if (parser.textEquals("result")) {
+                expect(parser, JsonPullParser.STRING);
+                if (parser.textEquals("error")) {
+                    throw new IOException("API returned an error result");
+                }
+            } else {
+                parser.skipValue();
+            }
+        }
+        if (token != JsonPullParser.END_OBJECT || !sawRates) {
+            throw new IOException("Invalid API response");
+        }
+        return new LatestRates(builder.build(), nextUpdateUnix);
+    }
+
+    /**
+     * Parses {@code {"rates":{"2024-01-02":{"INR":91.2},...}}} and keeps only {@code symbol},
+     * one point per date.
+     */
+    public static RateSeries parseHistory(InputStream in, String symbol) throws IOException {
+        JsonPullParser parser = new JsonPullParser(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RateSeries series = new RateSeries(2048);
+
+        expect(parser, JsonPullParser.BEGIN_OBJECT);
+        while (parser.next() == JsonPullParser.NAME) {
+            if (!parser.textEquals("rates")) {
+                parser.skipValue();
+                continue;
+            }
+            expect(parser, JsonPullParser.BEGIN_OBJECT);
+            while (parser.next() == JsonPullParser.NAME) {
+                int day = EpochDays.parse(parser.textChars(), 0, parser.textLength());
+                expect(parser, JsonPullParser.BEGIN_OBJECT);
+                while (parser.next() == JsonPullParser.NAME) {
+                    boolean wanted = parser.textEquals(symbol);
+                    expect(parser, JsonPullParser.NUMBER);
+                    if (wanted && day != EpochDays.INVALID) {
+                        series.add(day, (float) parser.numberValue());
+                    }
+                }
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Parses a multi-symbol range such as frankfurter's EUR-base {@code /start..end}, one
+     * series per currency keyed by code. Names are matched as packed codes so no String is
+     * made per point.
+     */
+    public static Map<String, RateSeries> parseHistoryAll(InputStream in) throws IOException {
+        JsonPullParser parser = new JsonPullParser(new InputStreamReader(in, StandardCharsets.UTF_8));
+        short[] codes = new short[64];
+        RateSeries[] columns = new RateSeries[64];
+        int count = 0;
+
+        expect(parser, JsonPullParser.BEGIN_OBJECT);
+        while (parser.next() == JsonPullParser.NAME) {
+            if (!parser.textEquals("rates")) {
+                parser.skipValue();
+                continue;
+            }
+            expect(parser, JsonPullParser.BEGIN_OBJECT);
+            while (parser.next() == JsonPullParser.NAME) {
+                int day = EpochDays.parse(parser.textChars(), 0, parser.textLength());
+                expect(parser, JsonPullParser.BEGIN_OBJECT);
+                // Symbols come in the same order every day, so the next column is the usual hit
+                int hint = 0;
+                while (parser.next() == JsonPullParser.NAME) {
+                    short code = RateTable.pack(parser.textChars(), 0, parser.textLength());
+                    expect(parser, JsonPullParser.NUMBER);
+                    if (code < 0 || day == EpochDays.INVALID) {
+                        continue;
+                    }
+                    int column = hint < count && codes[hint] == code ? hint : indexOf(codes, count, code);
+                    if (column < 0) {
+                        if (count == codes.length) {
+                            codes = Arrays.copyOf(codes, count * 2);
+                            columns = Arrays.copyOf(columns, count * 2);
+                        }
+                        column = count++;
+                        codes[column] = code;
+                        columns[column] = new RateSeries(2048);
+                    }
+                    columns[column].add(day, (float) parser.numberValue());
+                    hint = column + 1;
+                }
+            }
+        }
+
+        Map<String, RateSeries> series = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            series.put(RateTable.unpack(codes[i]), columns[i]);
+        }
+        return series;
+    }
+
+    private static int indexOf(short[] codes, int count, short code) {
+        for (int i = 0; i < count; i++) {
+            if (codes[i] == code) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void expect(JsonPullParser parser, int expected) throws IOException {
+        int token = parser.next();
+        if (token != expected) {
+            throw new IOException("Unexpected token " + token + ", expected " + expected);
+        }
+    }
+
+    public static final class LatestRates {
+        public final RateTable table;
+        public final long nextUpdateUnix;
+
+        LatestRates(RateTable table, long nextUpdateUnix) {
+            this.table = table;
+            this.nextUpdateUnix = nextUpdateUnix;
+        }
+    }
+}
@@ -142,47 +142,51 @@
 
 package com.example.currencyconverter;
 
-import android.graphics.Color;
-import android.os.AsyncTask;
+import android.Manifest;
+import android.content.pm.PackageManager;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.PowerManager;
+import android.os.Process;
+import android.text.InputType;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.ViewStub;
 import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.CompoundButton;
+import android.widget.EditText;
 import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 
 import com.github.mikephil.charting.charts.LineChart;
-import com.github.mikephil.charting.components.Description;
-import com.github.mikephil.charting.components.Legend;
-import com.github.mikephil.charting.components.XAxis;
-import com.github.mikephil.charting.data.Entry;
-import com.github.mikephil.charting.data.LineData;
-import com.github.mikephil.charting.data.LineDataSet;
-import com.github.mikephil.charting.formatter.ValueFormatter;
-
-
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Locale;
 
 public class ResultActivity extends AppCompatActivity {
 
-    private LineChart lineChart;
+    private static final int MIN_PREFETCH_BATTERY_PERCENT = 20;
+
+    private ViewStub chartStub;
+    private ChartController chart;
     private RadioGroup timeFilterGroup;
+    private CheckBox smaCheck;
+    private CheckBox emaCheck;
+    private TextView ageText;
     private String fromCurrency;
     private String toCurrency;
+    private TaskRunner.Slot historySlot;
+    private TaskRunner.Slot prefetchSlot;
+    private FrameMonitor frameMonitor;
+    private int shownDays;
+    // When the user last picked a range, until its series is on screen; 0 when none is pending
+    private long rangePickedNanos;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -191,8 +195,11 @@ public class ResultActivity extends AppCompatActivity {
 
         TextView resultText = findViewById(R.id.result_text);
         Button backButton = findViewById(R.id.back_button);
-        lineChart = findViewById(R.id.line_chart);
+        chartStub = findViewById(R.id.line_chart_stub);
         timeFilterGroup = findViewById(R.id.time_filter_group);
+        smaCheck = findViewById(R.id.sma_check);
+        emaCheck = findViewById(R.id.ema_check);
+        ageText = findViewById(R.id.age_text);
 
         // Get values passed from MainActivity
         String convertedAmount = getIntent().getStringExtra("converted_amount");
@@ -201,8 +208,14 @@ public class ResultActivity extends AppCompatActivity {
 
         resultText.setText(convertedAmount);
 
+        historySlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+        prefetchSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+        frameMonitor = new FrameMonitor(this);
+
+        StartupTrace.begin(StartupTrace.FIRST_CHART_FRAME);
+
         // Fetch default data (7 days)
-        new FetchHistoricalRates().execute(fromCurrency, toCurrency, "7");
+        loadHistory(7, false);
 
         // Radio button listener
         // Radio button listener
@@ -221,140 +234,211 @@ public class ResultActivity extends AppCompatActivity {
                 days = 1825;
             }
 
-            new FetchHistoricalRates().execute(fromCurrency, toCurrency, String.valueOf(days));
+            rangePickedNanos = System.nanoTime();
+            loadHistory(days, true);
         });
 
 
+        CompoundButton.OnCheckedChangeListener overlayListener = (button, checked) -> {
+            if (chart != null) {
+                chart.setOverlays(smaCheck.isChecked(), emaCheck.isChecked());
+            }
+        };
+        smaCheck.setOnCheckedChangeListener(overlayListener);
+        emaCheck.setOnCheckedChangeListener(overlayListener);
+
+        findViewById(R.id.alert_button).setOnClickListener(v -> {
+            prefetchSlot.cancel();
+            showAlertDialog();
+        });
+
         // Back button
         backButton.setOnClickListener(v -> finish());
     }
 
-    // AsyncTask to fetch historical rates
-    private class FetchHistoricalRates extends AsyncTask<String, Void, List<Entry>> {
-        private List<String> xAxisLabels = new ArrayList<>();
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameMonitor.start();
+    }
 
-        @Override
-        protected List<Entry> doInBackground(String... params) {
-            List<Entry> entries = new ArrayList<>();
-            try {
-                String from = params[0];
-                String to = params[1];
-                int days = Integer.parseInt(params[2]);
-
-                // Prepare start and end dates
-                Calendar cal = Calendar.getInstance();
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-                String endDate = sdf.format(cal.getTime());
-                cal.add(Calendar.DAY_OF_MONTH, -days);
-                String startDate = sdf.format(cal.getTime());
-
-                // API call
-                String apiUrl = "https://api.frankfurter.app/" + startDate + ".." + endDate
-                        + "?from=" + from + "&to=" + to;
-
-                URL url = new URL(apiUrl);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-
-                BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                StringBuilder response = new StringBuilder();
-                String line;
-
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
-
-                // Parse JSON
-                JSONObject jsonResponse = new JSONObject(response.toString());
-                JSONObject rates = jsonResponse.getJSONObject("rates");
-
-                List<String> dateKeys = new ArrayList<>();
-                Iterator<String> keys = rates.keys();
-                while (keys.hasNext()) {
-                    dateKeys.add(keys.next());
-                }
-                Collections.sort(dateKeys);
-
-                int index = 0;
-                for (String date : dateKeys) {
-                    double value = rates.getJSONObject(date).getDouble(to);
-                    entries.add(new Entry(index++, (float) value));
-                    xAxisLabels.add(date);
-                }
-
-            } catch (Exception e) {
-                Log.e("API Error", "Failed to fetch historical data", e);
-            }
-            return entries;
+    @Override
+    protected void onPause() {
+        frameMonitor.stop();
+        prefetchSlot.cancel();
+        super.onPause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        historySlot.cancel();
+        prefetchSlot.cancel();
+        super.onDestroy();
+    }
+
+    // Checked by the background sync against each refreshed rate table
+    private void showAlertDialog() {
+        EditText value = new EditText(this);
+        value.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
+        value.setHint("Rate, or percent for a move");
+        new AlertDialog.Builder(this)
+                .setTitle("Alert for " + fromCurrency + " → " + toCurrency)
+                .setView(value)
+                .setPositiveButton("Crosses rate", (dialog, which) -> addAlert(RateAlert.Kind.CROSSES, value))
+                .setNeutralButton("Moves % in a day", (dialog, which) -> addAlert(RateAlert.Kind.MOVES_PERCENT, value))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void addAlert(RateAlert.Kind kind, EditText value) {
+        double threshold;
+        try {
+            threshold = Double.parseDouble(value.getText().toString());
+        } catch (NumberFormatException e) {
+            Toast.makeText(this, "Invalid value entered", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (!(threshold > 0)) {
+            Toast.makeText(this, "Invalid value entered", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        RateAlert alert = AlertStore.get(getFilesDir()).add(fromCurrency, toCurrency, kind, threshold);
+        Toast.makeText(this, "Alert set: " + alert.describe(), Toast.LENGTH_SHORT).show();
+        if (Build.VERSION.SDK_INT >= 33 && ContextCompat.checkSelfPermission(this,
+                Manifest.permission.POST_NOTIFICATIONS) != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this, new String[] {Manifest.permission.POST_NOTIFICATIONS}, 0);
         }
+    }
 
-        @Override
-        protected void onPostExecute(List<Entry> entries) {
-            if (entries.isEmpty()) {
-                Toast.makeText(ResultActivity.this, "No data available", Toast.LENGTH_SHORT).show();
-                return;
-            }
+    // Only the latest range asked for is delivered; an identical request already running is joined
+    private void loadHistory(int days, boolean picked) {
+        String from = fromCurrency;
+        String to = toCurrency;
+        // The user is doing something else; the network is theirs again
+        prefetchSlot.cancel();
+        historySlot.submit("history:" + from + ":" + to + ":" + days, () -> readHistory(from, to, days, picked),
+                new TaskRunner.Callback<CrossRates.Loaded>() {
+                    @Override
+                    public void onResult(CrossRates.Loaded loaded) {
+                        shownDays = days;
+                        showAge(loaded);
+                        showHistory(loaded.history);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.e("API Error", "Failed to load historical data", error);
+                        showAge(new CrossRates.Loaded(new RateSeries(0), false, 0));
+                        showHistory(new RateSeries(0));
+                    }
+                });
+    }
+
+    // Historical rates, runs on a TaskRunner worker thread
+    private CrossRates.Loaded readHistory(String from, String to, int days, boolean picked) {
+        // Prepare start and end dates
+        int end = EpochDays.today();
+        int start = end - days;
+
+        // Pairs looked at here are the ones the background sync keeps warm
+        SyncState state = SyncState.get(getFilesDir());
+        state.recordView(from, to);
+        if (picked) {
+            // Ranges picked by hand, not the default, steer what gets prefetched
+            state.recordRange(days);
+        }
+        try {
+            // Both legs come from the shared EUR-base store; only days it has never seen are fetched
+            return RatesApi.get(getFilesDir()).load(from, to, start, end, end, System.currentTimeMillis());
+        } catch (Exception e) {
+            Log.e("Store Error", "Failed to read historical data", e);
+            return new CrossRates.Loaded(new RateSeries(0), false, 0);
+        }
+    }
+
+    // Stored history beats none; say how old it is and catch up once back online
+    private void showAge(CrossRates.Loaded loaded) {
+        String age = loaded.updatedAt > 0
+                ? "updated " + DataAge.describe(System.currentTimeMillis(), loaded.updatedAt) : null;
+        if (loaded.complete) {
+            ageText.setText(age != null ? "History " + age : null);
+            return;
+        }
+        ageText.setText(age != null ? "Offline · history " + age : "Offline");
+        SyncScheduler.syncWhenOnline(this);
+    }
+
+    private void showHistory(RateHistory history) {
+        long picked = rangePickedNanos;
+        rangePickedNanos = 0;
+        if (history.size() == 0) {
+            Toast.makeText(ResultActivity.this, "No data available", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            LineDataSet dataSet = new LineDataSet(entries, fromCurrency + " → " + toCurrency);
-            dataSet.setColor(Color.parseColor("#FF6D72"));
-            dataSet.setLineWidth(2f);
-            dataSet.setDrawCircles(false);
-            dataSet.setDrawValues(false);
-            dataSet.setMode(LineDataSet.Mode.CUBIC_BEZIER);
-            dataSet.setDrawFilled(true);
-            dataSet.setFillColor(Color.parseColor("#FF6D72"));
-
-            LineData lineData = new LineData(dataSet);
-            lineChart.setData(lineData);
-
-            // Chart styling
-            Description description = new Description();
-            description.setText("Exchange Rate Trend");
-            description.setTextColor(Color.WHITE);
-            lineChart.setDescription(description);
-            lineChart.setDrawGridBackground(false);
-            lineChart.setTouchEnabled(true);
-            lineChart.setPinchZoom(true);
-            lineChart.setScaleEnabled(true);
-            lineChart.setBackgroundColor(Color.BLACK);
-
-            // X-Axis (date labels)
-            XAxis xAxis = lineChart.getXAxis();
-            xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
-            xAxis.setTextColor(Color.WHITE);
-            xAxis.setDrawGridLines(false);
-            xAxis.setGranularity(1f);
-
-            // Show fewer labels, avoid clutter
-            xAxis.setLabelCount(5, true);
-            xAxis.setLabelRotationAngle(-45);
-
-            xAxis.setValueFormatter(new ValueFormatter() {
-                @Override
-                public String getAxisLabel(float value, com.github.mikephil.charting.components.AxisBase axis) {
-                    int index = (int) value;
-                    return (index >= 0 && index < xAxisLabels.size()) ? xAxisLabels.get(index) : "";
-                }
-            });
-
-            // ✅ Add custom marker view for exact values
-            CustomMarkerView markerView = new CustomMarkerView(ResultActivity.this, R.layout.marker_view);
-            markerView.setChartView(lineChart);
-            lineChart.setMarker(markerView);
-
-            lineChart.invalidate();
-
-            // Legend styling
-            Legend legend = lineChart.getLegend();
-            legend.setTextColor(Color.WHITE);
-            legend.setTextSize(14f);
-            legend.setForm(Legend.LegendForm.LINE);
-            legend.setFormSize(14f);
-            legend.setXEntrySpace(10f);
-            legend.setYEntrySpace(5f);
-            legend.setWordWrapEnabled(true);
+        // The chart is only inflated and styled once there is something to draw, so the first
+        // frame of this screen does not pay for loading and configuring the chart library
+        boolean first = chart == null;
+        if (first) {
+            chart = new ChartController((LineChart) chartStub.inflate(), fromCurrency + " → " + toCurrency);
+            chart.setStatsView(findViewById(R.id.stats_text));
+            chart.setOverlays(smaCheck.isChecked(), emaCheck.isChecked());
+        }
+        chart.show(history);
+        if (picked != 0) {
+            Metrics.RANGE_SWITCH.record((System.nanoTime() - picked) / 1000);
+        }
 
+        if (first) {
+            // Later range changes draw in; the first series just appears
+            chart.setAnimateTransitions(true);
+            // The frame after this one is the first with the chart on screen
+            Choreographer.getInstance().postFrameCallback(frameTimeNanos -> StartupTrace.end(StartupTrace.FIRST_CHART_FRAME));
         }
+        // Once the chart is on screen, use the idle time to fetch what is likely to be asked for next
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos -> startPrefetch());
+    }
+
+    // Skipped when the battery is low or saving power; a smaller budget on metered networks
+    private void startPrefetch() {
+        if (isFinishing()) {
+            return;
+        }
+        PowerManager power = getSystemService(PowerManager.class);
+        if (power != null && power.isPowerSaveMode()) {
+            return;
+        }
+        BatteryManager battery = getSystemService(BatteryManager.class);
+        if (battery != null && !battery.isCharging()
+                && battery.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY) < MIN_PREFETCH_BATTERY_PERCENT) {
+            return;
+        }
+        ConnectivityManager connectivity = getSystemService(ConnectivityManager.class);
+        long budget = connectivity == null || connectivity.isActiveNetworkMetered()
+                ? Prefetcher.METERED_DAILY_BUDGET_BYTES : Prefetcher.DAILY_BUDGET_BYTES;
+
+        String from = fromCurrency;
+        String to = toCurrency;
+        int days = shownDays;
+        prefetchSlot.submit("prefetch:" + from + ":" + to + ":" + days, () -> {
+            // Behind the history request and everything else the user is waiting on
+            int priority = Process.getThreadPriority(Process.myTid());
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            try {
+                Prefetcher prefetcher = new Prefetcher(RatesApi.get(getFilesDir()), SyncState.get(getFilesDir()), budget);
+                return prefetcher.run(prefetcher.plan(from, to, days), EpochDays.today(), System.currentTimeMillis());
+            } finally {
+                Process.setThreadPriority(priority);
+            }
+        }, new TaskRunner.Callback<Prefetcher.Result>() {
+            @Override
+            public void onResult(Prefetcher.Result result) {
+            }
+
+            @Override
+            public void onError(Exception error) {
+                Log.w("Prefetch", "Prefetch stopped", error);
+            }
+        });
     }
 }
@@ -0,0 +1,58 @@
+package com.example.currencyconverter;
+
+import com.github.mikephil.charting.data.Entry;
+
+import java.util.AbstractList;
+
+/**
+ * The subset of a history the chart actually draws: about one point per horizontal pixel,
+ * picked by {@link Lttb} and re-picked with more detail for the visible window as the user
+ * zooms. Entries come from the shared {@link HistoryEntries} cache, so x stays the original
+ * index and the chart's viewport is unaffected by resampling.
+ */
+public class SampledEntries extends AbstractList<Entry> {
+
+    // Points kept on each side of the visible window so panning has something to show
+    private static final int CONTEXT_POINTS = 64;
+
+    private HistoryEntries entries;
+    private int[] indices = new int[0];
+    private int size;
+
+    public SampledEntries() {
+    }
+
+    public SampledEntries(HistoryEntries entries) {
+        this.entries = entries;
+    }
+
+    /** Switches to another history; empty until the next resample, which reuses the index buffer. */
+    public void setSource(HistoryEntries entries) {
+        this.entries = entries;
+        size = 0;
+    }
+
+    /** Resamples so {@code [visibleFrom, visibleTo)} gets about {@code points} points. */
+    public void resample(int visibleFrom, int visibleTo, int points) {
+        int capacity = Lttb.capacity(points, CONTEXT_POINTS);
+        if (indices.length < capacity) {
+            indices = new int[capacity];
+        }
+        size = Lttb.selectWithFocus(entries.history(), visibleFrom, visibleTo, points, CONTEXT_POINTS, indices);
+    }
+
+    /** Index in the history of the point drawn at {@code position}. */
+    public int indexAt(int position) {
+        return indices[position];
+    }
+
+    @Override
+    public Entry get(int index) {
+        return entries.get(indices[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
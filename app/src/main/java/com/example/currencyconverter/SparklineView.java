@@ -0,0 +1,92 @@
+package com.example.currencyconverter;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * A small trend line with no axes or touch handling, for list rows where a full chart would
+ * be far too heavy. The path is rebuilt only when the values or the size change; drawing
+ * reuses it.
+ */
+public class SparklineView extends View {
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path path = new Path();
+    private float[] values = new float[0];
+    private boolean pathValid;
+
+    public SparklineView(Context context) {
+        this(context, null);
+    }
+
+    public SparklineView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(2 * getResources().getDisplayMetrics().density);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+        paint.setColor(Color.parseColor("#FF6D72"));
+    }
+
+    /** Shows {@code values}, which are kept rather than copied. */
+    public void setValues(float[] values) {
+        this.values = values;
+        pathValid = false;
+        invalidate();
+    }
+
+    public void setLineColor(int color) {
+        paint.setColor(color);
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        pathValid = false;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (values.length < 2) {
+            return;
+        }
+        if (!pathValid) {
+            buildPath();
+            pathValid = true;
+        }
+        canvas.drawPath(path, paint);
+    }
+
+    private void buildPath() {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        float inset = paint.getStrokeWidth();
+        float left = getPaddingLeft() + inset;
+        float top = getPaddingTop() + inset;
+        float width = getWidth() - getPaddingRight() - inset - left;
+        float height = getHeight() - getPaddingBottom() - inset - top;
+        // A flat series is drawn through the middle rather than along the top edge
+        float range = max > min ? max - min : 1;
+        float offset = max > min ? 0 : height / 2;
+
+        path.rewind();
+        for (int i = 0; i < values.length; i++) {
+            float x = left + width * i / (values.length - 1);
+            float y = top + offset + height * (max - values[i]) / range;
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.currencyconverter;
+
+import androidx.tracing.Trace;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Async trace sections for the startup milestones the macrobenchmarks report: process start
+ * to the first conversion the user can do, and opening the history screen to its first frame
+ * with a chart. Each section is recorded at most once per process, so later screens and
+ * range changes do not show up as extra samples.
+ */
+public final class StartupTrace {
+
+    public static final String FIRST_CONVERSION = "firstConversion";
+    public static final String FIRST_CHART_FRAME = "firstChartFrame";
+
+    private static final Set<String> begun = new HashSet<>();
+    private static final Set<String> ended = new HashSet<>();
+
+    private StartupTrace() {
+    }
+
+    public static synchronized void begin(String section) {
+        if (begun.add(section)) {
+            Trace.beginAsyncSection(section, 0);
+        }
+    }
+
+    /** Ends {@code section} if it was begun and is still open; returns whether it did. */
+    public static synchronized boolean end(String section) {
+        if (!begun.contains(section) || !ended.add(section)) {
+            return false;
+        }
+        Trace.endAsyncSection(section, 0);
+        return true;
+    }
+}
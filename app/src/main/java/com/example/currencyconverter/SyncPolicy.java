@@ -0,0 +1,81 @@
+package com.example.currencyconverter;
+
+/**
+ * How often and how much the background sync may do. Immutable; the app reads it from the
+ * settings preferences and the scheduler turns it into WorkManager constraints.
+ */
+public final class SyncPolicy {
+
+    public static final SyncPolicy DEFAULT = new Builder().build();
+
+    /** Minutes between periodic runs; WorkManager will not go below 15. */
+    public final long intervalMinutes;
+    /** Recently viewed pairs refreshed per wake-up, most recent first. */
+    public final int pairsPerRun;
+    /** Days of history kept warm for each of those pairs. */
+    public final int historyDays;
+    /** Bytes the sync may download per calendar day; 0 means no limit. */
+    public final long dailyBudgetBytes;
+    public final boolean unmeteredOnly;
+    public final boolean requiresCharging;
+    public final boolean batteryNotLow;
+
+    private SyncPolicy(Builder builder) {
+        this.intervalMinutes = builder.intervalMinutes;
+        this.pairsPerRun = builder.pairsPerRun;
+        this.historyDays = builder.historyDays;
+        this.dailyBudgetBytes = builder.dailyBudgetBytes;
+        this.unmeteredOnly = builder.unmeteredOnly;
+        this.requiresCharging = builder.requiresCharging;
+        this.batteryNotLow = builder.batteryNotLow;
+    }
+
+    public static class Builder {
+        private long intervalMinutes = 6 * 60;
+        private int pairsPerRun = 3;
+        private int historyDays = 30;
+        private long dailyBudgetBytes = 2 * 1024 * 1024;
+        private boolean unmeteredOnly;
+        private boolean requiresCharging;
+        private boolean batteryNotLow = true;
+
+        public Builder intervalMinutes(long minutes) {
+            intervalMinutes = Math.max(15, minutes);
+            return this;
+        }
+
+        public Builder pairsPerRun(int pairs) {
+            pairsPerRun = Math.max(0, pairs);
+            return this;
+        }
+
+        public Builder historyDays(int days) {
+            historyDays = Math.max(1, days);
+            return this;
+        }
+
+        public Builder dailyBudgetBytes(long bytes) {
+            dailyBudgetBytes = Math.max(0, bytes);
+            return this;
+        }
+
+        public Builder unmeteredOnly(boolean unmetered) {
+            unmeteredOnly = unmetered;
+            return this;
+        }
+
+        public Builder requiresCharging(boolean charging) {
+            requiresCharging = charging;
+            return this;
+        }
+
+        public Builder batteryNotLow(boolean notLow) {
+            batteryNotLow = notLow;
+            return this;
+        }
+
+        public SyncPolicy build() {
+            return new SyncPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.currencyconverter;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules {@link RateSyncWorker}: periodically under the configured {@link SyncPolicy},
+ * and once as soon as the network is back after a foreground fetch failed.
+ */
+public final class SyncScheduler {
+
+    static final String SETTINGS = "settings";
+    private static final String PERIODIC_WORK = "rate_sync";
+    private static final String ONLINE_WORK = "rate_sync_online";
+
+    private SyncScheduler() {
+    }
+
+    /** Sync settings from the shared preferences, falling back to {@link SyncPolicy#DEFAULT}. */
+    public static SyncPolicy readPolicy(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(SETTINGS, Context.MODE_PRIVATE);
+        SyncPolicy defaults = SyncPolicy.DEFAULT;
+        return new SyncPolicy.Builder()
+                .intervalMinutes(prefs.getLong("sync_interval_minutes", defaults.intervalMinutes))
+                .pairsPerRun(prefs.getInt("sync_pairs_per_run", defaults.pairsPerRun))
+                .historyDays(prefs.getInt("sync_history_days", defaults.historyDays))
+                .dailyBudgetBytes(prefs.getLong("sync_daily_budget_bytes", defaults.dailyBudgetBytes))
+                .unmeteredOnly(prefs.getBoolean("sync_unmetered_only", defaults.unmeteredOnly))
+                .requiresCharging(prefs.getBoolean("sync_requires_charging", defaults.requiresCharging))
+                .batteryNotLow(prefs.getBoolean("sync_battery_not_low", defaults.batteryNotLow))
+                .build();
+    }
+
+    /** Keeps the periodic sync scheduled; an existing schedule picks up changed settings. */
+    public static void schedule(Context context) {
+        SyncPolicy policy = readPolicy(context);
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(RateSyncWorker.class,
+                policy.intervalMinutes, TimeUnit.MINUTES)
+                .setConstraints(constraints(policy))
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 5, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(PERIODIC_WORK, ExistingPeriodicWorkPolicy.UPDATE, request);
+    }
+
+    /** Runs one sync when connectivity returns; repeated calls while pending are coalesced. */
+    public static void syncWhenOnline(Context context) {
+        SyncPolicy policy = readPolicy(context);
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(RateSyncWorker.class)
+                .setConstraints(constraints(policy))
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(ONLINE_WORK, ExistingWorkPolicy.KEEP, request);
+    }
+
+    private static Constraints constraints(SyncPolicy policy) {
+        return new Constraints.Builder()
+                .setRequiredNetworkType(policy.unmeteredOnly ? NetworkType.UNMETERED : NetworkType.CONNECTED)
+                .setRequiresCharging(policy.requiresCharging)
+                .setRequiresBatteryNotLow(policy.batteryNotLow)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * What the background sync and chart prefetch remember between runs: the pairs the user
+ * looked at recently, how often each chart range is picked, bytes spent against today's
+ * budgets, and when the last sync finished. A small properties file, written whole on
+ * every change.
+ */
+public class SyncState {
+
+    private static final String FILE_NAME = "sync_state.properties";
+    static final int MAX_RECENT_PAIRS = 10;
+    // Past this, every range count is halved so recent habits outweigh old ones
+    static final int MAX_RANGE_COUNT = 32;
+
+    private static SyncState instance;
+
+    private final File file;
+    private final Properties properties = new Properties();
+
+    public static synchronized SyncState get(File filesDir) {
+        if (instance == null) {
+            instance = new SyncState(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    SyncState(File file) {
+        this.file = file;
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                properties.clear();
+            }
+        }
+    }
+
+    /** Moves {@code from}/{@code to} to the front of the recently viewed pairs. */
+    public synchronized void recordView(String from, String to) {
+        String pair = from + ":" + to;
+        List<String> pairs = recentPairs();
+        pairs.remove(pair);
+        pairs.add(0, pair);
+        while (pairs.size() > MAX_RECENT_PAIRS) {
+            pairs.remove(pairs.size() - 1);
+        }
+        properties.setProperty("recent", String.join(",", pairs));
+        save();
+    }
+
+    /** Recently viewed pairs as {@code FROM:TO}, most recent first. */
+    public synchronized List<String> recentPairs() {
+        List<String> pairs = new ArrayList<>();
+        String recent = properties.getProperty("recent", "");
+        for (String pair : recent.split(",")) {
+            if (pair.length() == 7 && pair.charAt(3) == ':') {
+                pairs.add(pair);
+            }
+        }
+        return pairs;
+    }
+
+    /** Counts one pick of the {@code days}-long chart range. */
+    public synchronized void recordRange(int days) {
+        long count = getLong("range." + days, 0) + 1;
+        properties.setProperty("range." + days, Long.toString(count));
+        if (count > MAX_RANGE_COUNT) {
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith("range.")) {
+                    properties.setProperty(key, Long.toString(getLong(key, 0) / 2));
+                }
+            }
+        }
+        save();
+    }
+
+    /** Chart ranges in days that have been picked, most picked first; ties go to the shorter one. */
+    public synchronized int[] likelyRanges() {
+        List<long[]> ranges = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith("range.")) {
+                long count = getLong(key, 0);
+                try {
+                    if (count > 0) {
+                        ranges.add(new long[] {Integer.parseInt(key.substring("range.".length())), count});
+                    }
+                } catch (NumberFormatException e) {
+                    // Not ours; ignore
+                }
+            }
+        }
+        ranges.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+        int[] days = new int[ranges.size()];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) ranges.get(i)[0];
+        }
+        return days;
+    }
+
+    /** Bytes the background sync already spent on {@code epochDay}; a new day starts from zero. */
+    public synchronized long bytesSpent(int epochDay) {
+        return spent("budgetDay", "bytesSpent", epochDay);
+    }
+
+    public synchronized void addBytesSpent(int epochDay, long bytes) {
+        addSpent("budgetDay", "bytesSpent", epochDay, bytes);
+    }
+
+    /** Bytes chart prefetching already spent on {@code epochDay}, kept apart from the sync's budget. */
+    public synchronized long prefetchBytesSpent(int epochDay) {
+        return spent("prefetchDay", "prefetchBytes", epochDay);
+    }
+
+    public synchronized void addPrefetchBytesSpent(int epochDay, long bytes) {
+        addSpent("prefetchDay", "prefetchBytes", epochDay, bytes);
+    }
+
+    private long spent(String dayKey, String bytesKey, int epochDay) {
+        if (getLong(dayKey, EpochDays.INVALID) != epochDay) {
+            return 0;
+        }
+        return getLong(bytesKey, 0);
+    }
+
+    private void addSpent(String dayKey, String bytesKey, int epochDay, long bytes) {
+        long spent = spent(dayKey, bytesKey, epochDay) + bytes;
+        properties.setProperty(dayKey, Integer.toString(epochDay));
+        properties.setProperty(bytesKey, Long.toString(spent));
+        save();
+    }
+
+    public synchronized long lastSyncAt() {
+        return getLong("lastSyncAt", 0);
+    }
+
+    public synchronized void setLastSyncAt(long millis) {
+        properties.setProperty("lastSyncAt", Long.toString(millis));
+        save();
+    }
+
+    private long getLong(String key, long fallback) {
+        try {
+            return Long.parseLong(properties.getProperty(key, Long.toString(fallback)));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private void save() {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            // Losing sync state only costs an extra refresh
+        }
+    }
+}
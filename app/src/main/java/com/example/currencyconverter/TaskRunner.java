@@ -0,0 +1,215 @@
+package com.example.currencyconverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background work for the activities, replacing AsyncTask.
+ *
+ * Work runs on a small bounded pool and results are posted to the main-thread executor.
+ * Requests carry a key: a request whose key is already in flight joins it instead of
+ * running again, and the shared work is cancelled once nobody is waiting for it. A
+ * {@link Slot} keeps only the latest request for one piece of UI, so a superseded result
+ * is never delivered.
+ */
+public class TaskRunner {
+
+    private static final int THREADS = 3;
+    private static final int QUEUE_CAPACITY = 32;
+
+    private static TaskRunner instance;
+
+    private final ThreadPoolExecutor background;
+    private final Executor mainThread;
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+
+    /** Shared runner; {@code mainThread} is only used the first time. */
+    public static synchronized TaskRunner get(Executor mainThread) {
+        if (instance == null) {
+            instance = new TaskRunner(mainThread, THREADS, QUEUE_CAPACITY);
+        }
+        return instance;
+    }
+
+    TaskRunner(Executor mainThread, int threads, int queueCapacity) {
+        this.mainThread = mainThread;
+        this.background = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new WorkerFactory());
+        this.background.allowCoreThreadTimeOut(true);
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        void onError(Exception error);
+    }
+
+    /** Runs {@code work}, or joins the identical request already running under {@code key}. */
+    public <T> Handle submit(String key, Callable<T> work, Callback<T> callback) {
+        Handle handle = new Handle(key);
+        synchronized (inFlight) {
+            @SuppressWarnings("unchecked")
+            InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+            if (existing != null) {
+                existing.subscribers.add(new Subscriber<>(handle, callback));
+                handle.shared = existing;
+                return handle;
+            }
+
+            InFlight<T> request = new InFlight<>(key);
+            request.subscribers.add(new Subscriber<>(handle, callback));
+            handle.shared = request;
+            try {
+                request.future = background.submit(() -> run(request, work));
+            } catch (RejectedExecutionException e) {
+                mainThread.execute(() -> callback.onError(e));
+                return handle;
+            }
+            inFlight.put(key, request);
+        }
+        return handle;
+    }
+
+    public Slot newSlot() {
+        return new Slot();
+    }
+
+    private <T> void run(InFlight<T> request, Callable<T> work) {
+        T result = null;
+        Exception error = null;
+        try {
+            result = work.call();
+        } catch (Exception e) {
+            error = e;
+        }
+
+        List<Subscriber<T>> subscribers;
+        synchronized (inFlight) {
+            inFlight.remove(request.key, request);
+            subscribers = new ArrayList<>(request.subscribers);
+        }
+        if (subscribers.isEmpty() || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        T finalResult = result;
+        Exception finalError = error;
+        mainThread.execute(() -> {
+            for (Subscriber<T> subscriber : subscribers) {
+                // Cancellation is decided on the main thread, so this check cannot race it
+                if (subscriber.handle.cancelled) {
+                    continue;
+                }
+                if (finalError != null) {
+                    subscriber.callback.onError(finalError);
+                } else {
+                    subscriber.callback.onResult(finalResult);
+                }
+            }
+        });
+    }
+
+    private void unsubscribe(Handle handle) {
+        synchronized (inFlight) {
+            InFlight<?> request = handle.shared;
+            if (request == null) {
+                return;
+            }
+            request.subscribers.removeIf(subscriber -> subscriber.handle == handle);
+            // Nobody else wants this result any more, so stop doing the work
+            if (request.subscribers.isEmpty() && request.future != null) {
+                request.future.cancel(true);
+                inFlight.remove(request.key, request);
+            }
+        }
+    }
+
+    /** A submitted request as seen by one caller. Cancel only from the main thread. */
+    public class Handle {
+        final String key;
+        volatile boolean cancelled;
+        InFlight<?> shared;
+
+        Handle(String key) {
+            this.key = key;
+        }
+
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                unsubscribe(this);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /** Holds the latest request for one piece of UI; submitting again cancels the previous one. */
+    public class Slot {
+        private Handle current;
+
+        public <T> Handle submit(String key, Callable<T> work, Callback<T> callback) {
+            // Re-tapping the same choice keeps the request already running
+            if (current != null && !current.cancelled && current.key.equals(key) && current.shared != null
+                    && current.shared.future != null && !current.shared.future.isDone()) {
+                return current;
+            }
+            cancel();
+            current = TaskRunner.this.submit(key, work, callback);
+            return current;
+        }
+
+        public void cancel() {
+            if (current != null) {
+                current.cancel();
+                current = null;
+            }
+        }
+    }
+
+    private static class InFlight<T> {
+        final String key;
+        final List<Subscriber<T>> subscribers = new ArrayList<>();
+        Future<?> future;
+
+        InFlight(String key) {
+            this.key = key;
+        }
+    }
+
+    private static class Subscriber<T> {
+        final Handle handle;
+        final Callback<T> callback;
+
+        Subscriber(Handle handle, Callback<T> callback) {
+            this.handle = handle;
+            this.callback = callback;
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "rates-worker-" + count.incrementAndGet());
+            // Stay below the UI thread so rendering wins contention
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.currencyconverter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The pairs the user keeps an eye on, in the order they were added. Stored as a small
+ * properties file next to the sync state and written whole on every change.
+ */
+public class Watchlist {
+
+    private static final String FILE_NAME = "watchlist.properties";
+
+    private static Watchlist instance;
+
+    private final File file;
+    private final List<String> pairs = new ArrayList<>();
+
+    public static synchronized Watchlist get(File filesDir) {
+        if (instance == null) {
+            instance = new Watchlist(new File(filesDir, FILE_NAME));
+        }
+        return instance;
+    }
+
+    Watchlist(File file) {
+        this.file = file;
+        if (file.exists()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                return;
+            }
+            for (String pair : properties.getProperty("pairs", "").split(",")) {
+                if (isPair(pair)) {
+                    pairs.add(pair);
+                }
+            }
+        }
+    }
+
+    /** Watched pairs as {@code FROM:TO}. */
+    public synchronized List<String> pairs() {
+        return new ArrayList<>(pairs);
+    }
+
+    public synchronized boolean contains(String from, String to) {
+        return pairs.contains(from + ":" + to);
+    }
+
+    /** Adds {@code from}/{@code to} at the end; returns false if it was already watched. */
+    public synchronized boolean add(String from, String to) {
+        String pair = from + ":" + to;
+        if (!isPair(pair) || pairs.contains(pair)) {
+            return false;
+        }
+        pairs.add(pair);
+        save();
+        return true;
+    }
+
+    public synchronized void remove(String from, String to) {
+        if (pairs.remove(from + ":" + to)) {
+            save();
+        }
+    }
+
+    static boolean isPair(String pair) {
+        return pair.length() == 7 && pair.charAt(3) == ':';
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        properties.setProperty("pairs", String.join(",", pairs));
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        } catch (IOException e) {
+            // Kept in memory for this session; the next change tries again
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.currencyconverter;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every watched pair with its current rate, change over the last day and a sparkline of the
+ * last month. The whole list is refreshed as one batch by {@link WatchlistRefresh}, on
+ * opening and then periodically while the screen is visible. Long-press a row to remove it.
+ */
+public class WatchlistActivity extends AppCompatActivity {
+
+    private static final long REFRESH_INTERVAL_MILLIS = 5 * 60 * 1000L;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable periodicRefresh = this::refresh;
+
+    private Watchlist watchlist;
+    private WatchlistAdapter adapter;
+    private TextView status;
+    private TaskRunner.Slot refreshSlot;
+    private long updatedAt;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_watchlist);
+
+        status = findViewById(R.id.watchlist_status);
+        RecyclerView list = findViewById(R.id.watchlist_list);
+        Button addButton = findViewById(R.id.watchlist_add_button);
+        Button backButton = findViewById(R.id.watchlist_back_button);
+
+        watchlist = Watchlist.get(getFilesDir());
+        refreshSlot = TaskRunner.get(ContextCompat.getMainExecutor(this)).newSlot();
+
+        adapter = new WatchlistAdapter(this::remove);
+        list.setLayoutManager(new LinearLayoutManager(this));
+        // Rows are fixed height, so content changes never resize the list
+        list.setHasFixedSize(true);
+        list.setAdapter(adapter);
+
+        // MainActivity passes its current selection so it can be added from here
+        String from = getIntent().getStringExtra("from_currency");
+        String to = getIntent().getStringExtra("to_currency");
+        if (from != null && to != null && !from.equals(to) && !watchlist.contains(from, to)) {
+            addButton.setText("Add " + from + " → " + to);
+            addButton.setVisibility(View.VISIBLE);
+            addButton.setOnClickListener(v -> {
+                watchlist.add(from, to);
+                addButton.setVisibility(View.GONE);
+                refresh();
+            });
+        }
+
+        backButton.setOnClickListener(v -> finish());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    @Override
+    protected void onPause() {
+        handler.removeCallbacks(periodicRefresh);
+        super.onPause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        refreshSlot.cancel();
+        super.onDestroy();
+    }
+
+    private void refresh() {
+        handler.removeCallbacks(periodicRefresh);
+        handler.postDelayed(periodicRefresh, REFRESH_INTERVAL_MILLIS);
+
+        List<String> pairs = watchlist.pairs();
+        if (pairs.isEmpty()) {
+            adapter.submitList(new ArrayList<>());
+            status.setText("Add a pair from the main screen");
+            return;
+        }
+        RatesApi api = RatesApi.get(getFilesDir());
+        refreshSlot.submit("watchlist:" + String.join(",", pairs),
+                () -> new WatchlistRefresh(api).refresh(pairs, EpochDays.today(), System.currentTimeMillis()),
+                new TaskRunner.Callback<WatchlistRefresh.Result>() {
+                    @Override
+                    public void onResult(WatchlistRefresh.Result result) {
+                        adapter.submitList(result.rows);
+                        // When the rates shown were fetched, not when this refresh ran
+                        updatedAt = result.updatedAt;
+                        String age = DataAge.describe(System.currentTimeMillis(), updatedAt);
+                        if (result.online) {
+                            status.setText("Updated " + age);
+                            return;
+                        }
+                        status.setText(updatedAt > 0 ? "Offline · updated " + age : "Offline");
+                        SyncScheduler.syncWhenOnline(WatchlistActivity.this);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.e("Store Error", "Failed to refresh watchlist", error);
+                        if (updatedAt == 0) {
+                            status.setText("Error: Unable to load watchlist");
+                        } else {
+                            status.setText("Offline · updated " + DataAge.describe(System.currentTimeMillis(), updatedAt));
+                        }
+                    }
+                });
+    }
+
+    private void remove(WatchlistRefresh.Row row) {
+        watchlist.remove(row.from, row.to);
+        List<WatchlistRefresh.Row> remaining = new ArrayList<>(adapter.getCurrentList());
+        remaining.remove(row);
+        adapter.submitList(remaining);
+        Toast.makeText(this, "Removed " + row.from + " → " + row.to, Toast.LENGTH_SHORT).show();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.currencyconverter;
+
+import android.graphics.Color;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Watchlist rows. Each refresh submits a whole new list; DiffUtil works out on a background
+ * thread which rows actually changed, so unchanged rows are neither rebound nor redrawn.
+ */
+public class WatchlistAdapter extends ListAdapter<WatchlistRefresh.Row, WatchlistAdapter.Holder> {
+
+    private static final int RISING = Color.parseColor("#2E7D32");
+    private static final int FALLING = Color.parseColor("#C62828");
+
+    private static final DiffUtil.ItemCallback<WatchlistRefresh.Row> DIFF = new DiffUtil.ItemCallback<WatchlistRefresh.Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull WatchlistRefresh.Row oldRow, @NonNull WatchlistRefresh.Row newRow) {
+            return oldRow.samePair(newRow);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull WatchlistRefresh.Row oldRow, @NonNull WatchlistRefresh.Row newRow) {
+            return oldRow.equals(newRow);
+        }
+    };
+
+    public interface OnRowLongClick {
+        void onLongClick(WatchlistRefresh.Row row);
+    }
+
+    private final OnRowLongClick onLongClick;
+
+    public WatchlistAdapter(OnRowLongClick onLongClick) {
+        super(DIFF);
+        this.onLongClick = onLongClick;
+    }
+
+    @NonNull
+    @Override
+    public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_watchlist, parent, false);
+        return new Holder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder holder, int position) {
+        WatchlistRefresh.Row row = getItem(position);
+        holder.pair.setText(row.from + " → " + row.to);
+
+        // TextView wraps the arrays rather than copying them; each holder owns its own
+        int length;
+        if (Double.isNaN(row.rate)) {
+            holder.rateBuffer[0] = '–';
+            length = 1;
+        } else {
+            length = AmountFormat.format(row.rate, ChartLabels.decimalsFor(row.rate), holder.rateBuffer, 0);
+        }
+        holder.rate.setText(holder.rateBuffer, 0, length);
+
+        if (Double.isNaN(row.changePercent)) {
+            holder.change.setText(null);
+        } else {
+            length = 0;
+            if (row.changePercent >= 0) {
+                holder.changeBuffer[length++] = '+';
+            }
+            length += AmountFormat.format(row.changePercent, 2, holder.changeBuffer, length);
+            holder.changeBuffer[length++] = '%';
+            holder.change.setText(holder.changeBuffer, 0, length);
+        }
+        int trend = row.changePercent < 0 ? FALLING : RISING;
+        holder.change.setTextColor(trend);
+        holder.sparkline.setLineColor(trend);
+        holder.sparkline.setValues(row.sparkline);
+
+        holder.itemView.setOnLongClickListener(v -> {
+            onLongClick.onLongClick(row);
+            return true;
+        });
+    }
+
+    static class Holder extends RecyclerView.ViewHolder {
+        final TextView pair;
+        final TextView rate;
+        final TextView change;
+        final SparklineView sparkline;
+        final char[] rateBuffer = new char[AmountFormat.MAX_LENGTH];
+        final char[] changeBuffer = new char[AmountFormat.MAX_LENGTH + 2];
+
+        Holder(View view) {
+            super(view);
+            pair = view.findViewById(R.id.watch_pair);
+            rate = view.findViewById(R.id.watch_rate);
+            change = view.findViewById(R.id.watch_change);
+            sparkline = view.findViewById(R.id.watch_sparkline);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.currencyconverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One refresh of the whole watchlist. However many pairs are watched it costs one latest
+ * rates call, skipped while the cached table is fresh, and one history call for the
+ * sparkline window covering every currency involved, skipped for days already stored.
+ * Each row is then read from local data only.
+ */
+public class WatchlistRefresh {
+
+    /** Days of history behind each sparkline. */
+    public static final int SPARKLINE_DAYS = 30;
+
+    private final RatesApi api;
+
+    public WatchlistRefresh(RatesApi api) {
+        this.api = api;
+    }
+
+    /** One watched pair as shown: current rate, change over the last day and the sparkline. */
+    public static final class Row {
+        public final String from;
+        public final String to;
+        /** Units of {@code to} per {@code from}; NaN when either currency has no latest rate. */
+        public final double rate;
+        /** Percent change between the last two days of history; NaN without two points. */
+        public final double changePercent;
+        public final float[] sparkline;
+
+        Row(String from, String to, double rate, double changePercent, float[] sparkline) {
+            this.from = from;
+            this.to = to;
+            this.rate = rate;
+            this.changePercent = changePercent;
+            this.sparkline = sparkline;
+        }
+
+        /** Same pair, whatever its values; rows are matched on this when diffing. */
+        public boolean samePair(Row other) {
+            return from.equals(other.from) && to.equals(other.to);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Row)) {
+                return false;
+            }
+            Row row = (Row) o;
+            return samePair(row)
+                    && Double.compare(rate, row.rate) == 0
+                    && Double.compare(changePercent, row.changePercent) == 0
+                    && Arrays.equals(sparkline, row.sparkline);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * from.hashCode() + to.hashCode()) + Arrays.hashCode(sparkline);
+        }
+    }
+
+    /** The rows of one refresh and how current they are. */
+    public static final class Result {
+        public final List<Row> rows;
+        /** False if the latest rates or some history could not be fetched. */
+        public final boolean online;
+        /** When the latest rates shown were fetched; 0 if there are none. */
+        public final long updatedAt;
+
+        Result(List<Row> rows, boolean online, long updatedAt) {
+            this.rows = rows;
+            this.online = online;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * Refreshes and returns a row per {@code FROM:TO} pair, in order. Network failures leave
+     * the rows on whatever was stored before and are reported in {@link Result#online}; only
+     * a failing local store throws.
+     */
+    public Result refresh(List<String> pairs, int today, long now) throws IOException {
+        boolean online = true;
+        RateCache.Snapshot latest = api.rateCache().load();
+        if (latest == null || !latest.isFresh(now)) {
+            try {
+                latest = api.refreshLatest();
+            } catch (IOException e) {
+                // Stale rates are still worth showing; rows without any say so with NaN
+                online = false;
+            }
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (String pair : pairs) {
+            codes.add(pair.substring(0, 3));
+            codes.add(pair.substring(4));
+        }
+        int start = today - SPARKLINE_DAYS;
+        if (!api.prefetch(codes, start, today, today, now)) {
+            online = false;
+        }
+
+        List<Row> rows = new ArrayList<>(pairs.size());
+        for (String pair : pairs) {
+            String from = pair.substring(0, 3);
+            String to = pair.substring(4);
+            RateHistory history = api.stored(from, to, start, today);
+            rows.add(new Row(from, to, latestRate(latest, from, to), changePercent(history), sparkline(history)));
+        }
+        return new Result(rows, online, latest != null ? latest.fetchedAt : 0);
+    }
+
+    private static double latestRate(RateCache.Snapshot latest, String from, String to) {
+        if (latest == null) {
+            return Double.NaN;
+        }
+        int fromIndex = latest.table.indexOf(from);
+        int toIndex = latest.table.indexOf(to);
+        if (fromIndex == RateTable.NOT_FOUND || toIndex == RateTable.NOT_FOUND) {
+            return Double.NaN;
+        }
+        return latest.table.convert(fromIndex, toIndex, 1);
+    }
+
+    static double changePercent(RateHistory history) {
+        int size = history.size();
+        if (size < 2) {
+            return Double.NaN;
+        }
+        double previous = history.rateAt(size - 2);
+        return (history.rateAt(size - 1) - previous) / previous * 100;
+    }
+
+    private static float[] sparkline(RateHistory history) {
+        float[] values = new float[history.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = history.rateAt(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AlertEvaluatorTest {
+
+    private static final long NOW = 1_718_350_000_000L;
+    private static final int CURRENCIES = 150;
+    private static final int ALERTS = 5000;
+
+    // USD plus AAA..: 150 currencies, rate i + 1 against USD
+    private static String code(int i) {
+        return i == 0 ? "USD" : "" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26) + 'X';
+    }
+
+    private static RateTable table(double[] rates) {
+        RateTable.Builder builder = new RateTable.Builder("USD");
+        for (int i = 0; i < rates.length; i++) {
+            builder.put(code(i), rates[i]);
+        }
+        return builder.build();
+    }
+
+    private static double[] baseRates() {
+        double[] rates = new double[CURRENCIES];
+        for (int i = 0; i < CURRENCIES; i++) {
+            rates[i] = i == 0 ? 1 : i + 1;
+        }
+        return rates;
+    }
+
+    @Test
+    public void thousandsOfAlerts_onlyChangedCurrenciesAreChecked() {
+        Random random = new Random(7);
+        List<RateAlert> alerts = new ArrayList<>();
+        int touchingChanged = 0;
+        for (int id = 0; id < ALERTS; id++) {
+            int from = random.nextInt(CURRENCIES);
+            int to = (from + 1 + random.nextInt(CURRENCIES - 1)) % CURRENCIES;
+            alerts.add(new RateAlert(id, code(from), code(to), RateAlert.Kind.CROSSES, 1e9));
+            if (from == 42 || to == 42 || from == 97 || to == 97) {
+                touchingChanged++;
+            }
+        }
+        AlertEvaluator evaluator = new AlertEvaluator(alerts);
+
+        double[] rates = baseRates();
+        assertTrue(evaluator.evaluate(table(rates), NOW).isEmpty());
+        assertEquals(ALERTS, evaluator.lastEvaluatedCount());
+
+        // Nothing moved: nothing is checked
+        evaluator.evaluate(table(rates), NOW + 1);
+        assertEquals(0, evaluator.lastEvaluatedCount());
+
+        // Two currencies moved: only their alerts, each once even when on both
+        rates[42] *= 1.001;
+        rates[97] *= 0.999;
+        evaluator.evaluate(table(rates), NOW + 2);
+        assertEquals(touchingChanged, evaluator.lastEvaluatedCount());
+    }
+
+    @Test
+    public void crossing_firesOnceInEachDirection() {
+        RateAlert alert = new RateAlert(1, "USD", "INR", RateAlert.Kind.CROSSES, 87);
+        List<RateAlert> alerts = new ArrayList<>();
+        alerts.add(alert);
+        AlertEvaluator evaluator = new AlertEvaluator(alerts);
+
+        assertTrue(evaluator.evaluate(usdInr(86.5), NOW).isEmpty());
+        List<AlertEvaluator.Trigger> fired = evaluator.evaluate(usdInr(87.1), NOW + 1);
+        assertEquals(1, fired.size());
+        assertEquals(87.1, fired.get(0).rate, 1e-9);
+        assertTrue(evaluator.evaluate(usdInr(87.3), NOW + 2).isEmpty());
+        assertEquals(1, evaluator.evaluate(usdInr(86.9), NOW + 3).size());
+    }
+
+    @Test
+    public void percentMove_isMeasuredWithinADay() {
+        List<RateAlert> alerts = new ArrayList<>();
+        alerts.add(new RateAlert(1, "INR", "USD", RateAlert.Kind.MOVES_PERCENT, 1));
+        AlertEvaluator evaluator = new AlertEvaluator(alerts);
+
+        evaluator.evaluate(usdInr(80), NOW);
+        assertTrue(evaluator.evaluate(usdInr(80.5), NOW + 1000).isEmpty());
+        assertEquals(1, evaluator.evaluate(usdInr(81), NOW + 2000).size());
+        // The next move is measured from where the last one fired
+        assertTrue(evaluator.evaluate(usdInr(81.4), NOW + 3000).isEmpty());
+        // A slow drift over more than a day only moves the reference
+        assertTrue(evaluator.evaluate(usdInr(83), NOW + 2000 + RateAlert.DAY_MILLIS).isEmpty());
+    }
+
+    @Test
+    public void store_keepsStateAcrossProcesses() throws IOException {
+        File file = new File(Files.createTempDirectory("alerts").toFile(), "alerts.properties");
+        AlertStore store = new AlertStore(file);
+        RateAlert alert = store.add("USD", "INR", RateAlert.Kind.CROSSES, 87);
+        store.evaluate(usdInr(86.5), NOW);
+
+        // The background run after a process restart still knows the rate was below 87
+        AlertStore reloaded = new AlertStore(file);
+        assertEquals(1, reloaded.alerts().size());
+        assertEquals(alert.id, reloaded.alerts().get(0).id);
+        List<AlertEvaluator.Trigger> fired = reloaded.evaluate(usdInr(87.2), NOW + 1);
+        assertEquals(1, fired.size());
+
+        reloaded.remove(alert.id);
+        assertTrue(new AlertStore(file).alerts().isEmpty());
+    }
+
+    @Test
+    public void store_staysIncrementalInANewProcess() throws IOException {
+        File file = new File(Files.createTempDirectory("alerts").toFile(), "alerts.properties");
+        AlertStore store = new AlertStore(file);
+        store.add("USD", "INR", RateAlert.Kind.CROSSES, 87);
+        store.add("USD", "EUR", RateAlert.Kind.CROSSES, 1);
+        store.evaluate(usdInr(86.5), NOW);
+
+        // Only INR moved since the last run: only its alert is checked, with no warm evaluator
+        AlertStore cold = new AlertStore(file);
+        cold.evaluate(usdInr(86.7), NOW + 1);
+        assertEquals(1, cold.lastEvaluatedCount());
+
+        // An alert added later is checked even though its rates have not moved
+        AlertStore again = new AlertStore(file);
+        again.add("EUR", "INR", RateAlert.Kind.CROSSES, 95);
+        again.evaluate(usdInr(86.7), NOW + 2);
+        assertEquals(3, again.lastEvaluatedCount());
+    }
+
+    private static RateTable usdInr(double inr) {
+        return new RateTable.Builder("USD").put("USD", 1).put("INR", inr).put("EUR", 0.92).build();
+    }
+}
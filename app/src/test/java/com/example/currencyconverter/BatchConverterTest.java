@@ -0,0 +1,115 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.*;
+
+public class BatchConverterTest {
+
+    private static RateTable table() {
+        return new RateTable.Builder("USD")
+                .put("USD", 1)
+                .put("EUR", 0.92)
+                .put("INR", 83.12)
+                .put("JPY", 157.3)
+                .build();
+    }
+
+    private static String convert(BatchConverter converter, String csv, String from, String to) throws IOException {
+        StringWriter out = new StringWriter();
+        RateTable table = converter.table();
+        converter.convertCsv(new StringReader(csv), out, table.indexOf(from), table.indexOf(to));
+        return out.toString();
+    }
+
+    @Test
+    public void toAll_matchesSingleExactConversions() {
+        RateTable table = table();
+        ExactConverter exact = new ExactConverter(table);
+        ExactConverter.Money amount = new ExactConverter.Money();
+        assertTrue(amount.parse("250"));
+        ExactConverter.Money[] all = new BatchConverter(table, RoundingMode.DOWN, 1).convertToAll(table.indexOf("EUR"), amount);
+        ExactConverter.Money single = new ExactConverter.Money();
+        for (int i = 0; i < table.size(); i++) {
+            exact.convert(table.indexOf("EUR"), i, amount, RoundingMode.DOWN, single);
+            assertEquals(single.toBigDecimal(), all[i].toBigDecimal());
+        }
+        // 250 * 157.3 / 0.92, in whole yen
+        assertEquals(new BigDecimal("42744"), all[table.indexOf("JPY")].toBigDecimal());
+    }
+
+    @Test
+    public void csv_usesHeaderColumnsAndKeepsRows() throws IOException {
+        String csv = "date,description,Amount,Currency\r\n"
+                + "2024-06-01,\"Taxi, airport\",45.50,EUR\r\n"
+                + "2024-06-02,Hotel,\"12000\",JPY\r\n"
+                + "\r\n"
+                + "2024-06-03,Lunch,n/a,EUR\r\n"
+                + "2024-06-04,Unknown,10,XXX\r\n";
+        String result = convert(new BatchConverter(table(), 1), csv, "USD", "INR");
+
+        assertEquals("date,description,Amount,Currency,INR\n"
+                + "2024-06-01,\"Taxi, airport\",45.50,EUR,4110.83\n"
+                + "2024-06-02,Hotel,\"12000\",JPY,6341.00\n"
+                + "\n"
+                + "2024-06-03,Lunch,n/a,EUR,\n"
+                + "2024-06-04,Unknown,10,XXX,\n", result);
+    }
+
+    @Test
+    public void csv_withoutHeader_convertsFirstColumn() throws IOException {
+        String result = convert(new BatchConverter(table(), 1), "1\n-2.5\n", "USD", "EUR");
+        assertEquals("1,0.92\n-2.5,-2.30\n", result);
+    }
+
+    @Test
+    public void csv_roundsToTargetMinorUnitsWithMode() throws IOException {
+        // 1.005 is just below itself as a double, which a double conversion would round down
+        assertEquals("1.005,1.01\n", convert(new BatchConverter(table(), 1), "1.005\n", "USD", "USD"));
+        // Yen have no minor units: 0.05 USD is 7.865 JPY
+        assertEquals("0.05,8\n", convert(new BatchConverter(table(), RoundingMode.HALF_UP, 1), "0.05\n", "USD", "JPY"));
+        assertEquals("0.05,7\n", convert(new BatchConverter(table(), RoundingMode.DOWN, 1), "0.05\n", "USD", "JPY"));
+        // Too large for a long still fits its line
+        assertEquals("123456789012345678901234567890,113580245891358024589135802458.80\n",
+                convert(new BatchConverter(table(), 1), "123456789012345678901234567890\n", "USD", "EUR"));
+    }
+
+    @Test
+    public void parallel_matchesSequentialOnLargeInput() throws IOException {
+        StringBuilder csv = new StringBuilder("amount,currency\n");
+        String[] codes = {"USD", "EUR", "INR", "JPY"};
+        for (int i = 0; i < 200_000; i++) {
+            csv.append(i % 9973).append('.').append(i % 100).append(',').append(codes[i % 4]).append('\n');
+        }
+        String input = csv.toString();
+
+        StringWriter sequentialOut = new StringWriter();
+        StringWriter parallelOut = new StringWriter();
+        RateTable table = table();
+        long sequential = new BatchConverter(table, 1).convertCsv(new StringReader(input), sequentialOut, 0,
+                table.indexOf("EUR"));
+        long parallel = new BatchConverter(table, 4).convertCsv(new StringReader(input), parallelOut, 0,
+                table.indexOf("EUR"));
+
+        assertEquals(200_000, sequential);
+        assertEquals(sequential, parallel);
+        assertEquals(sequentialOut.toString(), parallelOut.toString());
+    }
+
+    @Test
+    public void amountFormat_roundsHalfUpWithoutStrings() {
+        char[] out = new char[AmountFormat.MAX_LENGTH];
+        assertEquals("0.05", new String(out, 0, AmountFormat.format(0.045, 2, out, 0)));
+        assertEquals("-1234.57", new String(out, 0, AmountFormat.format(-1234.565, 2, out, 0)));
+        assertEquals("0.00", new String(out, 0, AmountFormat.format(-0.001, 2, out, 0)));
+        assertEquals("157", new String(out, 0, AmountFormat.format(156.5, 0, out, 0)));
+        assertEquals(12.5, AmountFormat.parse(" \"12.50\" ".toCharArray(), 0, 9), 0.0);
+        assertTrue(Double.isNaN(AmountFormat.parse("12a".toCharArray(), 0, 3)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class ChartLabelsTest {
+
+    private static final int JUN_14 = EpochDays.of(2024, 6, 14);
+
+    @Test
+    public void unit_followsVisibleSpan() {
+        assertEquals(ChartLabels.DAYS, ChartLabels.unitFor(2));
+        assertEquals(ChartLabels.DAYS, ChartLabels.unitFor(30));
+        assertEquals(ChartLabels.MONTHS, ChartLabels.unitFor(365));
+        assertEquals(ChartLabels.YEARS, ChartLabels.unitFor(1825));
+    }
+
+    @Test
+    public void dateLabels_areLocalisedAndCached() {
+        ChartLabels uk = new ChartLabels(Locale.UK);
+        uk.reset(JUN_14 - 1825, JUN_14);
+        assertEquals("14 Jun", uk.dateLabel(JUN_14, ChartLabels.DAYS));
+        assertEquals("Jun '24", uk.dateLabel(JUN_14, ChartLabels.MONTHS));
+        assertEquals("2024", uk.dateLabel(JUN_14, ChartLabels.YEARS));
+
+        // Every day of a month shares one cached month label
+        assertSame(uk.dateLabel(JUN_14, ChartLabels.MONTHS), uk.dateLabel(JUN_14 - 10, ChartLabels.MONTHS));
+        assertSame(uk.dateLabel(JUN_14, ChartLabels.DAYS), uk.dateLabel(JUN_14, ChartLabels.DAYS));
+
+        ChartLabels us = new ChartLabels(Locale.US);
+        us.reset(JUN_14 - 30, JUN_14);
+        assertEquals("Jun 14", us.dateLabel(JUN_14, ChartLabels.DAYS));
+        // Outside the reset range: still right, just not cached
+        assertEquals("Jan 1", us.dateLabel(EpochDays.of(2020, 1, 1), ChartLabels.DAYS));
+    }
+
+    @Test
+    public void rates_useLocaleSeparatorAndMagnitudeDecimals() {
+        char[] out = new char[AmountFormat.MAX_LENGTH];
+        ChartLabels uk = new ChartLabels(Locale.UK);
+        assertEquals("83.4567", new String(out, 0, uk.formatRate(83.45671, out, 0)));
+        assertEquals("0.006712", new String(out, 0, uk.formatRate(0.0067123, out, 0)));
+        assertEquals("1234.57", new String(out, 0, uk.formatRate(1234.5678, out, 0)));
+
+        ChartLabels germany = new ChartLabels(Locale.GERMANY);
+        assertEquals("83,4567", new String(out, 0, germany.formatRate(83.45671, out, 0)));
+    }
+
+    @Test
+    public void stats_fitOneLine() {
+        RangeStats.Window window = new RangeStats.Window();
+        window.high = 83.91f;
+        window.low = 82.1f;
+        window.mean = 83.02;
+        window.changePercent = -1.234;
+        window.volatility = 0.31;
+        char[] out = new char[ChartLabels.STATS_LENGTH];
+        ChartLabels germany = new ChartLabels(Locale.GERMANY);
+        assertEquals("High 83,9100  Low 82,1000  Avg 83,0200  -1,23%  Vol 0,31%",
+                new String(out, 0, germany.formatStats(window, out)));
+
+        window.changePercent = 0.5;
+        String uk = new String(out, 0, new ChartLabels(Locale.UK).formatStats(window, out));
+        assertTrue(uk, uk.contains("  +0.50%  "));
+    }
+}
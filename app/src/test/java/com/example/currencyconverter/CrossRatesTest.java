@@ -0,0 +1,120 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CrossRatesTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+
+    // Every currency against EUR, one point per day of the requested range
+    private static class FakeProvider implements CrossRates.Fetcher {
+        int calls;
+        boolean offline;
+
+        @Override
+        public RateProvider.History fetchAll(int startDay, int endDay, boolean tailCheck) throws IOException {
+            calls++;
+            if (offline) {
+                throw new IOException("offline");
+            }
+            Map<String, RateSeries> all = new HashMap<>();
+            all.put("USD", constant(startDay, endDay, 1.08f));
+            all.put("INR", constant(startDay, endDay, 90.18f));
+            all.put("GBP", constant(startDay, endDay, 0.84f));
+            return new RateProvider.History(all, null);
+        }
+    }
+
+    private static RateSeries constant(int start, int end, float rate) {
+        RateSeries series = new RateSeries();
+        for (int day = start; day <= end; day++) {
+            series.add(day, rate);
+        }
+        return series;
+    }
+
+    @Test
+    public void severalPairs_costOneDownload() throws IOException {
+        File dir = Files.createTempDirectory("cross").toFile();
+        FakeProvider provider = new FakeProvider();
+        CrossRates crossRates = new CrossRates(new HistoryStore(dir), provider);
+
+        RateHistory usdInr = crossRates.history("USD", "INR", TODAY - 30, TODAY, TODAY, NOW);
+        RateHistory gbpUsd = crossRates.history("GBP", "USD", TODAY - 30, TODAY, TODAY, NOW);
+        RateHistory eurGbp = crossRates.history("EUR", "GBP", TODAY - 7, TODAY, TODAY, NOW);
+
+        assertEquals(1, provider.calls);
+        assertEquals(31, usdInr.size());
+        assertEquals(90.18 / 1.08, usdInr.rateAt(0), 1e-4);
+        assertEquals(1.08 / 0.84, gbpUsd.rateAt(30), 1e-4);
+        assertEquals(8, eurGbp.size());
+        assertEquals(0.84f, eurGbp.rateAt(0), 0f);
+    }
+
+    @Test
+    public void load_saysWhetherItIsCurrentAndHowOld() throws IOException {
+        File dir = Files.createTempDirectory("cross").toFile();
+        FakeProvider provider = new FakeProvider();
+        CrossRates crossRates = new CrossRates(new HistoryStore(dir), provider);
+
+        CrossRates.Loaded loaded = crossRates.load("USD", "INR", TODAY - 7, TODAY, TODAY, NOW);
+        assertTrue(loaded.complete);
+        assertEquals(NOW, loaded.updatedAt);
+
+        // Hours later and offline: the stored days, flagged, with when they were fetched
+        provider.offline = true;
+        long later = NOW + 3 * HistoryStore.TAIL_TTL_MILLIS;
+        loaded = crossRates.load("USD", "INR", TODAY - 30, TODAY, TODAY, later);
+        assertFalse(loaded.complete);
+        assertEquals(NOW, loaded.updatedAt);
+        assertEquals(8, loaded.history.size());
+    }
+
+    @Test
+    public void derive_dropsDaysMissingFromEitherLeg() {
+        RateSeries from = new RateSeries();
+        from.add(1, 2f);
+        from.add(2, 2f);
+        from.add(4, 4f);
+        RateSeries to = new RateSeries();
+        to.add(2, 3f);
+        to.add(3, 3f);
+        to.add(4, 6f);
+
+        RateSeries pair = CrossRates.derive(from, to);
+        assertEquals(2, pair.size());
+        assertEquals(2, pair.dayAt(0));
+        assertEquals(1.5f, pair.rateAt(0), 0f);
+        assertEquals(4, pair.dayAt(1));
+        assertEquals(1.5f, pair.rateAt(1), 0f);
+
+        // Against the base itself the leg is just inverted
+        assertEquals(0.25f, CrossRates.derive(from, null).rateAt(2), 0f);
+    }
+
+    @Test
+    public void parseHistoryAll_splitsSymbolsIntoSeries() throws IOException {
+        String json = "{\"amount\":1.0,\"base\":\"EUR\",\"start_date\":\"2024-06-13\",\"end_date\":\"2024-06-14\","
+                + "\"rates\":{\"2024-06-13\":{\"GBP\":0.8431,\"INR\":90.12,\"USD\":1.0812},"
+                + "\"2024-06-14\":{\"GBP\":0.8442,\"USD\":1.0733}}}";
+        Map<String, RateSeries> all = RatesParser.parseHistoryAll(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, all.size());
+        assertEquals(2, all.get("USD").size());
+        assertEquals(1, all.get("INR").size());
+        assertEquals(TODAY, all.get("GBP").dayAt(1));
+        assertEquals(1.0733f, all.get("USD").rateAt(1), 0f);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class CurrencyIndexTest {
+
+    // FOK is not a platform currency; it is still findable by code
+    private static final CurrencyIndex index = CurrencyIndex.build(Arrays.asList("FOK", "USD"), Locale.UK);
+
+    private static List<String> search(CurrencyIndex.Search search, String text, RateTable available, int... pinned) {
+        int[] out = new int[index.size()];
+        int count = search.run(text, available, pinned, out);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            codes.add(index.codeAt(out[i]));
+        }
+        return codes;
+    }
+
+    @Test
+    public void matchesCodesNamesAndCountries() {
+        CurrencyIndex.Search search = index.newSearch();
+        assertEquals("INR", search(search, "inr", null).get(0));
+        assertTrue(search(search, "rupee", null).contains("INR"));
+        assertTrue(search(search, "india", null).contains("INR"));
+        assertTrue(search(search, "Japan", null).contains("JPY"));
+        assertTrue(search(search, "dollar", null).containsAll(Arrays.asList("USD", "CAD", "AUD")));
+        assertTrue(search(search, "fok", null).contains("FOK"));
+        // Accents do not matter
+        assertEquals(search(search, "peru", null), search(search, "perú", null));
+    }
+
+    @Test
+    public void typingNarrowsAndDeletingWidens() {
+        CurrencyIndex.Search search = index.newSearch();
+        int all = search(search, "", null).size();
+        assertEquals(index.size(), all);
+
+        List<String> u = search(search, "u", null);
+        List<String> us = search(search, "us", null);
+        List<String> usd = search(search, "usd", null);
+        assertTrue(u.size() >= us.size() && us.size() >= usd.size());
+        assertEquals("USD", usd.get(0));
+        // Code matches rank ahead of name and country matches
+        assertEquals("USD", search(search, "us", null).get(0));
+
+        assertEquals(us, search(search, "us", null));
+        assertEquals(u, search(search, "u", null));
+        assertEquals(all, search(search, "", null).size());
+    }
+
+    @Test
+    public void pinsComeFirstAndAvailabilityFilters() throws IOException {
+        CurrencyPins pins = new CurrencyPins(new File(Files.createTempDirectory("pins").toFile(), "pins.properties"));
+        pins.recordUse("JPY");
+        pins.recordUse("EUR");
+        assertTrue(pins.toggleFavourite("INR"));
+        pins.recordUse("INR");
+
+        RateTable table = new RateTable.Builder("USD").put("USD", 1).put("EUR", 0.92).put("INR", 83.2)
+                .put("JPY", 157).put("GBP", 0.79).build();
+        CurrencyIndex.Search search = index.newSearch();
+        assertEquals(Arrays.asList("INR", "EUR", "JPY", "GBP", "USD"), search(search, "", table, pins.pinnedIds(index)));
+        // Pins only come first when they match
+        assertEquals(Arrays.asList("USD"), search(search, "usd", table, pins.pinnedIds(index)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.*;
+
+public class ExactConverterTest {
+
+    private static final ExactConverter CONVERTER = new ExactConverter(new RateTable.Builder("USD")
+            .put("USD", 1)
+            .put("JPY", 157.3)
+            .put("KWD", 0.3066)
+            .put("IRR", 42075.5)
+            .put("VND", 25455.1234)
+            .build());
+
+    private static String convert(String amount, String from, String to, RoundingMode mode) {
+        ExactConverter.Money money = new ExactConverter.Money();
+        assertTrue(money.parse(amount));
+        RateTable table = CONVERTER.table();
+        CONVERTER.convert(table.indexOf(from), table.indexOf(to), money, mode, money);
+        char[] out = new char[money.formattedLength()];
+        return new String(out, 0, money.format(out, 0));
+    }
+
+    @Test
+    public void minorUnits_followIso4217() {
+        assertEquals("15730", convert("100", "USD", "JPY", RoundingMode.HALF_EVEN));
+        assertEquals("30.660", convert("100", "USD", "KWD", RoundingMode.HALF_EVEN));
+        assertEquals("0.64", convert("100", "JPY", "USD", RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    public void roundingModes_applyAtTheLastMinorUnit() {
+        // 0.125 USD in JPY is 19.6625, so whole-yen rounding decides the result
+        assertEquals("20", convert("0.125", "USD", "JPY", RoundingMode.HALF_UP));
+        assertEquals("19", convert("0.125", "USD", "JPY", RoundingMode.DOWN));
+        assertEquals("-19", convert("-0.125", "USD", "JPY", RoundingMode.CEILING));
+        assertEquals("-20", convert("-0.125", "USD", "JPY", RoundingMode.FLOOR));
+        // Exact ties at half a cent
+        assertEquals("0.12", convert("0.125", "USD", "USD", RoundingMode.HALF_EVEN));
+        assertEquals("0.14", convert("0.135", "USD", "USD", RoundingMode.HALF_EVEN));
+        assertEquals("0.13", convert("0.125", "USD", "USD", RoundingMode.HALF_UP));
+        assertEquals("0.12", convert("0.125", "USD", "USD", RoundingMode.HALF_DOWN));
+    }
+
+    @Test
+    public void largeAmounts_matchBigDecimalToThePenny() {
+        String[] amounts = {"0.01", "999999999.99", "123456789012.345", "98765432109876543.21"};
+        RateTable table = CONVERTER.table();
+        for (String amount : amounts) {
+            for (int from = 0; from < table.size(); from++) {
+                for (int to = 0; to < table.size(); to++) {
+                    BigDecimal expected = new BigDecimal(amount)
+                            .multiply(BigDecimal.valueOf(table.rateAt(to)))
+                            .divide(BigDecimal.valueOf(table.rateAt(from)),
+                                    ExactConverter.minorUnits(table.codeAt(to)), RoundingMode.HALF_EVEN);
+                    assertEquals(amount + " " + table.codeAt(from) + "->" + table.codeAt(to),
+                            expected.toPlainString(),
+                            convert(amount, table.codeAt(from), table.codeAt(to), RoundingMode.HALF_EVEN));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parse_rejectsNonNumbers() {
+        ExactConverter.Money money = new ExactConverter.Money();
+        assertFalse(money.parse(""));
+        assertFalse(money.parse("-"));
+        assertFalse(money.parse("1.2.3"));
+        assertFalse(money.parse("12e3"));
+        assertTrue(money.parse(" 12.50 "));
+        assertEquals(new BigDecimal("12.50"), money.toBigDecimal());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HistoricalConverterTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+
+    private HttpServer server;
+    private File dir;
+    private HistoricalConverter converter;
+    private final AtomicInteger historyRequests = new AtomicInteger();
+
+    // Published against EUR on business days only, like the real source
+    private static float inrPerEur(int day) {
+        return 80 + (day % 100) / 10f;
+    }
+
+    private static boolean isWeekend(int day) {
+        return EpochDays.dayOfWeek(day) >= 6;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("historical").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/history/", exchange -> {
+            historyRequests.incrementAndGet();
+            String[] range = exchange.getRequestURI().getPath().substring("/history/".length()).split("\\.\\.");
+            int start = EpochDays.parse(range[0]);
+            int end = EpochDays.parse(range[1]);
+            StringBuilder json = new StringBuilder("{\"base\":\"EUR\",\"rates\":{");
+            boolean first = true;
+            for (int day = start; day <= end; day++) {
+                if (isWeekend(day)) {
+                    continue;
+                }
+                json.append(first ? "" : ",").append('"').append(EpochDays.format(day))
+                        .append("\":{\"INR\":").append(inrPerEur(day)).append(",\"USD\":1.08}");
+                first = false;
+            }
+            byte[] bytes = json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        converter = new HistoricalConverter(new RatesApi(new HttpClient(null, 1000, 1000),
+                new RateCache(new File(dir, "latest.bin")), new HistoryStore(new File(dir, "history")),
+                url + "/latest", url + "/history/"));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void weekendsUseThePreviousBusinessDay() throws IOException {
+        int friday = EpochDays.of(2024, 6, 7);
+        int saturday = friday + 1;
+        int monday = friday + 3;
+        assertFalse(isWeekend(friday));
+        assertTrue(isWeekend(saturday));
+
+        HistoricalConverter.Batch batch = new HistoricalConverter.Batch();
+        batch.add("EUR", "INR", friday, 1250);
+        batch.add("EUR", "INR", saturday, 1250);
+        batch.add("EUR", "INR", monday, 1250);
+        batch.add("USD", "INR", saturday, 100);
+        batch.add("INR", "INR", saturday, 5);
+        batch.add("EUR", "INR", TODAY + 1, 1);
+        HistoricalConverter.Result result = converter.convert(batch, TODAY, NOW);
+
+        assertEquals(1250.0 * inrPerEur(friday), result.amounts[0], 1e-6);
+        assertEquals(friday, result.rateDays[1]);
+        assertEquals(result.amounts[0], result.amounts[1], 0);
+        assertEquals(monday, result.rateDays[2]);
+        assertEquals(100.0 * inrPerEur(friday) / 1.08f, result.amounts[3], 1e-3);
+        assertEquals(5, result.amounts[4], 0);
+        // Nothing is published for the future
+        assertTrue(Double.isNaN(result.amounts[5]));
+        assertEquals(HistoricalConverter.NO_RATE, result.rateDays[5]);
+    }
+
+    @Test
+    public void largeBatch_fetchesOnceThenRunsLocally() throws IOException {
+        Random random = new Random(7);
+        HistoricalConverter.Batch batch = new HistoricalConverter.Batch();
+        String[] codes = {"EUR", "INR", "USD"};
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(codes[random.nextInt(3)], codes[random.nextInt(3)], TODAY - 1 - random.nextInt(700), 1 + random.nextInt(5000));
+        }
+
+        HistoricalConverter.Result result = converter.convert(batch, TODAY, NOW);
+        // Every date and pair came from one range request
+        assertEquals(1, historyRequests.get());
+        for (int i = 0; i < batch.size(); i++) {
+            assertFalse("conversion " + i, Double.isNaN(result.amounts[i]));
+            assertTrue(result.rateDays[i] <= batch.days[i]);
+            assertFalse(isWeekend(result.rateDays[i]) && !batch.from[i].equals(batch.to[i]));
+        }
+
+        // The same dates again never touch the network
+        HistoricalConverter.Result again = converter.convert(batch, TODAY, NOW + 1000);
+        assertEquals(1, historyRequests.get());
+        assertArrayEquals(result.amounts, again.amounts, 0);
+    }
+
+    @Test
+    public void floorIndex_findsLastPointOnOrBefore() {
+        RateSeries series = new RateSeries();
+        series.add(10, 1f);
+        series.add(12, 2f);
+        series.add(15, 3f);
+        assertEquals(-1, HistoricalConverter.floorIndex(series, 9));
+        assertEquals(0, HistoricalConverter.floorIndex(series, 10));
+        assertEquals(1, HistoricalConverter.floorIndex(series, 14));
+        assertEquals(2, HistoricalConverter.floorIndex(series, 40));
+    }
+}
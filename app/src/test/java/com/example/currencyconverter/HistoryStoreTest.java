@@ -0,0 +1,104 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryStoreTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+
+    private static RateSeries daily(int start, int end, float base) {
+        RateSeries series = new RateSeries();
+        for (int day = start; day <= end; day++) {
+            series.add(day, base + (day - start) * 0.01f);
+        }
+        return series;
+    }
+
+    @Test
+    public void rangeSet_mergesAndReportsGaps() {
+        RangeSet set = new RangeSet();
+        set.add(10, 20);
+        set.add(30, 40);
+        set.add(21, 25);
+        assertEquals(2, set.size());
+        assertEquals(10, set.startAt(0));
+        assertEquals(25, set.endAt(0));
+
+        List<int[]> gaps = set.missing(0, 50);
+        assertEquals(3, gaps.size());
+        assertArrayEquals(new int[]{0, 9}, gaps.get(0));
+        assertArrayEquals(new int[]{26, 29}, gaps.get(1));
+        assertArrayEquals(new int[]{41, 50}, gaps.get(2));
+
+        set.add(5, 45);
+        assertEquals(1, set.size());
+        assertTrue(set.missing(5, 45).isEmpty());
+    }
+
+    @Test
+    public void subsetOfFetchedWindow_needsNoNetwork() throws IOException {
+        File dir = Files.createTempDirectory("history").toFile();
+        HistoryStore.Pair pair = new HistoryStore(dir).open("USD", "INR");
+
+        int yearStart = TODAY - 365;
+        List<int[]> gaps = pair.missing(yearStart, TODAY, TODAY, NOW);
+        assertEquals(1, gaps.size());
+        pair.merge(daily(yearStart, TODAY, 80f), yearStart, TODAY, TODAY, NOW);
+
+        // A month inside the year is fully local while the tail is still fresh
+        assertTrue(pair.missing(TODAY - 30, TODAY, TODAY, NOW + 1000).isEmpty());
+        assertEquals(31, pair.slice(TODAY - 30, TODAY).size());
+
+        // After the tail TTL only today is asked for again
+        gaps = pair.missing(TODAY - 30, TODAY, TODAY, NOW + HistoryStore.TAIL_TTL_MILLIS);
+        assertEquals(1, gaps.size());
+        assertArrayEquals(new int[]{TODAY, TODAY}, gaps.get(0));
+    }
+
+    @Test
+    public void reopenedStore_keepsPointsAndCoverage() throws IOException {
+        File dir = Files.createTempDirectory("history").toFile();
+        int start = TODAY - 60;
+        new HistoryStore(dir).open("EUR", "JPY").merge(daily(start, TODAY - 10, 160f), start, TODAY - 10, TODAY, NOW);
+
+        HistoryStore.Pair reopened = new HistoryStore(dir).open("EUR", "JPY");
+        RateHistory slice = reopened.slice(start, TODAY);
+        assertEquals(51, slice.size());
+        assertEquals(160f, slice.rateAt(0), 0f);
+
+        List<int[]> gaps = reopened.missing(start - 30, TODAY - 1, TODAY, NOW);
+        assertEquals(2, gaps.size());
+        assertArrayEquals(new int[]{start - 30, start - 1}, gaps.get(0));
+        assertArrayEquals(new int[]{TODAY - 9, TODAY - 1}, gaps.get(1));
+    }
+
+    @Test
+    public void appendsInPlaceAndRewritesForOlderDays() throws IOException {
+        File dir = Files.createTempDirectory("history").toFile();
+        HistoryStore.Pair pair = new HistoryStore(dir).open("USD", "CHF");
+        int start = TODAY - 30;
+        pair.merge(daily(start, TODAY - 20, 0.9f), start, TODAY - 20, TODAY, NOW);
+        long length = new File(dir, "USD_CHF.bin").length();
+
+        // Newer days fit in the column slack without changing the file
+        pair.merge(daily(TODAY - 19, TODAY - 1, 0.95f), TODAY - 19, TODAY - 1, TODAY, NOW);
+        assertEquals(length, new File(dir, "USD_CHF.bin").length());
+
+        // Older days force a rewrite; the merged column stays sorted
+        pair.merge(daily(start - 400, start - 1, 0.8f), start - 400, start - 1, TODAY, NOW);
+        RateHistory all = new HistoryStore(dir).open("USD", "CHF").slice(start - 400, TODAY);
+        assertEquals(430, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertEquals(all.dayAt(i - 1) + 1, all.dayAt(i));
+        }
+        assertEquals(0.95f, all.rateAt(all.size() - 19), 0f);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class HttpClientTest {
+
+    private static final String BODY = "{\"base_code\":\"USD\",\"rates\":{\"USD\":1,\"INR\":83.1}}";
+
+    private HttpServer server;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private String baseUrl;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/latest", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (encoding != null && encoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void gzipBody_isDecoded() throws IOException {
+        HttpClient client = new HttpClient(null, 1000, 1000);
+        try (HttpClient.Response response = client.get(baseUrl + "/latest", false)) {
+            assertFalse(response.notModified);
+            assertEquals(BODY, read(response.body()));
+        }
+    }
+
+    @Test
+    public void storedEtag_turnsRepeatIntoNotModified() throws IOException {
+        File validators = new File(Files.createTempDirectory("http").toFile(), "validators.properties");
+        HttpClient client = new HttpClient(validators, 1000, 1000);
+        try (HttpClient.Response response = client.get(baseUrl + "/latest", true)) {
+            read(response.body());
+            response.commit();
+        }
+
+        // A new client picks the ETag up from disk
+        HttpClient restarted = new HttpClient(validators, 1000, 1000);
+        try (HttpClient.Response response = restarted.get(baseUrl + "/latest", true)) {
+            assertTrue(response.notModified);
+        }
+        // Without the conditional flag the full body is fetched again
+        try (HttpClient.Response response = restarted.get(baseUrl + "/latest", false)) {
+            assertEquals(BODY, read(response.body()));
+        }
+        assertEquals(2, fullResponses.get());
+    }
+
+    @Test
+    public void uncommittedResponse_leavesNoValidators() throws IOException {
+        File validators = new File(Files.createTempDirectory("http").toFile(), "validators.properties");
+        HttpClient client = new HttpClient(validators, 1000, 1000);
+        // Read but never stored, e.g. the parse failed: the next request must not get a 304
+        try (HttpClient.Response response = client.get(baseUrl + "/latest", true)) {
+            read(response.body());
+        }
+        try (HttpClient.Response response = client.get(baseUrl + "/latest", true)) {
+            assertFalse(response.notModified);
+        }
+    }
+
+    @Test
+    public void validators_areCappedToRecentUrls() throws IOException {
+        File validators = new File(Files.createTempDirectory("http").toFile(), "validators.properties");
+        HttpClient client = new HttpClient(validators, 1000, 1000);
+        // Dated URLs, as history ranges are; the server ignores the query
+        for (int day = 0; day < HttpClient.MAX_VALIDATOR_URLS * 2; day++) {
+            try (HttpClient.Response response = client.get(baseUrl + "/latest?day=" + day, false)) {
+                read(response.body());
+                response.commit();
+            }
+        }
+        Properties stored = new Properties();
+        try (InputStream in = new FileInputStream(validators)) {
+            stored.load(in);
+        }
+        assertEquals(HttpClient.MAX_VALIDATOR_URLS, stored.size());
+        assertNotNull(stored.getProperty(baseUrl + "/latest?day=" + (HttpClient.MAX_VALIDATOR_URLS * 2 - 1)));
+    }
+
+    @Test(expected = SocketTimeoutException.class)
+    public void slowServer_hitsReadTimeout() throws IOException {
+        new HttpClient(null, 1000, 200).get(baseUrl + "/slow", false);
+    }
+
+    @Test(expected = IOException.class)
+    public void errorStatus_throws() throws IOException {
+        new HttpClient(null, 1000, 1000).get(baseUrl + "/missing", false);
+    }
+}
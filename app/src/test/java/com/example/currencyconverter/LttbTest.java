@@ -0,0 +1,73 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LttbTest {
+
+    private static RateSeries wave(int size) {
+        RateSeries series = new RateSeries(size);
+        for (int i = 0; i < size; i++) {
+            series.add(i, 80f + (float) Math.sin(i / 40.0) * 3f);
+        }
+        return series;
+    }
+
+    @Test
+    public void shortSeries_isKeptWhole() {
+        RateSeries series = wave(10);
+        int[] out = new int[20];
+        assertEquals(10, Lttb.select(series, 0, 10, 20, out, 0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, out[i]);
+        }
+    }
+
+    @Test
+    public void longSeries_keepsEndsOrderAndSpikes() {
+        RateSeries series = wave(1300);
+        series.add(777, 95f);
+        series.add(901, 60f);
+
+        int[] out = new int[300];
+        int count = Lttb.select(series, 0, series.size(), 300, out, 0);
+
+        assertEquals(300, count);
+        assertEquals(0, out[0]);
+        assertEquals(1299, out[count - 1]);
+        boolean high = false;
+        boolean low = false;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                assertTrue(out[i] > out[i - 1]);
+            }
+            high |= out[i] == 777;
+            low |= out[i] == 901;
+        }
+        assertTrue("spike kept", high);
+        assertTrue("dip kept", low);
+    }
+
+    @Test
+    public void focus_addsDetailInsideWindowOnly() {
+        RateSeries series = wave(1825);
+        int[] out = new int[Lttb.capacity(400, 50)];
+        int count = Lttb.selectWithFocus(series, 1000, 1200, 400, 50, out);
+
+        // The 200-point window is kept whole; each side gets at most 50
+        int inside = 0;
+        for (int i = 0; i < count; i++) {
+            if (out[i] >= 1000 && out[i] < 1200) {
+                inside++;
+            }
+            if (i > 0) {
+                assertTrue(out[i] > out[i - 1]);
+            }
+        }
+        assertEquals(200, inside);
+        assertEquals(300, count);
+        assertEquals(0, out[0]);
+        assertEquals(1824, out[count - 1]);
+    }
+}
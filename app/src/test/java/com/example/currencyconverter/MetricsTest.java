@@ -0,0 +1,107 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @Test
+    public void buckets_coverEveryValueInOrder() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertTrue(Metrics.Histogram.bucketStart(bucket) <= value);
+            assertTrue(value < Metrics.Histogram.bucketStart(bucket + 1));
+        }
+    }
+
+    @Test
+    public void percentiles_withinBucketError() {
+        Metrics.Histogram histogram = Metrics.histogram("test.percentiles");
+        List<Long> values = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            long value = (long) Math.abs(random.nextGaussian() * 5000);
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(null);
+        for (double quantile : new double[] {0.5, 0.95, 0.99}) {
+            long exact = values.get((int) Math.ceil(quantile * values.size()) - 1);
+            assertEquals(exact, histogram.percentile(quantile), exact * 0.125 + 1);
+        }
+        assertEquals(values.get(values.size() - 1).longValue(), histogram.max());
+        assertEquals(10_000, histogram.count());
+    }
+
+    @Test
+    public void concurrentRecording_losesNothing() throws InterruptedException {
+        Metrics.Counter counter = Metrics.counter("test.concurrent");
+        Metrics.Histogram histogram = Metrics.histogram("test.concurrent.histogram");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    counter.increment();
+                    histogram.record(i + offset);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, counter.value());
+        assertEquals(200_000, histogram.count());
+        assertEquals(49_999 + 3, histogram.max());
+    }
+
+    @Test
+    public void timer_bracketsTraceSection() {
+        StringBuilder trace = new StringBuilder();
+        Metrics.setTracer(new Metrics.Tracer() {
+            @Override
+            public void begin(String section) {
+                trace.append('<').append(section);
+            }
+
+            @Override
+            public void end() {
+                trace.append('>');
+            }
+        });
+        try {
+            Metrics.Timer timer = Metrics.timer("test.timer");
+            long start = timer.start();
+            timer.stop(start);
+            assertEquals("<test.timer>", trace.toString());
+            assertEquals(1, timer.histogram().count());
+        } finally {
+            Metrics.setTracer(null);
+        }
+    }
+
+    @Test
+    public void json_listsCountersAndHistograms() throws IOException {
+        Metrics.counter("test.json.counter").add(3);
+        Metrics.histogram("test.json.histogram").record(7);
+        // Same name, same metric
+        assertSame(Metrics.CONVERSION, Metrics.timer("convert"));
+
+        StringWriter out = new StringWriter();
+        Metrics.writeJson(out);
+        String json = out.toString();
+        assertTrue(json, json.startsWith("{\"counters\":{\"http.requests\":"));
+        assertTrue(json, json.contains("\"test.json.counter\":3"));
+        assertTrue(json, json.contains("\"test.json.histogram\":{\"count\":1,\"mean\":7,\"p50\":7,\"p95\":7,\"p99\":7,\"max\":7}"));
+        assertTrue(json, json.contains("\"convert\":{"));
+        assertTrue(json, json.endsWith("}}"));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class PrefetcherTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+
+    private HttpServer server;
+    private File dir;
+    private RatesApi api;
+    private SyncState state;
+    private final AtomicInteger historyRequests = new AtomicInteger();
+    private final AtomicLong historyBytes = new AtomicLong();
+    // Fetched through the same client while a history request is being served, as a screen would
+    private volatile String alsoFetch;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("prefetch").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/history/", exchange -> {
+            historyRequests.incrementAndGet();
+            if (alsoFetch != null) {
+                try (HttpClient.Response response = api.http().get(alsoFetch, false);
+                     InputStream body = response.body()) {
+                    while (body.read() >= 0) {
+                        // drain
+                    }
+                }
+            }
+            String[] range = exchange.getRequestURI().getPath().substring("/history/".length()).split("\\.\\.");
+            int start = EpochDays.parse(range[0]);
+            int end = EpochDays.parse(range[1]);
+            StringBuilder json = new StringBuilder("{\"base\":\"EUR\",\"rates\":{");
+            for (int day = start; day <= end; day++) {
+                json.append(day > start ? "," : "").append('"').append(EpochDays.format(day))
+                        .append("\":{\"GBP\":0.85,\"INR\":90.1,\"USD\":1.08}");
+            }
+            byte[] bytes = json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+            historyBytes.addAndGet(bytes.length);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        api = new RatesApi(new HttpClient(null, 1000, 1000), new RateCache(new File(dir, "latest.bin")),
+                new HistoryStore(new File(dir, "history")), url + "/latest", url + "/history/");
+        state = new SyncState(new File(dir, "state.properties"));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void plan_followsPickedRangesThenRecentPairs() {
+        Prefetcher prefetcher = new Prefetcher(api, state, Prefetcher.DAILY_BUDGET_BYTES);
+        // Nothing known yet: the month view is the usual next step
+        assertEquals(Collections.singletonList(new Prefetcher.Step("USD", "INR", 30)),
+                prefetcher.plan("USD", "INR", 7));
+
+        for (int i = 0; i < 3; i++) {
+            state.recordRange(365);
+        }
+        state.recordRange(30);
+        state.recordRange(5);
+        state.recordView("GBP", "USD");
+        state.recordView("EUR", "GBP");
+        state.recordView("USD", "INR");
+
+        // 30 is inside the 365 already planned; 5 is inside what is on screen
+        List<Prefetcher.Step> plan = prefetcher.plan("USD", "INR", 7);
+        assertEquals(Arrays.asList(
+                new Prefetcher.Step("USD", "INR", 365),
+                new Prefetcher.Step("EUR", "GBP", 365),
+                new Prefetcher.Step("GBP", "USD", 365)), plan);
+    }
+
+    @Test
+    public void rangeCounts_fadeSoNewHabitsWin() {
+        for (int i = 0; i <= SyncState.MAX_RANGE_COUNT; i++) {
+            state.recordRange(365);
+        }
+        for (int i = 0; i < SyncState.MAX_RANGE_COUNT / 2 + 1; i++) {
+            state.recordRange(30);
+        }
+        assertArrayEquals(new int[] {30, 365}, state.likelyRanges());
+    }
+
+    @Test
+    public void run_landsInStoreSoTheChartNeedsNoRequest() throws IOException {
+        Prefetcher prefetcher = new Prefetcher(api, state, Prefetcher.DAILY_BUDGET_BYTES);
+        Prefetcher.Result result = prefetcher.run(Collections.singletonList(new Prefetcher.Step("USD", "INR", 365)), TODAY, NOW);
+        assertEquals(1, result.stepsDone);
+        int fetched = historyRequests.get();
+        assertTrue(state.prefetchBytesSpent(TODAY) > 0);
+        // Sync's budget is untouched
+        assertEquals(0, state.bytesSpent(TODAY));
+
+        // Switching to 1Y and then 1M reads the store only
+        assertEquals(366, api.history("USD", "INR", TODAY - 365, TODAY, TODAY, NOW).size());
+        assertEquals(31, api.history("USD", "INR", TODAY - 30, TODAY, TODAY, NOW).size());
+        assertEquals(fetched, historyRequests.get());
+    }
+
+    @Test
+    public void run_chargesOnlyItsOwnRequests() throws IOException {
+        HttpServer other = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] large = new byte[32 * 1024];
+        other.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, large.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(large);
+            }
+        });
+        other.start();
+        try {
+            alsoFetch = "http://127.0.0.1:" + other.getAddress().getPort() + "/large";
+            Prefetcher prefetcher = new Prefetcher(api, state, Prefetcher.DAILY_BUDGET_BYTES);
+            prefetcher.run(Collections.singletonList(new Prefetcher.Step("USD", "INR", 30)), TODAY, NOW);
+        } finally {
+            other.stop(0);
+        }
+
+        // The client saw both downloads; the budget pays for the prefetch alone
+        assertTrue(api.http().bytesReceived() >= historyBytes.get() + large.length);
+        assertEquals(historyBytes.get(), state.prefetchBytesSpent(TODAY));
+    }
+
+    @Test
+    public void run_stopsAtBudgetAndOnInterrupt() throws IOException {
+        List<Prefetcher.Step> steps = Arrays.asList(
+                new Prefetcher.Step("USD", "INR", 30), new Prefetcher.Step("GBP", "USD", 30));
+        Prefetcher tight = new Prefetcher(api, state, 10);
+        Prefetcher.Result result = tight.run(steps, TODAY, NOW);
+        assertEquals(1, result.stepsDone);
+        assertTrue(result.budgetExhausted);
+
+        // The budget is spent for today
+        assertEquals(0, tight.run(steps, TODAY, NOW).stepsDone);
+
+        Prefetcher roomy = new Prefetcher(api, state, Prefetcher.DAILY_BUDGET_BYTES);
+        Thread.currentThread().interrupt();
+        try {
+            Prefetcher.Result cancelled = roomy.run(steps, TODAY, NOW);
+            assertTrue(cancelled.interrupted);
+            assertEquals(0, cancelled.stepsDone);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
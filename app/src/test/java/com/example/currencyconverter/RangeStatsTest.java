@@ -0,0 +1,104 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RangeStatsTest {
+
+    private static RateSeries randomWalk(int size, long seed) {
+        Random random = new Random(seed);
+        RateSeries series = new RateSeries(size);
+        float rate = 83f;
+        for (int i = 0; i < size; i++) {
+            rate *= (float) (1 + random.nextGaussian() * 0.004);
+            series.add(i, rate);
+        }
+        return series;
+    }
+
+    @Test
+    public void everyRange_matchesNaiveLoop() {
+        RateSeries series = randomWalk(300, 3);
+        RangeStats stats = new RangeStats(series);
+        RangeStats.Window window = new RangeStats.Window();
+        Random random = new Random(11);
+        for (int trial = 0; trial < 2000; trial++) {
+            int from = random.nextInt(series.size());
+            int to = from + 1 + random.nextInt(series.size() - from);
+            assertTrue(stats.compute(from, to, window));
+
+            float high = Float.NEGATIVE_INFINITY;
+            float low = Float.POSITIVE_INFINITY;
+            double total = 0;
+            for (int i = from; i < to; i++) {
+                high = Math.max(high, series.rateAt(i));
+                low = Math.min(low, series.rateAt(i));
+                total += series.rateAt(i);
+            }
+            double mean = total / (to - from);
+            double squares = 0;
+            for (int i = from; i < to; i++) {
+                squares += (series.rateAt(i) - mean) * (series.rateAt(i) - mean);
+            }
+            assertEquals(high, window.high, 0f);
+            assertEquals(low, window.low, 0f);
+            assertEquals(mean, window.mean, 1e-9);
+            assertEquals(Math.sqrt(squares / (to - from)), window.stdDev, 1e-6);
+            assertEquals((series.rateAt(to - 1) / series.rateAt(from) - 1) * 100, window.changePercent, 1e-4);
+        }
+    }
+
+    @Test
+    public void volatility_isStdDevOfDailyReturns() {
+        RateSeries series = new RateSeries();
+        float[] rates = {100f, 101f, 99.99f, 101f, 99.99f};
+        for (int i = 0; i < rates.length; i++) {
+            series.add(i, rates[i]);
+        }
+        RangeStats stats = new RangeStats(series);
+        double[] returns = new double[4];
+        double mean = 0;
+        for (int i = 1; i < rates.length; i++) {
+            returns[i - 1] = Math.log((double) rates[i] / rates[i - 1]);
+            mean += returns[i - 1] / 4;
+        }
+        double variance = 0;
+        for (double r : returns) {
+            variance += (r - mean) * (r - mean) / 4;
+        }
+        assertEquals(Math.sqrt(variance) * 100, stats.volatility(0, 5), 1e-9);
+        // A single return has no spread
+        assertEquals(0, stats.volatility(1, 3), 0);
+    }
+
+    @Test
+    public void clampedAndEmptyRanges() {
+        RangeStats stats = new RangeStats(randomWalk(10, 5));
+        RangeStats.Window window = new RangeStats.Window();
+        assertTrue(stats.compute(-5, 50, window));
+        assertEquals(0, window.from);
+        assertEquals(10, window.to);
+        assertFalse(stats.compute(8, 8, window));
+        assertFalse(new RangeStats(new RateSeries(0)).compute(0, 1, window));
+    }
+
+    @Test
+    public void movingAverages_singlePass() {
+        RateSeries series = new RateSeries();
+        for (int i = 0; i < 6; i++) {
+            series.add(i, i + 1);
+        }
+        float[] sma = new float[6];
+        RangeStats.sma(series, 3, sma);
+        assertArrayEquals(new float[] {1f, 1.5f, 2f, 3f, 4f, 5f}, sma, 1e-6f);
+
+        float[] ema = new float[6];
+        RangeStats.ema(series, 3, ema);
+        assertEquals(1f, ema[0], 0f);
+        assertEquals(1.5f, ema[1], 1e-6f);
+        assertEquals(2.25f, ema[2], 1e-6f);
+    }
+}
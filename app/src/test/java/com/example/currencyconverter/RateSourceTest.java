@@ -0,0 +1,278 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RateSourceTest {
+
+    private static final String ER_API_LATEST = "{\"result\":\"success\",\"base_code\":\"USD\","
+            + "\"rates\":{\"USD\":1,\"EUR\":0.93,\"INR\":83.5}}";
+    private static final String FRANKFURTER_LATEST = "{\"amount\":1.0,\"base\":\"EUR\",\"date\":\"2024-06-14\","
+            + "\"rates\":{\"INR\":90.1,\"USD\":1.08}}";
+    private static final String HISTORY = "{\"base\":\"EUR\",\"rates\":{"
+            + "\"2024-06-12\":{\"INR\":90.0,\"USD\":1.07},"
+            + "\"2024-06-13\":{\"INR\":90.1,\"USD\":1.08},"
+            + "\"2024-06-14\":{\"INR\":90.2,\"USD\":1.09}}}";
+
+    /** A local stand-in for one provider whose latency and failures the test controls. */
+    private static final class StandIn {
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger conditionalRequests = new AtomicInteger();
+        volatile int delayMillis;
+        volatile int status = 200;
+
+        StandIn(String latest) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            // Concurrent requests must not queue behind a deliberately slow one
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                if (delayMillis > 0) {
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                    conditionalRequests.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                String body = exchange.getRequestURI().getPath().endsWith("latest") ? latest : HISTORY;
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                respond(exchange, status, body);
+            });
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private StandIn erApi;
+    private StandIn frankfurter;
+    private RateSource source;
+
+    @Before
+    public void setUp() throws IOException {
+        erApi = new StandIn(ER_API_LATEST);
+        frankfurter = new StandIn(FRANKFURTER_LATEST);
+        HttpClient http = new HttpClient(null, 1000, 3000);
+        source = new RateSource(Arrays.asList(
+                new ErApiProvider(http, erApi.url() + "latest"),
+                new FrankfurterProvider(http, frankfurter.url())));
+    }
+
+    @After
+    public void tearDown() {
+        erApi.stop();
+        frankfurter.stop();
+    }
+
+    // Fills the provider's latency window, so its p95 and hence its hedge delay are fixed
+    private static void seedLatency(RateSource source, boolean history, int provider, long millis) {
+        for (int i = 0; i < ProviderStats.LATENCY_SAMPLES; i++) {
+            source.stats(history).get(provider).recordSuccess(millis, 0);
+        }
+    }
+
+    // er-api, frankfurter, then a local provider holding HISTORY
+    private RateSource withLocalHistory() throws IOException {
+        File dir = Files.createTempDirectory("provider").toFile();
+        File historyFile = new File(dir, "history.json");
+        try (Writer writer = new FileWriter(historyFile)) {
+            writer.write(HISTORY);
+        }
+        HttpClient http = new HttpClient(null, 1000, 3000);
+        return new RateSource(Arrays.asList(
+                new ErApiProvider(http, erApi.url() + "latest"),
+                new FrankfurterProvider(http, frankfurter.url()),
+                new LocalFileProvider(new File(dir, "latest.json"), historyFile)));
+    }
+
+    private static double inr(RateProvider.Latest latest) {
+        return latest.table.rateAt(latest.table.indexOf("INR"));
+    }
+
+    @Test
+    public void failingProvider_failsOverAtOnce() throws IOException {
+        erApi.status = 500;
+        long start = System.nanoTime();
+        RateProvider.Latest latest = source.latest(null);
+        // No hedge delay: the failure moved straight on
+        assertTrue(System.nanoTime() - start < 500_000_000L);
+        assertEquals(90.1, inr(latest), 1e-9);
+        // frankfurter's base is in the table even though it is not in the response
+        assertEquals(1, latest.table.rateAt(latest.table.indexOf("EUR")), 0);
+        assertEquals(1, source.stats(false).get(0).totalFailures());
+    }
+
+    @Test
+    public void providerWithinItsP95_isNotHedged() throws IOException {
+        // Far above any loopback round trip, still ranked ahead of frankfurter's unknown p95
+        seedLatency(source, false, 0, 900);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(83.5, inr(source.latest(null)), 1e-9);
+        }
+        assertEquals(0, frankfurter.requests.get());
+    }
+
+    @Test
+    public void slowCompleteTable_isNotHedgedToAPartialOne() throws IOException {
+        seedLatency(source, false, 0, 100);
+        // Many times its p95, yet frankfurter's 30-currency table must not replace er-api's
+        erApi.delayMillis = 600;
+        assertEquals(83.5, inr(source.latest(null)), 1e-9);
+        assertEquals(0, frankfurter.requests.get());
+        assertArrayEquals(new int[] {0, 1}, source.rank(false, 0));
+    }
+
+    @Test
+    public void slowProvider_isHedgedAfterItsP95() throws IOException {
+        RateSource withLocal = withLocalHistory();
+        seedLatency(withLocal, true, 1, 100);
+        assertEquals(100, withLocal.stats(true).get(1).p95Millis());
+
+        frankfurter.delayMillis = 2000;
+        long start = System.nanoTime();
+        Map<String, RateSeries> history = withLocal.history(EpochDays.of(2024, 6, 13), EpochDays.of(2024, 6, 14), false).rates;
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(2, history.get("INR").size());
+        assertTrue("took " + elapsedMillis, elapsedMillis < 1000);
+        assertEquals(1, frankfurter.requests.get());
+    }
+
+    @Test
+    public void latestAndHistory_keepSeparateStats() throws IOException {
+        seedLatency(source, true, 1, 2500);
+        // A slow year of history does not stretch the hedge delay of latest requests
+        assertEquals(-1, source.stats(false).get(1).p95Millis());
+        assertEquals(2500, source.stats(true).get(1).p95Millis());
+    }
+
+    @Test
+    public void unhealthyProvider_isTriedLast() throws IOException {
+        RateSource withLocal = withLocalHistory();
+        int start = EpochDays.of(2024, 6, 13);
+        int end = EpochDays.of(2024, 6, 14);
+        frankfurter.status = 503;
+        for (int i = 0; i < ProviderStats.MIN_OUTCOME_SAMPLES; i++) {
+            withLocal.history(start, end, false);
+        }
+        assertEquals(ProviderStats.MIN_OUTCOME_SAMPLES, frankfurter.requests.get());
+        assertEquals(1.0, withLocal.stats(true).get(1).errorRate(), 0);
+
+        // The local file answers now, so frankfurter is not asked at all
+        withLocal.history(start, end, false);
+        assertEquals(ProviderStats.MIN_OUTCOME_SAMPLES, frankfurter.requests.get());
+        assertArrayEquals(new int[] {2, 1}, withLocal.rank(true, System.currentTimeMillis()));
+        // ...until it has been left alone long enough to be probed again
+        assertArrayEquals(new int[] {1, 2},
+                withLocal.rank(true, System.currentTimeMillis() + ProviderStats.RETRY_UNHEALTHY_MILLIS));
+        // Failing history says nothing about latest rates
+        assertTrue(withLocal.stats(false).get(1).isHealthy(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void ranking_prefersFasterP95() {
+        RateSource ranked = new RateSource(Arrays.asList(new ErApiProvider(null, "unused"),
+                new FrankfurterProvider(null, "unused"), new LocalFileProvider(null, null)));
+        for (int i = 0; i < ProviderStats.LATENCY_SAMPLES; i++) {
+            ranked.stats(true).get(1).recordSuccess(i < 60 ? 40 : 900, 0);
+            ranked.stats(true).get(2).recordSuccess(120, 0);
+            ranked.stats(false).get(0).recordSuccess(900, 0);
+            ranked.stats(false).get(1).recordSuccess(40, 0);
+        }
+        // frankfurter's typical request is faster, but its tail is what hedging waits on
+        assertEquals(900, ranked.stats(true).get(1).p95Millis());
+        // History never goes to a provider without it
+        assertArrayEquals(new int[] {2, 1}, ranked.rank(true, 0));
+        // Partial latest tables come after the complete one, however fast
+        assertArrayEquals(new int[] {0, 1, 2}, ranked.rank(false, 0));
+    }
+
+    @Test
+    public void history_fallsBackToLocalFile() throws IOException {
+        frankfurter.status = 500;
+        RateSource withLocal = withLocalHistory();
+
+        Map<String, RateSeries> history = withLocal.history(EpochDays.of(2024, 6, 13), EpochDays.of(2024, 6, 14), false).rates;
+        assertEquals(2, history.get("INR").size());
+        assertEquals(90.2f, history.get("INR").rateAt(1), 0);
+        assertEquals(0, erApi.requests.get());
+    }
+
+    @Test
+    public void conditionalRequest_onlyGoesToTheCachedTablesProvider() throws IOException {
+        // Validators are only kept with a file to keep them in
+        HttpClient http = new HttpClient(File.createTempFile("validators", ".properties"), 1000, 3000);
+        RateSource source = new RateSource(Arrays.asList(
+                new ErApiProvider(http, erApi.url() + "latest"),
+                new FrankfurterProvider(http, frankfurter.url())));
+        erApi.status = 500;
+        // frankfurter answers and, once the table is stored, its ETag is kept
+        RateProvider.Latest first = source.latest(null);
+        assertEquals("frankfurter", first.provider);
+        first.commit();
+
+        // The cached table is er-api's: frankfurter must send a full table, not a 304
+        RateProvider.Latest latest = source.latest("er-api");
+        assertFalse(latest.notModified);
+        assertEquals(90.1, inr(latest), 1e-9);
+        assertEquals(0, frankfurter.conditionalRequests.get());
+
+        latest = source.latest("frankfurter");
+        assertTrue(latest.notModified);
+        assertEquals("frankfurter", latest.provider);
+        assertEquals(1, frankfurter.conditionalRequests.get());
+    }
+
+    @Test
+    public void everyProviderDown_throwsWithAllCauses() {
+        erApi.status = 500;
+        frankfurter.status = 502;
+        try {
+            source.latest(null);
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertEquals(1, e.getSuppressed().length);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RateSyncTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+    private static final String LATEST = "{\"result\":\"success\",\"base_code\":\"USD\","
+            + "\"rates\":{\"USD\":1,\"EUR\":0.93,\"GBP\":0.79,\"INR\":83.5}}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private File dir;
+    private final AtomicInteger latestRequests = new AtomicInteger();
+    private final AtomicInteger historyRequests = new AtomicInteger();
+    // Fetched through the same client while the latest rates are being served, as a screen would
+    private volatile HttpClient screenHttp;
+    private volatile String screenUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("sync").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/latest", exchange -> {
+            latestRequests.incrementAndGet();
+            if (screenUrl != null) {
+                try (HttpClient.Response response = screenHttp.get(screenUrl, false);
+                     InputStream body = response.body()) {
+                    while (body.read() >= 0) {
+                        // drain
+                    }
+                }
+            }
+            respond(exchange, LATEST);
+        });
+        // Serves /history/<start>..<end> in frankfurter's shape, every day against EUR
+        server.createContext("/history/", exchange -> {
+            historyRequests.incrementAndGet();
+            String[] range = exchange.getRequestURI().getPath().substring("/history/".length()).split("\\.\\.");
+            int start = EpochDays.parse(range[0]);
+            int end = EpochDays.parse(range[1]);
+            StringBuilder json = new StringBuilder("{\"base\":\"EUR\",\"rates\":{");
+            for (int day = start; day <= end; day++) {
+                json.append(day > start ? "," : "").append('"').append(EpochDays.format(day))
+                        .append("\":{\"GBP\":0.85,\"INR\":90.1,\"USD\":1.08}");
+            }
+            respond(exchange, json.append("}}").toString());
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private RatesApi api(String url) {
+        return new RatesApi(new HttpClient(null, 1000, 1000), new RateCache(new File(dir, "latest.bin")),
+                new HistoryStore(new File(dir, "history")), url + "/latest", url + "/history/");
+    }
+
+    @Test
+    public void sync_leavesEverythingReadableOffline() {
+        SyncState state = new SyncState(new File(dir, "state.properties"));
+        state.recordView("USD", "INR");
+        state.recordView("GBP", "USD");
+
+        RateSync.Result result = new RateSync(api(baseUrl), state, SyncPolicy.DEFAULT).run(TODAY, NOW);
+        assertTrue(result.latestRefreshed);
+        assertEquals(2, result.pairsSynced);
+        assertFalse(result.failed);
+        // Both pairs came out of one EUR-base download
+        assertEquals(1, historyRequests.get());
+        assertEquals(NOW, state.lastSyncAt());
+
+        // A fresh process with the network gone still has both latest rates and history
+        server.stop(0);
+        RatesApi offline = api("http://127.0.0.1:9");
+        assertNotNull(offline.rateCache().load());
+        assertEquals(83.5, offline.rateCache().load().table.rateAt(offline.rateCache().load().table.indexOf("INR")), 0);
+        try {
+            RateHistory history = offline.history("USD", "INR", TODAY - 30, TODAY - 1, TODAY, NOW);
+            assertEquals(30, history.size());
+        } catch (IOException e) {
+            fail("history should be served from the store: " + e);
+        }
+    }
+
+    @Test
+    public void budget_stopsPairsAndLaterRuns() {
+        SyncState state = new SyncState(new File(dir, "state.properties"));
+        state.recordView("USD", "INR");
+        SyncPolicy tight = new SyncPolicy.Builder().dailyBudgetBytes(10).build();
+
+        RateSync.Result first = new RateSync(api(baseUrl), state, tight).run(TODAY, NOW);
+        assertTrue(first.latestRefreshed);
+        assertTrue(first.budgetExhausted);
+        assertEquals(0, first.pairsSynced);
+
+        RateSync.Result second = new RateSync(api(baseUrl), state, tight).run(TODAY, NOW + 60_000);
+        assertTrue(second.budgetExhausted);
+        assertEquals(1, latestRequests.get());
+
+        // The budget is per day
+        assertEquals(0, state.bytesSpent(TODAY + 1));
+    }
+
+    @Test
+    public void budget_chargesOnlyTheSyncsOwnRequests() throws IOException {
+        HttpServer other = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        byte[] large = new byte[32 * 1024];
+        other.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, large.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(large);
+            }
+        });
+        other.start();
+        SyncState state = new SyncState(new File(dir, "state.properties"));
+        RatesApi api = api(baseUrl);
+        try {
+            screenHttp = api.http();
+            screenUrl = "http://127.0.0.1:" + other.getAddress().getPort() + "/large";
+            assertTrue(new RateSync(api, state, SyncPolicy.DEFAULT).run(TODAY, NOW).latestRefreshed);
+        } finally {
+            other.stop(0);
+        }
+
+        // The client saw both downloads; the budget pays for the sync alone
+        int latestBytes = LATEST.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(api.http().bytesReceived() >= latestBytes + large.length);
+        assertEquals(latestBytes, state.bytesSpent(TODAY));
+    }
+
+    @Test
+    public void pairsPerRun_limitsBatch() {
+        SyncState state = new SyncState(new File(dir, "state.properties"));
+        state.recordView("USD", "INR");
+        state.recordView("GBP", "INR");
+        state.recordView("EUR", "USD");
+        assertEquals("EUR:USD", state.recentPairs().get(0));
+
+        SyncPolicy onePair = new SyncPolicy.Builder().pairsPerRun(1).build();
+        RateSync.Result result = new RateSync(api(baseUrl), state, onePair).run(TODAY, NOW);
+        assertEquals(1, result.pairsSynced);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateTableTest {
+
+    private RateTable sampleTable() {
+        return new RateTable.Builder("USD")
+                .put("USD", 1.0)
+                .put("INR", 83.2)
+                .put("EUR", 0.92)
+                .put("JPY", 151.4)
+                .build();
+    }
+
+    @Test
+    public void codes_areSortedAndIndexed() {
+        RateTable table = sampleTable();
+        assertArrayEquals(new String[]{"EUR", "INR", "JPY", "USD"}, table.codes());
+        assertEquals(1, table.indexOf("INR"));
+        assertEquals(RateTable.NOT_FOUND, table.indexOf("GBP"));
+        assertEquals(RateTable.NOT_FOUND, table.indexOf("usd"));
+        assertEquals("USD", table.base());
+    }
+
+    @Test
+    public void convert_matchesUsdCrossFormula() {
+        RateTable table = sampleTable();
+        int eur = table.indexOf("EUR");
+        int inr = table.indexOf("INR");
+        assertEquals((100 / 0.92) * 83.2, table.convert(eur, inr, 100), 0.0);
+        assertEquals(100, table.convert(inr, inr, 100), 1e-9);
+    }
+
+    @Test
+    public void pack_roundTripsAllCodes() {
+        for (char a = 'A'; a <= 'Z'; a++) {
+            for (char b = 'A'; b <= 'Z'; b++) {
+                String code = new String(new char[]{a, b, 'Z'});
+                short packed = RateTable.pack(code);
+                assertTrue(packed >= 0);
+                assertEquals(code, RateTable.unpack(packed));
+            }
+        }
+        assertEquals(-1, RateTable.pack("US"));
+        assertEquals(-1, RateTable.pack("U1D"));
+    }
+
+    @Test
+    public void builder_skipsInvalidAndKeepsLastDuplicate() {
+        RateTable table = new RateTable.Builder("USD")
+                .put("AAA", 0)
+                .put("BBB", Double.NaN)
+                .put("CCC", 2.0)
+                .put("CCC", 3.0)
+                .build();
+        assertEquals(1, table.size());
+        assertEquals(3.0, table.rateAt(0), 0.0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class RatesParserTest {
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void parseLatest_readsRatesAndNextUpdate() throws IOException {
+        String json = "{\"result\":\"success\",\"provider\":\"https://www.exchangerate-api.com\","
+                + "\"documentation\":\"https://www.exchangerate-api.com/docs/free\","
+                + "\"time_last_update_unix\":1712966551,\"time_next_update_unix\":1713053701,"
+                + "\"base_code\":\"USD\",\"rates\":{\"USD\":1,\"AED\":3.6725,\"INR\":83.459124,"
+                + "\"JPY\":153.2,\"XDR\":0.759151,\"TINY\":1e-3}}";
+
+        RatesParser.LatestRates latest = RatesParser.parseLatest(stream(json));
+
+        assertEquals(1713053701L, latest.nextUpdateUnix);
+        assertEquals("USD", latest.table.base());
+        assertEquals(5, latest.table.size());
+        assertEquals(83.459124, latest.table.rateAt(latest.table.indexOf("INR")), 0.0);
+        assertEquals(3.6725, latest.table.rateAt(latest.table.indexOf("AED")), 0.0);
+    }
+
+    @Test(expected = IOException.class)
+    public void parseLatest_rejectsErrorResult() throws IOException {
+        RatesParser.parseLatest(stream("{\"result\":\"error\",\"error-type\":\"unsupported-code\"}"));
+    }
+
+    @Test
+    public void parseHistory_keepsRequestedSymbolInDateOrder() throws IOException {
+        String json = "{\"amount\":1.0,\"base\":\"USD\",\"start_date\":\"2024-01-02\",\"end_date\":\"2024-01-05\","
+                + "\"rates\":{\"2024-01-04\":{\"EUR\":0.91,\"INR\":83.2},"
+                + "\"2024-01-02\":{\"EUR\":0.9,\"INR\":83.1},"
+                + "\"2024-01-05\":{\"EUR\":0.92,\"INR\":83.3}}}";
+
+        RateSeries series = RatesParser.parseHistory(stream(json), "INR");
+
+        assertEquals(3, series.size());
+        assertEquals(EpochDays.of(2024, 1, 2), series.dayAt(0));
+        assertEquals(EpochDays.of(2024, 1, 5), series.dayAt(2));
+        assertEquals(83.1f, series.rateAt(0), 0f);
+        assertEquals(83.2f, series.rateAt(1), 0f);
+    }
+
+    @Test
+    public void numbers_matchDoubleParse() throws IOException {
+        String[] samples = {"0.1", "83.459124", "1234567.891", "-2.5e-3", "0.000012345", "12345678901234567890.5", "7"};
+        StringBuilder json = new StringBuilder("{\"rates\":{");
+        for (int i = 0; i < samples.length; i++) {
+            json.append("\"A").append((char) ('A' + i)).append("A\":").append(samples[i]).append(',');
+        }
+        json.setLength(json.length() - 1);
+        json.append("}}");
+
+        JsonPullParser parser = new JsonPullParser(new StringReader(json.toString()));
+        assertEquals(JsonPullParser.BEGIN_OBJECT, parser.next());
+        assertEquals(JsonPullParser.NAME, parser.next());
+        assertEquals(JsonPullParser.BEGIN_OBJECT, parser.next());
+        for (String sample : samples) {
+            assertEquals(JsonPullParser.NAME, parser.next());
+            assertEquals(JsonPullParser.NUMBER, parser.next());
+            assertEquals(Double.parseDouble(sample), parser.numberValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void epochDays_roundTripThroughFormat() {
+        assertEquals(0, EpochDays.of(1970, 1, 1));
+        assertEquals(4, EpochDays.dayOfWeek(0));
+        for (int day = EpochDays.of(1999, 12, 25); day < EpochDays.of(2031, 3, 1); day++) {
+            String text = EpochDays.format(day);
+            assertEquals(day, EpochDays.parse(text));
+        }
+        assertEquals("2024-02-29", EpochDays.format(EpochDays.of(2024, 2, 29)));
+        assertEquals(EpochDays.INVALID, EpochDays.parse("2024/02/29"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.currencyconverter;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TaskRunnerTest {
+
+    private static class Recorder<T> implements TaskRunner.Callback<T> {
+        final List<T> results = new CopyOnWriteArrayList<>();
+        final CountDownLatch done;
+
+        Recorder(CountDownLatch done) {
+            this.done = done;
+        }
+
+        @Override
+        public void onResult(T result) {
+            results.add(result);
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Exception error) {
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void identicalRequests_runOnce() throws Exception {
+        TaskRunner runner = new TaskRunner(Runnable::run, 2, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(2);
+        Recorder<String> first = new Recorder<>(done);
+        Recorder<String> second = new Recorder<>(done);
+
+        runner.submit("history:USD:INR:365", () -> {
+            runs.incrementAndGet();
+            release.await();
+            return "year";
+        }, first);
+        runner.submit("history:USD:INR:365", () -> {
+            runs.incrementAndGet();
+            return "duplicate";
+        }, second);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals("year", first.results.get(0));
+        assertEquals("year", second.results.get(0));
+    }
+
+    @Test
+    public void slot_deliversOnlyLatestRequest() throws Exception {
+        TaskRunner runner = new TaskRunner(Runnable::run, 2, 8);
+        TaskRunner.Slot slot = runner.newSlot();
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Recorder<String> stale = new Recorder<>(new CountDownLatch(1));
+        Recorder<String> latest = new Recorder<>(done);
+
+        TaskRunner.Handle slow = slot.submit("5Y", () -> {
+            slowStarted.countDown();
+            Thread.sleep(200);
+            return "5Y";
+        }, stale);
+        assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+        slot.submit("1M", () -> "1M", latest);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertTrue(slow.isCancelled());
+        assertTrue(stale.results.isEmpty());
+        assertEquals("1M", latest.results.get(0));
+    }
+}
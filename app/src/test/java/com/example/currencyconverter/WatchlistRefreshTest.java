@@ -0,0 +1,133 @@
+package com.example.currencyconverter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class WatchlistRefreshTest {
+
+    private static final int TODAY = EpochDays.of(2024, 6, 14);
+    private static final long NOW = 1_718_350_000_000L;
+    private static final String LATEST = "{\"result\":\"success\",\"base_code\":\"USD\","
+            + "\"rates\":{\"USD\":1,\"EUR\":0.93,\"GBP\":0.79,\"INR\":83.5,\"JPY\":157.2,\"CHF\":0.89}}";
+
+    private HttpServer server;
+    private String baseUrl;
+    private File dir;
+    private final AtomicInteger latestRequests = new AtomicInteger();
+    private final AtomicInteger historyRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("watchlist").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/latest", exchange -> {
+            latestRequests.incrementAndGet();
+            respond(exchange, LATEST);
+        });
+        // Every currency against EUR, INR rising by 0.1 a day
+        server.createContext("/history/", exchange -> {
+            historyRequests.incrementAndGet();
+            String[] range = exchange.getRequestURI().getPath().substring("/history/".length()).split("\\.\\.");
+            int start = EpochDays.parse(range[0]);
+            int end = EpochDays.parse(range[1]);
+            StringBuilder json = new StringBuilder("{\"base\":\"EUR\",\"rates\":{");
+            for (int day = start; day <= end; day++) {
+                json.append(day > start ? "," : "").append('"').append(EpochDays.format(day))
+                        .append("\":{\"CHF\":0.96,\"GBP\":0.85,\"INR\":").append(90 + (day - start) / 10.0)
+                        .append(",\"JPY\":169.1,\"USD\":1.08}");
+            }
+            respond(exchange, json.append("}}").toString());
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private WatchlistRefresh refresh() {
+        return new WatchlistRefresh(new RatesApi(new HttpClient(null, 1000, 1000),
+                new RateCache(new File(dir, "latest.bin")), new HistoryStore(new File(dir, "history")),
+                baseUrl + "/latest", baseUrl + "/history/"));
+    }
+
+    @Test
+    public void manyPairs_costTwoRequests() throws IOException {
+        Watchlist watchlist = new Watchlist(new File(dir, "watchlist.properties"));
+        watchlist.add("USD", "INR");
+        watchlist.add("EUR", "GBP");
+        watchlist.add("GBP", "JPY");
+        watchlist.add("CHF", "USD");
+        watchlist.add("JPY", "INR");
+        assertFalse(watchlist.add("USD", "INR"));
+
+        WatchlistRefresh.Result result = refresh().refresh(watchlist.pairs(), TODAY, NOW);
+        List<WatchlistRefresh.Row> rows = result.rows;
+        assertTrue(result.online);
+        assertTrue(result.updatedAt > 0);
+        assertEquals(1, latestRequests.get());
+        assertEquals(1, historyRequests.get());
+
+        assertEquals(5, rows.size());
+        WatchlistRefresh.Row usdInr = rows.get(0);
+        assertEquals("INR", usdInr.to);
+        assertEquals(83.5, usdInr.rate, 1e-9);
+        assertEquals(WatchlistRefresh.SPARKLINE_DAYS + 1, usdInr.sparkline.length);
+        // (93.0 / 1.08) against (92.9 / 1.08)
+        assertEquals(0.1 / 92.9 * 100, usdInr.changePercent, 1e-3);
+
+        // Within the cache lifetime nothing goes out again, and the rows come back equal
+        WatchlistRefresh.Result again = refresh().refresh(watchlist.pairs(), TODAY, NOW + 1000);
+        assertEquals(1, latestRequests.get());
+        assertEquals(1, historyRequests.get());
+        assertEquals(rows, again.rows);
+        // Still as old as the table that was fetched the first time
+        assertTrue(again.online);
+        assertEquals(result.updatedAt, again.updatedAt);
+    }
+
+    @Test
+    public void offline_keepsStoredRows() throws IOException {
+        Watchlist watchlist = new Watchlist(new File(dir, "watchlist.properties"));
+        watchlist.add("GBP", "USD");
+        long fetchedAt = refresh().refresh(watchlist.pairs(), TODAY, NOW).updatedAt;
+
+        server.stop(0);
+        // Watched pairs survive a restart
+        List<String> pairs = new Watchlist(new File(dir, "watchlist.properties")).pairs();
+        assertEquals(1, pairs.size());
+        WatchlistRefresh.Result result = refresh().refresh(pairs, TODAY + 1, NOW + 86_400_000L);
+        List<WatchlistRefresh.Row> rows = result.rows;
+        // The screen can say it is offline and how old the rates are
+        assertFalse(result.online);
+        assertEquals(fetchedAt, result.updatedAt);
+        // Latest rates from the cached table, history from the store
+        assertEquals(1 / 0.79, rows.get(0).rate, 1e-9);
+        assertEquals(WatchlistRefresh.SPARKLINE_DAYS, rows.get(0).sparkline.length);
+    }
+}
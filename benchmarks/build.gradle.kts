@@ -0,0 +1,51 @@
+// JVM-only JMH benchmarks for the app's pure-Java code paths.
+// Run with: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Compile the app's Android-free classes straight from its source tree so the benchmarks
+// always measure the code that ships, without publishing a separate library.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/currencyconverter/AmountFormat.java",
+                "com/example/currencyconverter/BatchConverter.java",
+                "com/example/currencyconverter/CrossRates.java",
+                "com/example/currencyconverter/EpochDays.java",
+                "com/example/currencyconverter/ExactConverter.java",
+                "com/example/currencyconverter/HistoryStore.java",
+                "com/example/currencyconverter/HttpClient.java",
+                "com/example/currencyconverter/JsonPullParser.java",
+                "com/example/currencyconverter/Lttb.java",
+                "com/example/currencyconverter/MappedSeries.java",
+                "com/example/currencyconverter/Metrics.java",
+                "com/example/currencyconverter/RangeStats.java",
+                "com/example/currencyconverter/RangeSet.java",
+                "com/example/currencyconverter/RateProvider.java",
+                "com/example/currencyconverter/RateHistory.java",
+                "com/example/currencyconverter/RateSeries.java",
+                "com/example/currencyconverter/RateTable.java",
+                "com/example/currencyconverter/RatesParser.java"
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Allocation rate per operation (gc.alloc.rate.norm) is reported next to the timings
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
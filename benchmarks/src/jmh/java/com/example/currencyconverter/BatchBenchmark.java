@@ -0,0 +1,82 @@
+package com.example.currencyconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch conversion throughput. Scores are per row, so 1e9 divided by the score is rows per
+ * second; the CSV run includes parsing and formatting but not disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private RateTable table;
+    private char[] csv;
+    private double[] amounts;
+    private double[] converted;
+
+    @Setup
+    public void setUp() throws IOException {
+        table = RatesParser.parseLatest(new ByteArrayInputStream(Fixtures.read(Fixtures.LATEST))).table;
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(ROWS * 32);
+        text.append("date,description,amount,currency\n");
+        amounts = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            amounts[i] = random.nextInt(1_000_000) / 100.0;
+            text.append("2024-06-").append(10 + i % 20).append(",item ").append(i).append(',')
+                    .append(amounts[i]).append(',').append(table.codeAt(random.nextInt(table.size()))).append('\n');
+        }
+        csv = text.toString().toCharArray();
+        converted = new double[ROWS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long convertCsv() throws IOException {
+        return new BatchConverter(table, threads).convertCsv(new CharArrayReader(csv), new NullWriter(),
+                table.indexOf("USD"), table.indexOf("EUR"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double[] convertAmounts() {
+        table.convertAll(table.indexOf("USD"), table.indexOf("EUR"), amounts, converted, 0, ROWS);
+        return converted;
+    }
+
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] chars, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.currencyconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion MainActivity does on every tap: resolve both spinner selections and
+ * convert through the base currency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    private RateTable table;
+    private ExactConverter exact;
+    private final ExactConverter.Money money = new ExactConverter.Money();
+    private final char[] formatted = new char[64];
+    private final int[] fromIndex = new int[PAIRS];
+    private final int[] toIndex = new int[PAIRS];
+    private final String[] fromCode = new String[PAIRS];
+    private final String[] toCode = new String[PAIRS];
+    private final double[] amount = new double[PAIRS];
+    private final String[] typed = new String[PAIRS];
+
+    @Setup
+    public void setUp() throws IOException {
+        table = RatesParser.parseLatest(new ByteArrayInputStream(Fixtures.read(Fixtures.LATEST))).table;
+        exact = new ExactConverter(table);
+        Random random = new Random(42);
+        for (int i = 0; i < PAIRS; i++) {
+            fromIndex[i] = random.nextInt(table.size());
+            toIndex[i] = random.nextInt(table.size());
+            fromCode[i] = table.codeAt(fromIndex[i]);
+            toCode[i] = table.codeAt(toIndex[i]);
+            amount[i] = 1 + random.nextInt(100_000) / 100.0;
+            typed[i] = Double.toString(amount[i]);
+        }
+    }
+
+    /** Spinner positions are table indices, so this is the path a tap takes. */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void convertByIndex(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(table.convert(fromIndex[i], toIndex[i], amount[i]));
+        }
+    }
+
+    /** Resolving codes first, as callers holding only currency strings have to. */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void convertByCode(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(table.convert(table.indexOf(fromCode[i]), table.indexOf(toCode[i]), amount[i]));
+        }
+    }
+
+    /** What a tap costs end to end: parse the typed text, convert exactly, format to chars. */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void convertExactAndFormat(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            money.parse(typed[i]);
+            exact.convert(fromIndex[i], toIndex[i], money, RoundingMode.HALF_UP, money);
+            blackhole.consume(money.format(formatted, 0));
+        }
+    }
+
+    /** The formatting it replaced, for comparison. */
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void convertDoubleAndStringFormat(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            double converted = table.convert(fromIndex[i], toIndex[i], Double.parseDouble(typed[i]));
+            blackhole.consume(String.format("%.2f %s", converted, toCode[i]));
+        }
+    }
+}
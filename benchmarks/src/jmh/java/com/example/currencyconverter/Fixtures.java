@@ -0,0 +1,34 @@
+package com.example.currencyconverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded API responses used as benchmark input: {@code latest_usd.json} has the shape of
+ * open.er-api's /v6/latest/USD and {@code history_usd_inr_5y.json} that of a five-year
+ * frankfurter range for one symbol.
+ */
+final class Fixtures {
+
+    static final String LATEST = "latest_usd.json";
+    static final String HISTORY_5Y = "history_usd_inr_5y.json";
+
+    private Fixtures() {
+    }
+
+    static byte[] read(String name) throws IOException {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.currencyconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Parsing the two API responses from bytes already in memory, as they arrive off the socket. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseBenchmark {
+
+    private byte[] latest;
+    private byte[] history5y;
+
+    @Setup
+    public void setUp() throws IOException {
+        latest = Fixtures.read(Fixtures.LATEST);
+        history5y = Fixtures.read(Fixtures.HISTORY_5Y);
+    }
+
+    @Benchmark
+    public RatesParser.LatestRates parseLatest() throws IOException {
+        return RatesParser.parseLatest(new ByteArrayInputStream(latest));
+    }
+
+    @Benchmark
+    public RateSeries parseHistory5y() throws IOException {
+        return RatesParser.parseHistory(new ByteArrayInputStream(history5y), "INR");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.currencyconverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a stored five-year history into what the chart draws: a window onto the mapped
+ * store, a full pass over it, LTTB down to screen width, and the range statistics shown
+ * under the chart. Wrapping points in chart
+ * Entry objects needs the Android library and is left to on-device profiling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeriesBenchmark {
+
+    // Roughly the chart's content width in pixels on a phone and on a tablet
+    @Param({"400", "1080"})
+    public int points;
+
+    private RateSeries parsed;
+    private RateSeries otherLeg;
+    private File dir;
+    private HistoryStore.Pair pair;
+    private int start;
+    private int end;
+    private int[] sample;
+    private RangeStats stats;
+    private final RangeStats.Window window = new RangeStats.Window();
+    private int query;
+
+    @Setup
+    public void setUp() throws IOException {
+        parsed = RatesParser.parseHistory(new ByteArrayInputStream(Fixtures.read(Fixtures.HISTORY_5Y)), "INR");
+        start = parsed.dayAt(0);
+        end = parsed.dayAt(parsed.size() - 1) + 1;
+        otherLeg = new RateSeries(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            otherLeg.add(parsed.dayAt(i), parsed.rateAt(i) * 0.0128f);
+        }
+
+        dir = Files.createTempDirectory("history-bench").toFile();
+        pair = new HistoryStore(dir).open("USD", "INR");
+        pair.merge(parsed, start, end, end, System.currentTimeMillis());
+        sample = new int[points];
+        stats = new RangeStats(parsed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /** Building a series point by point, as the parser does. */
+    @Benchmark
+    public RateSeries buildSeries() {
+        RateSeries series = new RateSeries(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            series.add(parsed.dayAt(i), parsed.rateAt(i));
+        }
+        return series;
+    }
+
+    /** Deriving a pair from two five-year legs against the same base. */
+    @Benchmark
+    public RateSeries deriveCrossPair() {
+        return CrossRates.derive(otherLeg, parsed);
+    }
+
+    /** Slicing the store and reading every point, the cost of a full-resolution render. */
+    @Benchmark
+    public double sliceAndScan() {
+        RateHistory history = pair.slice(start, end);
+        double sum = 0;
+        for (int i = 0; i < history.size(); i++) {
+            sum += history.rateAt(i);
+        }
+        return sum;
+    }
+
+    /** Slicing the store and picking only the points that get drawn. */
+    @Benchmark
+    public int sliceAndDownsample() {
+        RateHistory history = pair.slice(start, end);
+        return Lttb.select(history, 0, history.size(), points, sample, 0);
+    }
+
+    /** The one pass per range change that makes every later statistics query constant time. */
+    @Benchmark
+    public RangeStats buildRangeStats() {
+        return new RangeStats(parsed);
+    }
+
+    /** One gesture frame's statistics, over a window that moves like a pan. */
+    @Benchmark
+    public double visibleStats() {
+        query = (query + 1) % (parsed.size() - points);
+        stats.compute(query, query + points, window);
+        return window.volatility;
+    }
+}
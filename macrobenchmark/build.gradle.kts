@@ -0,0 +1,48 @@
+// Startup macrobenchmarks and the baseline profile generator for :app.
+// Timings:          ./gradlew :macrobenchmark:pixel6Api34BenchmarkReleaseAndroidTest
+// Baseline profile: ./gradlew :app:generateBaselineProfile
+// Both run on the managed emulator below, so neither is part of assemble or check.
+// Results land in macrobenchmark/build/outputs/ as JSON next to the Perfetto traces.
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.baselineprofile)
+}
+
+android {
+    namespace = "com.example.currencyconverter.macrobenchmark"
+    compileSdk = 35
+
+    defaultConfig {
+        // Baseline profiles can only be collected from API 28 up without root
+        minSdk = 28
+        targetSdk = 34
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+
+    targetProjectPath = ":app"
+
+    testOptions.managedDevices.localDevices {
+        create("pixel6Api34") {
+            device = "Pixel 6"
+            apiLevel = 34
+            systemImageSource = "aosp"
+        }
+    }
+}
+
+baselineProfile {
+    managedDevices += "pixel6Api34"
+    useConnectedDevices = false
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
@@ -0,0 +1,38 @@
+package com.example.currencyconverter.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Collects the classes and methods used from launch to the first chart frame. The result is
+ * written to app/src/release/generated/baselineProfiles and shipped through profileinstaller.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                Journeys.PACKAGE,
+                /* maxIterations = */ 15,
+                /* stableIterations = */ 3,
+                /* outputFilePrefix = */ null,
+                /* includeInStartupProfile = */ true,
+                /* strictStability = */ false,
+                /* filterPredicate = */ rule -> true,
+                scope -> {
+                    Journeys.startAndAwaitRates(scope);
+                    Journeys.convertAndOpenHistory(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.currencyconverter.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+/** The user paths the benchmarks time and the baseline profile is collected from. */
+final class Journeys {
+
+    static final String PACKAGE = "com.example.currencyconverter";
+    private static final long TIMEOUT_MS = 10_000;
+
+    private Journeys() {
+    }
+
+    /** Cold start until rates are on screen, which is when the first conversion can happen. */
+    static void startAndAwaitRates(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "status_text").textStartsWith("Rates updated")), TIMEOUT_MS);
+    }
+
+    /** From the main screen, converts an amount and waits for the history chart to appear. */
+    static void convertAndOpenHistory(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE, "amount_input")).setText("100");
+        device.findObject(By.res(PACKAGE, "convert_button")).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, "line_chart")), TIMEOUT_MS);
+        device.waitForIdle();
+    }
+}
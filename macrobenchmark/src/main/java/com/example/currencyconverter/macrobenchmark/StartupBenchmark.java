@@ -0,0 +1,62 @@
+package com.example.currencyconverter.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import kotlin.Unit;
+
+/**
+ * Cold-start timings with and without the baseline profile. Besides time to initial and full
+ * display it reports the app's own trace sections: {@code firstConversion} (process start to
+ * rates on screen) and {@code firstChartFrame} (history screen opened to first chart frame).
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void startupWithoutProfile() {
+        startup(new CompilationMode.None());
+    }
+
+    @Test
+    public void startupWithBaselineProfile() {
+        startup(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void startup(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE,
+                Arrays.asList(
+                        new StartupTimingMetric(),
+                        new TraceSectionMetric("firstConversion", TraceSectionMetric.Mode.First.INSTANCE),
+                        new TraceSectionMetric("firstChartFrame", TraceSectionMetric.Mode.First.INSTANCE)),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.startAndAwaitRates(scope);
+                    Journeys.convertAndOpenHistory(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -22,3 +22,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "currencyconverter"
 include(":app")
+include(":benchmarks")
+include(":macrobenchmark")